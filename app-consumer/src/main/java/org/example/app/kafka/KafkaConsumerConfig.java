@@ -1,10 +1,21 @@
 package org.example.app.kafka;
 
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.example.app.kafka.parallel.ParallelRecordProcessor;
+import org.example.app.kafka.projection.AvroProjections;
+import org.example.app.kafka.retry.RawValueRetainingDeserializer;
+import org.example.app.kafka.schemaid.SchemaIdExtractingDeserializer;
+import org.example.app.kafka.schemaid.SchemaIdStats;
+import org.example.avro.Greeting;
+import org.example.serde.PooledSpecificAvroDeserializer;
+import org.example.serde.ResolutionPlanCache;
+import org.example.serde.metrics.TimedDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
@@ -15,47 +26,63 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @Configuration
 @ConditionalOnProperty(prefix = "app.consumer.custom-sr-client", name = "enabled", havingValue = "true", matchIfMissing = false)
 public class KafkaConsumerConfig {
 
-    // Reuse one SR client across the app and let the deserializer use it.
+    // Resolution plans per (writer schema id, reader schema) for the pooled deserializer, bounded LRU
     @Bean
-    @ConditionalOnMissingBean(SchemaRegistryClient.class)
-    public SchemaRegistryClient schemaRegistryClient(KafkaProperties kafkaProperties) {
-        Map<String, Object> allProps = new HashMap<>(kafkaProperties.getProperties());
-        Object url = allProps.get("schema.registry.url");
-        if (url == null) {
-            // Also check consumer map just in case
-            url = kafkaProperties.buildConsumerProperties(null).get("schema.registry.url");
-        }
-        String schemaRegistryUrl = Objects.toString(url, null);
-        if (schemaRegistryUrl == null || schemaRegistryUrl.isBlank()) {
-            throw new IllegalStateException("schema.registry.url must be configured under spring.kafka.properties.schema.registry.url");
-        }
-        // Confluent client supports extra configs like bearer.* for OAuth
-        return new CachedSchemaRegistryClient(schemaRegistryUrl, 100, allProps);
+    public ResolutionPlanCache resolutionPlanCache(
+            @Value("${app.consumer.pooled-deserializer.plan-cache-size:256}") int maxSize) {
+        return new ResolutionPlanCache(maxSize);
     }
 
+    // schemaRegistryClient is the shared, prewarmed client auto-configured by avro-serde (app.schema-registry.*)
     @Bean
+    @SuppressWarnings("unchecked")
     public ConsumerFactory<String, Object> consumerFactory(KafkaProperties kafkaProperties,
-                                                           SchemaRegistryClient schemaRegistryClient) {
+                                                           SchemaRegistryClient schemaRegistryClient,
+                                                           SchemaIdStats schemaIdStats,
+                                                           AvroProjections avroProjections,
+                                                           ResolutionPlanCache resolutionPlanCache,
+                                                           ObjectProvider<MeterRegistry> meterRegistry,
+                                                           @Value("${app.metrics.serde.enabled:true}") boolean metrics,
+                                                           @Value("${app.consumer.pooled-deserializer.enabled:false}") boolean pooled,
+                                                           @Value("${app.consumer.pooled-deserializer.reuse-records:false}") boolean reuseRecords,
+                                                           @Value("${app.consumer.retry.enabled:false}") boolean retry) {
         Map<String, Object> consumerProps = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
         // We provide deserializer instances, so class entries are not required, but harmless if present.
         // Ensure specific reader is preserved if configured.
-        KafkaAvroDeserializer valueDeserializer = new KafkaAvroDeserializer(schemaRegistryClient, consumerProps);
+        Deserializer<Object> avroDeserializer = (Deserializer<Object>) (Deserializer<?>) (pooled
+                // Cached reader per (writer schema id, @AvroProjection fields), thread-local decoder; Greeting only
+                ? new PooledSpecificAvroDeserializer<>(schemaRegistryClient, Greeting.class, reuseRecords,
+                        avroProjections::forTopic, resolutionPlanCache)
+                : new KafkaAvroDeserializer(schemaRegistryClient, consumerProps));
+        MeterRegistry registry = metrics ? meterRegistry.getIfAvailable() : null;
+        if (registry != null) {
+            avroDeserializer = new TimedDeserializer<>(avroDeserializer, registry);
+        }
+        // Expose the writer schema id from the wire format as a header, without a registry lookup
+        Deserializer<Object> valueDeserializer =
+                new SchemaIdExtractingDeserializer<>(avroDeserializer, schemaIdStats);
+        if (retry) {
+            // Poison pills reach the error handler (and the DLT) with their raw bytes instead of failing poll()
+            valueDeserializer = RawValueRetainingDeserializer.withErrorHandling(valueDeserializer);
+        }
         StringDeserializer keyDeserializer = new StringDeserializer();
         return new DefaultKafkaConsumerFactory<>(consumerProps, keyDeserializer, valueDeserializer);
     }
 
     @Bean(name = "kafkaListenerContainerFactory")
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
-            ConsumerFactory<String, Object> consumerFactory) {
+            ConsumerFactory<String, Object> consumerFactory,
+            ObjectProvider<ParallelRecordProcessor> parallelRecordProcessor) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        // app.consumer.parallel.enabled: manual acks and key-ordered processing on virtual threads
+        parallelRecordProcessor.ifAvailable(processor -> factory.setContainerCustomizer(processor::configure));
         return factory;
     }
 }
@@ -1,6 +1,8 @@
 package org.example.app.kafka;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,13 +11,24 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaTopicConfig.class);
+
+    // Created when missing and grown when it has fewer partitions; other topic settings come from the migrator's
+    // topic provisioning
     @Bean
     public NewTopic appTopic(
-            @Value("${app.kafka.topic:demo-topic}") String topicName
+            @Value("${app.kafka.topic:demo-topic}") String topicName,
+            @Value("${app.kafka.partitions:6}") int partitions,
+            @Value("${app.kafka.replicas:1}") int replicas,
+            @Value("${spring.kafka.listener.concurrency:1}") int concurrency
     ) {
+        if (partitions < concurrency) {
+            log.warn("Topic {} has {} partition(s) for listener concurrency {}; {} consumer thread(s) will sit idle",
+                    topicName, partitions, concurrency, concurrency - partitions);
+        }
         return TopicBuilder.name(topicName)
-                .partitions(1)
-                .replicas(1)
+                .partitions(partitions)
+                .replicas(replicas)
                 .build();
     }
 }
@@ -0,0 +1,23 @@
+package org.example.app.kafka;
+
+import org.example.serde.ResolutionPlanCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(prefix = "app.consumer.custom-sr-client", name = "enabled", havingValue = "true", matchIfMissing = false)
+public class ResolutionPlanController {
+
+    private final ResolutionPlanCache plans;
+
+    public ResolutionPlanController(ResolutionPlanCache plans) {
+        this.plans = plans;
+    }
+
+    // Hit/miss/eviction counts of the pooled deserializer's (writer id, reader schema) plan cache
+    @GetMapping("/resolution-plans")
+    public ResolutionPlanCache.Stats resolutionPlans() {
+        return plans.stats();
+    }
+}
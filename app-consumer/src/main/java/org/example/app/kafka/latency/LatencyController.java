@@ -0,0 +1,22 @@
+package org.example.app.kafka.latency;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class LatencyController {
+
+    private final LatencyMonitor monitor;
+
+    public LatencyController(LatencyMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    // End-to-end and broker-append latency percentiles (ms) and lag, keyed by topic-partition
+    @GetMapping("/latency")
+    public Map<String, LatencyMonitor.PartitionReport> latency() {
+        return monitor.report();
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.app.kafka.latency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-partition consumer latency and lag.
+ * <ul>
+ *   <li>end-to-end: producer timestamp in the payload to consumer receive;</li>
+ *   <li>broker-append: record timestamp to consumer receive. This is the broker append time on topics with
+ *       {@code message.timestamp.type=LogAppendTime}; with CreateTime it is the producer client's send time;</li>
+ *   <li>lag: the {@code records-lag} metric of the listener containers' consumers (max across groups).</li>
+ * </ul>
+ * Latencies are milliseconds, wall clock against wall clock, so they include clock skew between hosts; negative
+ * values are recorded as 0. Percentiles are reported for the last complete window and since startup. Windows are
+ * rolled for all partitions together on a fixed-rate schedule, so they do not depend on when the metrics are read.
+ */
+@Component
+public class LatencyMonitor {
+
+    public static final String LATENCY = "kafka.consumer.record.latency";
+    public static final String LAG = "kafka.consumer.partition.lag";
+
+    private static final Comparator<TopicPartition> ORDER =
+            Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition);
+    // Lag is read from the consumers' metrics at most this often, however many gauges are scraped
+    private static final long LAG_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double[] PERCENTILES = {50, 99, 99.9, 100};
+
+    private final Map<TopicPartition, PartitionLatency> partitions = new ConcurrentHashMap<>();
+    private final MeterRegistry meters;
+    private final ObjectProvider<KafkaListenerEndpointRegistry> listeners;
+    private volatile LagSnapshot lag = new LagSnapshot(System.nanoTime() - LAG_REFRESH_NANOS, Map.of());
+
+    public LatencyMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                          ObjectProvider<KafkaListenerEndpointRegistry> listeners) {
+        this.meters = meterRegistry.getIfAvailable();
+        this.listeners = listeners;
+    }
+
+    public void record(ConsumerRecord<?, ?> record, long producerTimestamp) {
+        long now = System.currentTimeMillis();
+        long append = record.timestampType() == TimestampType.NO_TIMESTAMP_TYPE ? -1 : Math.max(0, now - record.timestamp());
+        TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+        PartitionLatency latency = partitions.get(tp);
+        if (latency == null) {
+            latency = partitions.computeIfAbsent(tp, this::register);
+        }
+        latency.record(Math.max(0, now - producerTimestamp), append);
+    }
+
+    /**
+     * Completes the current window of every partition.
+     */
+    @Scheduled(fixedRateString = "${app.consumer.latency.window:30s}",
+            initialDelayString = "${app.consumer.latency.window:30s}")
+    public void roll() {
+        Instant now = Instant.now();
+        partitions.values().forEach(latency -> latency.roll(now));
+    }
+
+    /**
+     * Latency and lag per partition, in partition order. Partitions with lag but no records yet have no latencies.
+     */
+    public Map<String, PartitionReport> report() {
+        Map<TopicPartition, Long> lags = lag();
+        TreeSet<TopicPartition> all = new TreeSet<>(ORDER);
+        all.addAll(partitions.keySet());
+        all.addAll(lags.keySet());
+        Map<String, PartitionReport> report = new LinkedHashMap<>();
+        for (TopicPartition tp : all) {
+            PartitionLatency latency = partitions.get(tp);
+            PartitionLatency.Report r = latency != null ? latency.report() : null;
+            report.put(tp.toString(), new PartitionReport(lags.get(tp),
+                    r != null ? r.windowStart() : null, r != null ? r.windowEnd() : null,
+                    r != null ? r.endToEndWindow() : null, r != null ? r.appendWindow() : null,
+                    r != null ? r.endToEndTotal() : null, r != null ? r.appendTotal() : null));
+        }
+        return report;
+    }
+
+    /**
+     * Records behind the log end per assigned partition, as last reported by the consumers.
+     */
+    public Map<TopicPartition, Long> lag() {
+        LagSnapshot snapshot = lag;
+        long now = System.nanoTime();
+        if (now - snapshot.readAt() >= LAG_REFRESH_NANOS) {
+            snapshot = new LagSnapshot(now, readLag());
+            lag = snapshot;
+        }
+        return snapshot.lag();
+    }
+
+    private Map<TopicPartition, Long> readLag() {
+        KafkaListenerEndpointRegistry registry = listeners.getIfAvailable();
+        if (registry == null) {
+            return Map.of();
+        }
+        Map<TopicPartition, Long> lags = new HashMap<>();
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+                metrics.forEach((name, metric) -> {
+                    String topic = name.tags().get("topic");
+                    String partition = name.tags().get("partition");
+                    if ("records-lag".equals(name.name()) && "consumer-fetch-manager-metrics".equals(name.group())
+                            && topic != null && partition != null
+                            // NaN until the partition's first fetch
+                            && metric.metricValue() instanceof Number n && !Double.isNaN(n.doubleValue())) {
+                        lags.merge(new TopicPartition(topic, Integer.parseInt(partition)), n.longValue(), Math::max);
+                    }
+                });
+            }
+        }
+        return lags;
+    }
+
+    private PartitionLatency register(TopicPartition tp) {
+        PartitionLatency latency = new PartitionLatency(Instant.now());
+        if (meters != null) {
+            String topic = tp.topic();
+            String partition = Integer.toString(tp.partition());
+            for (double percentile : PERCENTILES) {
+                String quantile = percentile == 100 ? "max" : Double.toString(percentile / 100);
+                gauge(latency, true, percentile, "end-to-end", topic, partition, quantile);
+                gauge(latency, false, percentile, "broker-append", topic, partition, quantile);
+            }
+            Gauge.builder(LAG, this, m -> m.lag().getOrDefault(tp, -1L))
+                    .description("Records behind the log end; -1 until the consumer has fetched the partition")
+                    .tags("topic", topic, "partition", partition)
+                    .register(meters);
+        }
+        return latency;
+    }
+
+    private void gauge(PartitionLatency latency, boolean endToEnd, double percentile,
+                       String kind, String topic, String partition, String quantile) {
+        Gauge.builder(LATENCY, latency, l -> l.windowValue(endToEnd, percentile))
+                .description("Record latency over the last complete window")
+                .baseUnit("milliseconds")
+                .tags("kind", kind, "topic", topic, "partition", partition, "quantile", quantile)
+                .register(meters);
+    }
+
+    /**
+     * Latencies of one partition: the last complete window, which covers {@code windowStart} to {@code windowEnd},
+     * and since startup. Null fields have no data yet.
+     */
+    public record PartitionReport(Long lag, Instant windowStart, Instant windowEnd,
+                                  LatencySummary endToEnd, LatencySummary brokerAppend,
+                                  LatencySummary endToEndSinceStart, LatencySummary brokerAppendSinceStart) {
+    }
+
+    private record LagSnapshot(long readAt, Map<TopicPartition, Long> lag) {
+    }
+}
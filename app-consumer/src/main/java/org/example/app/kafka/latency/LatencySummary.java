@@ -0,0 +1,16 @@
+package org.example.app.kafka.latency;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of one latency histogram, in milliseconds.
+ */
+public record LatencySummary(long count, long p50, long p90, long p99, long p999, long max) {
+
+    static LatencySummary of(Histogram histogram) {
+        return new LatencySummary(histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue());
+    }
+}
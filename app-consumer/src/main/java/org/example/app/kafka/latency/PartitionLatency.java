@@ -0,0 +1,71 @@
+package org.example.app.kafka.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Instant;
+
+/**
+ * Latency recorders for one partition. Listener threads record into {@link Recorder}s, which is wait-free;
+ * {@link #roll} moves them into the last complete window and the since-start totals. Readers see that window, and
+ * when it started and ended, until the next roll.
+ */
+final class PartitionLatency {
+
+    private final Recorder endToEnd = new Recorder(3);
+    private final Recorder append = new Recorder(3);
+    private final Histogram endToEndTotal = new Histogram(3);
+    private final Histogram appendTotal = new Histogram(3);
+
+    private Histogram endToEndWindow;
+    private Histogram appendWindow;
+    private Instant windowStart;
+    private Instant windowEnd;
+    private Instant rolledAt;
+
+    PartitionLatency(Instant now) {
+        this.rolledAt = now;
+        this.endToEndWindow = endToEnd.getIntervalHistogram();
+        this.appendWindow = append.getIntervalHistogram();
+    }
+
+    void record(long endToEndMillis, long appendMillis) {
+        endToEnd.recordValue(endToEndMillis);
+        if (appendMillis >= 0) {
+            append.recordValue(appendMillis);
+        }
+    }
+
+    /**
+     * Value at {@code percentile} (0-100) of the last complete window; 100 is the window maximum.
+     */
+    synchronized long windowValue(boolean endToEndLatency, double percentile) {
+        return (endToEndLatency ? endToEndWindow : appendWindow).getValueAtPercentile(percentile);
+    }
+
+    synchronized Report report() {
+        return new Report(windowStart, windowEnd, LatencySummary.of(endToEndWindow), LatencySummary.of(appendWindow),
+                LatencySummary.of(endToEndTotal), LatencySummary.of(appendTotal));
+    }
+
+    /**
+     * Completes the current window at {@code now}.
+     */
+    synchronized void roll(Instant now) {
+        // Recycles the previous window's histograms
+        endToEndWindow = endToEnd.getIntervalHistogram(endToEndWindow);
+        appendWindow = append.getIntervalHistogram(appendWindow);
+        endToEndTotal.add(endToEndWindow);
+        appendTotal.add(appendWindow);
+        windowStart = rolledAt;
+        windowEnd = now;
+        rolledAt = now;
+    }
+
+    /**
+     * @param windowStart null until the first window is complete, as is {@code windowEnd}
+     */
+    record Report(Instant windowStart, Instant windowEnd, LatencySummary endToEndWindow, LatencySummary appendWindow,
+                  LatencySummary endToEndTotal, LatencySummary appendTotal) {
+    }
+}
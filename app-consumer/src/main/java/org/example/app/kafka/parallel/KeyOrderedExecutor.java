@@ -0,0 +1,47 @@
+package org.example.app.kafka.parallel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs tasks on virtual threads, one at a time and in submission order per key; tasks of different keys run in
+ * parallel. A key's chain is dropped when its last task finishes, so the map only holds keys with work in flight.
+ */
+final class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("record-", 0).factory());
+    private final ConcurrentHashMap<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * @param key ordering key; null runs the task without ordering
+     */
+    void execute(Object key, Runnable task) {
+        if (key == null) {
+            executor.execute(task);
+            return;
+        }
+        CompletableFuture<Void> tail = tails.compute(key, (k, previous) -> previous == null
+                ? CompletableFuture.runAsync(task, executor)
+                // Runs after the previous task even if that one failed
+                : previous.handleAsync((result, ex) -> {
+                    task.run();
+                    return null;
+                }, executor));
+        tail.whenComplete((result, ex) -> tails.remove(key, tail));
+    }
+
+    /**
+     * Keys with queued or running tasks.
+     */
+    int activeKeys() {
+        return tails.size();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.app.kafka.parallel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.consumer.parallel", name = "enabled", havingValue = "true")
+public class ParallelProcessingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ParallelRecordProcessor parallelRecordProcessor(
+            @Value("${app.consumer.parallel.max-in-flight-per-partition:1000}") int maxInFlight,
+            @Value("${app.consumer.parallel.revoke-timeout:10s}") Duration revokeTimeout,
+            @Value("${app.consumer.custom-sr-client.enabled:false}") boolean customClient,
+            @Value("${app.consumer.pooled-deserializer.enabled:false}") boolean pooled,
+            @Value("${app.consumer.pooled-deserializer.reuse-records:false}") boolean reuseRecords,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<ConsumerRecordRecoverer> recoverer
+    ) {
+        checkNoRecordReuse(customClient && pooled && reuseRecords);
+        ParallelRecordProcessor processor =
+                new ParallelRecordProcessor(maxInFlight, revokeTimeout, meterRegistry.getIfAvailable());
+        // app.consumer.retry.enabled: failed records go to the retry topics instead of being skipped
+        recoverer.ifAvailable(processor::setRecoverer);
+        return processor;
+    }
+
+    // Records are still being handled on the processing threads when the next poll is decoded; a reused instance
+    // would be overwritten under them
+    static void checkNoRecordReuse(boolean reuseRecords) {
+        if (reuseRecords) {
+            throw new IllegalStateException("app.consumer.parallel.enabled cannot be combined with "
+                    + "app.consumer.pooled-deserializer.reuse-records: records handed to processing threads would be "
+                    + "decoded over by the next polls; turn one of them off");
+        }
+    }
+
+    // Applied by Boot's kafkaListenerContainerFactory; KafkaConsumerConfig applies it to its own factory
+    @Bean
+    public ContainerCustomizer<Object, Object, ConcurrentMessageListenerContainer<Object, Object>> parallelContainerCustomizer(
+            ParallelRecordProcessor processor) {
+        return processor::configure;
+    }
+}
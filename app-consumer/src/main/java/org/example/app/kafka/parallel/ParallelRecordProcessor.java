@@ -0,0 +1,223 @@
+package org.example.app.kafka.parallel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Processes the records of listener containers on virtual threads, in order per record key instead of per partition.
+ * <p>
+ * The listener thread only dispatches: records with the same key (within a partition) run one after another, records
+ * with different keys run in parallel, so throughput scales with the number of keys and one slow record only holds
+ * back its own key. Records without a key are not ordered. Offsets are tracked per partition and only the highest
+ * contiguous completed offset is acknowledged; the containers run with {@code AckMode.MANUAL} and commit those on the
+ * consumer thread. A partition is paused when {@code maxInFlight} of its records are incomplete and resumed once half
+ * of them are done.
+ * <p>
+ * A record whose handler throws is handed to the {@link #setRecoverer recoverer} (with retry topics: published to the
+ * next retry topic or the DLT), or logged, and then counted as done. On revocation the revoked partitions get up to
+ * {@code revokeTimeout} to finish so their offsets are committed; records still running after that are redelivered to
+ * the next owner (at-least-once).
+ */
+public class ParallelRecordProcessor implements ConsumerAwareRebalanceListener, AutoCloseable {
+
+    public static final String IN_FLIGHT = "kafka.consumer.parallel.in.flight";
+    public static final String KEYS = "kafka.consumer.parallel.keys";
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelRecordProcessor.class);
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor();
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final List<MessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+    private final int maxInFlight;
+    private final Duration revokeTimeout;
+    private volatile ConsumerRecordRecoverer recoverer;
+
+    /**
+     * @param maxInFlight   incomplete records per partition before the partition is paused
+     * @param revokeTimeout how long revoked partitions may take to finish their in-flight records
+     * @param meters        registry for the in-flight and key gauges; may be null
+     */
+    public ParallelRecordProcessor(int maxInFlight, Duration revokeTimeout, MeterRegistry meters) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.revokeTimeout = revokeTimeout;
+        if (meters != null) {
+            Gauge.builder(IN_FLIGHT, this, ParallelRecordProcessor::inFlight)
+                    .description("Records dispatched to processing threads and not completed yet")
+                    .register(meters);
+            Gauge.builder(KEYS, executor, KeyOrderedExecutor::activeKeys)
+                    .description("Record keys with records queued or being processed")
+                    .register(meters);
+        }
+    }
+
+    /**
+     * Switches a container to manual acknowledgments and this processor's rebalance handling.
+     */
+    public void configure(MessageListenerContainer container) {
+        ContainerProperties properties = container.getContainerProperties();
+        properties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        properties.setConsumerRebalanceListener(this);
+        containers.add(container);
+    }
+
+    /**
+     * Takes over records whose handler threw, on the processing thread; the record is acknowledged once it returns.
+     * If the recoverer throws too, the record is logged and skipped.
+     */
+    public void setRecoverer(ConsumerRecordRecoverer recoverer) {
+        this.recoverer = recoverer;
+    }
+
+    /**
+     * Hands a record to the processing threads; called on the listener thread.
+     *
+     * @param ack the record's acknowledgment, present because {@link #configure} set {@code AckMode.MANUAL}
+     */
+    public <K, V> void submit(ConsumerRecord<K, V> record, Acknowledgment ack,
+                              java.util.function.Consumer<ConsumerRecord<K, V>> handler) {
+        if (ack == null) {
+            throw new IllegalStateException("Parallel processing needs AckMode.MANUAL; the listener container "
+                    + "factory was not configured by ParallelRecordProcessor");
+        }
+        TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+        PartitionState state = partitions.computeIfAbsent(tp, PartitionState::new);
+        state.offsets.dispatched(record.offset(), ack);
+        state.updatePause();
+        Object key = record.key() != null ? new OrderingKey(tp, record.key()) : null;
+        executor.execute(key, () -> process(record, handler, state));
+    }
+
+    /**
+     * Records dispatched and not completed, across partitions.
+     */
+    public int inFlight() {
+        return partitions.values().stream().mapToInt(state -> state.offsets.inFlight()).sum();
+    }
+
+    private <K, V> void process(ConsumerRecord<K, V> record, java.util.function.Consumer<ConsumerRecord<K, V>> handler,
+                                PartitionState state) {
+        try {
+            handler.accept(record);
+        } catch (RuntimeException e) {
+            recover(record, e);
+        } finally {
+            Acknowledgment commit = state.offsets.completed(record.offset());
+            // Not for revoked partitions: their next owner may have committed already
+            if (commit != null && partitions.get(state.tp) == state) {
+                commit.acknowledge();
+            }
+            state.updatePause();
+        }
+    }
+
+    private void recover(ConsumerRecord<?, ?> record, RuntimeException failure) {
+        ConsumerRecordRecoverer recoverer = this.recoverer;
+        try {
+            if (recoverer != null) {
+                recoverer.accept(record, failure);
+                return;
+            }
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        log.error("Failed to process {}-{}@{}, skipping it", record.topic(), record.partition(), record.offset(), failure);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        long deadline = System.currentTimeMillis() + revokeTimeout.toMillis();
+        for (TopicPartition tp : revoked) {
+            PartitionState state = partitions.get(tp);
+            if (state == null) {
+                continue;
+            }
+            try {
+                // Their acknowledgments are queued for the commit that follows this callback
+                if (!state.offsets.awaitDrained(Math.max(0, deadline - System.currentTimeMillis()))) {
+                    log.warn("{} record(s) of {} still in flight after {}; they will be redelivered",
+                            state.offsets.inFlight(), tp, revokeTimeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            forget(state);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        // Already owned by another consumer: nothing can be committed
+        for (TopicPartition tp : lost) {
+            PartitionState state = partitions.get(tp);
+            if (state != null) {
+                forget(state);
+            }
+        }
+    }
+
+    private void forget(PartitionState state) {
+        partitions.remove(state.tp, state);
+        state.resumeIfPaused();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private record OrderingKey(TopicPartition partition, Object key) {
+    }
+
+    private final class PartitionState {
+        private final TopicPartition tp;
+        private final PartitionOffsets<Acknowledgment> offsets = new PartitionOffsets<>();
+        private boolean paused;
+
+        private PartitionState(TopicPartition tp) {
+            this.tp = tp;
+        }
+
+        // Pause at maxInFlight, resume at half of it. Called by the listener and processing threads alike, so the
+        // decision and the container call happen under one lock.
+        private synchronized void updatePause() {
+            int inFlight = offsets.inFlight();
+            if (!paused && inFlight >= maxInFlight) {
+                paused = true;
+                containers.stream().filter(this::assigned).forEach(c -> c.pausePartition(tp));
+                log.debug("Paused {} with {} record(s) in flight", tp, inFlight);
+            } else if (paused && inFlight <= maxInFlight / 2) {
+                resumeIfPaused();
+            }
+        }
+
+        private synchronized void resumeIfPaused() {
+            if (paused) {
+                paused = false;
+                containers.stream().filter(this::assigned).forEach(c -> c.resumePartition(tp));
+                log.debug("Resumed {}", tp);
+            }
+        }
+
+        private boolean assigned(MessageListenerContainer container) {
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            return assigned != null && assigned.contains(tp);
+        }
+    }
+}
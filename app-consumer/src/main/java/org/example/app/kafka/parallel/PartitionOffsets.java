@@ -0,0 +1,63 @@
+package org.example.app.kafka.parallel;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offsets of one partition that were dispatched but not committed yet, with the acknowledgment handle of each.
+ * Records complete in any order; {@link #completed} returns the handle to commit only when the completion extends the
+ * contiguous run of completed offsets, i.e. the highest offset below which everything is done.
+ */
+final class PartitionOffsets<A> {
+
+    private final TreeMap<Long, A> pending = new TreeMap<>();
+    // Completed above the lowest pending offset: committed once the gap below them closes
+    private final TreeMap<Long, A> completed = new TreeMap<>();
+
+    synchronized void dispatched(long offset, A ack) {
+        pending.put(offset, ack);
+    }
+
+    /**
+     * @return the handle of the highest offset that can now be committed, or null if the completion left a gap
+     */
+    synchronized A completed(long offset) {
+        A ack = pending.remove(offset);
+        if (ack == null) {
+            return null;
+        }
+        completed.put(offset, ack);
+        Map.Entry<Long, A> commit = pending.isEmpty()
+                ? completed.lastEntry()
+                : completed.lowerEntry(pending.firstKey());
+        if (commit == null) {
+            return null;
+        }
+        completed.headMap(commit.getKey(), true).clear();
+        if (pending.isEmpty()) {
+            notifyAll();
+        }
+        return commit.getValue();
+    }
+
+    synchronized int inFlight() {
+        return pending.size();
+    }
+
+    /**
+     * Waits until no dispatched record is pending.
+     *
+     * @return false on timeout
+     */
+    synchronized boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!pending.isEmpty()) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                return false;
+            }
+            wait(wait);
+        }
+        return true;
+    }
+}
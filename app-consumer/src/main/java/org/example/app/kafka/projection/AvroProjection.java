@@ -0,0 +1,20 @@
+package org.example.app.kafka.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the Avro fields a {@code @KafkaListener} method reads. With the pooled deserializer enabled, records on
+ * the listener's topics are decoded through a reader schema reduced to these fields; the other fields are skipped
+ * and left unset on the record. Listeners sharing a topic get the union of their fields.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AvroProjection {
+
+    String[] value();
+}
@@ -0,0 +1,89 @@
+package org.example.app.kafka.projection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link AvroProjection} fields per topic from {@code @KafkaListener} methods as beans are created.
+ * A topic that also has a listener without a projection is decoded in full. Topics are resolved with the environment's placeholders; SpEL expressions and topic patterns are not supported.
+ */
+@Component
+public class AvroProjections implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(AvroProjections.class);
+
+    private final Environment environment;
+    private final Map<String, Set<String>> fieldsByTopic = new ConcurrentHashMap<>();
+    private final Set<String> fullTopics = ConcurrentHashMap.newKeySet();
+
+    public AvroProjections(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = AopUtils.getTargetClass(bean);
+        AvroProjection onType = AnnotatedElementUtils.findMergedAnnotation(type, AvroProjection.class);
+        Map<Method, KafkaListener> listeners = MethodIntrospector.selectMethods(type,
+                (MethodIntrospector.MetadataLookup<KafkaListener>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, KafkaListener.class));
+        listeners.forEach((method, listener) -> {
+            AvroProjection projection = AnnotatedElementUtils.findMergedAnnotation(method, AvroProjection.class);
+            if (projection == null) {
+                projection = onType;
+            }
+            String name = beanName + "." + method.getName();
+            for (String topic : topics(listener)) {
+                if (projection != null) {
+                    register(topic, projection.value(), name);
+                } else {
+                    fullTopics.add(topic);
+                }
+            }
+        });
+        return bean;
+    }
+
+    /**
+     * Fields to decode for a topic; empty means the whole record.
+     */
+    public Set<String> forTopic(String topic) {
+        return fullTopics.contains(topic) ? Set.of() : fieldsByTopic.getOrDefault(topic, Set.of());
+    }
+
+    private List<String> topics(KafkaListener listener) {
+        List<String> topics = new ArrayList<>();
+        for (String expression : listener.topics()) {
+            for (String topic : environment.resolveRequiredPlaceholders(expression).split(",")) {
+                if (!topic.isBlank()) {
+                    topics.add(topic.trim());
+                }
+            }
+        }
+        return topics;
+    }
+
+    private void register(String topic, String[] fields, String listener) {
+        Set<String> merged = fieldsByTopic.merge(topic, new TreeSet<>(Set.of(fields)), (a, b) -> {
+            Set<String> union = new TreeSet<>(a);
+            union.addAll(b);
+            return union;
+        });
+        log.info("Avro projection for topic {} from {}: {}", topic, listener, merged);
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.app.kafka.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.app.kafka.specific.ConsumerListenerSpecific;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking retries for the main listener: a failed record is published to a delayed retry topic (or, once its
+ * attempts are used up or the failure is fatal, to the dead-letter topic) and the partition moves on. Records that
+ * cannot be deserialized are fatal and go straight to the DLT.
+ */
+@Configuration
+@EnableKafkaRetryTopic
+@ConditionalOnProperty(prefix = "app.consumer.retry", name = "enabled", havingValue = "true")
+public class ConsumerRetryConfig {
+
+    private static final String RETRY_SUFFIX = "-retry";
+    private static final String DLT_SUFFIX = "-dlt";
+
+    @Bean
+    public RetryTierMetrics retryTierMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RetryTierMetrics(meterRegistry.getIfAvailable(), RETRY_SUFFIX, DLT_SUFFIX);
+    }
+
+    // Forwards the consumed bytes (RawValueSerializer), so the value serializer never touches the registry
+    @Bean
+    public DefaultKafkaProducerFactory<String, Object> retryProducerFactory(KafkaProperties kafkaProperties) {
+        return new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(), new RawValueSerializer());
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> retryKafkaTemplate(
+            DefaultKafkaProducerFactory<String, Object> retryProducerFactory, RetryTierMetrics metrics) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(retryProducerFactory);
+        template.setProducerListener(metrics);
+        return template;
+    }
+
+    // Topics <topic>-retry-0..n with delays initial * multiplier^n (capped at max), then <topic>-dlt
+    @Bean
+    public RetryTopicConfiguration greetingRetryTopics(
+            KafkaTemplate<String, Object> retryKafkaTemplate,
+            @Value("${app.kafka.topic:demo-topic}") String topic,
+            @Value("${app.kafka.partitions:6}") int partitions,
+            @Value("${app.kafka.replicas:1}") short replicas,
+            @Value("${app.consumer.retry.attempts:4}") int attempts,
+            @Value("${app.consumer.retry.backoff.initial:1s}") Duration initial,
+            @Value("${app.consumer.retry.backoff.multiplier:2.0}") double multiplier,
+            @Value("${app.consumer.retry.backoff.max:30s}") Duration max
+    ) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(topic)
+                .maxAttempts(attempts)
+                .exponentialBackoff(initial.toMillis(), multiplier, max.toMillis())
+                .retryTopicSuffix(RETRY_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .suffixTopicsWithIndexValues()
+                // Same partition count as the main topic: records keep their partition on every hop
+                .autoCreateTopicsWith(partitions, replicas)
+                .dltHandlerMethod("deadLetterLogger", "handle")
+                // A dead letter the handler cannot read is logged and skipped rather than sent to the DLT again
+                .doNotRetryOnDltFailure()
+                .create(retryKafkaTemplate);
+    }
+
+    @Bean
+    public DeadLetterLogger deadLetterLogger() {
+        return new DeadLetterLogger();
+    }
+
+    @Bean
+    public DltReplayer dltReplayer(KafkaProperties kafkaProperties,
+                                   KafkaTemplate<String, Object> retryKafkaTemplate,
+                                   @Value("${app.kafka.topic:demo-topic}") String topic,
+                                   @Value("${spring.kafka.consumer.group-id:demo-group}") String groupId,
+                                   @Value("${app.consumer.retry.replay.timeout:10s}") Duration timeout) {
+        return new DltReplayer(kafkaProperties.buildConsumerProperties(null), groupId + "-dlt-replay",
+                retryKafkaTemplate, topic + DLT_SUFFIX, topic, timeout);
+    }
+
+    // Parallel processing handles listener exceptions on its own threads, where the container's error handler does
+    // not see them; this recoverer routes them the same way (next retry topic or DLT, with the attempt headers)
+    @Bean
+    @ConditionalOnProperty(prefix = "app.consumer.parallel", name = "enabled", havingValue = "true")
+    public ConsumerRecordRecoverer parallelRetryRecoverer(DestinationTopicResolver destinationTopicResolver) {
+        DeadLetterPublishingRecovererFactory factory = new DeadLetterPublishingRecovererFactory(destinationTopicResolver);
+        // There is no consumer on the processing threads to look the destination partitions up with
+        factory.setDeadLetterPublishingRecovererCustomizer(recoverer -> recoverer.setVerifyPartition(false));
+        return factory.create(ConsumerListenerSpecific.LISTENER_ID);
+    }
+}
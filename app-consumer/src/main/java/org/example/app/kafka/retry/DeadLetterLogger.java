@@ -0,0 +1,51 @@
+package org.example.app.kafka.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.example.app.kafka.schemaid.SchemaIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.lang.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Handler of the dead-letter topic: logs where each record came from and why it failed. The records stay in the topic
+ * for {@link DltReplayer}.
+ */
+public class DeadLetterLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterLogger.class);
+
+    // A real acknowledgment when parallel processing switched the containers to manual acks; otherwise @NonNull makes
+    // spring-kafka pass a no-op one instead of failing the record
+    public void handle(ConsumerRecord<String, Object> record, @NonNull Acknowledgment ack) {
+        Headers headers = record.headers();
+        int schemaId = SchemaIds.fromHeaders(headers);
+        log.error("[DLT] {}-{}@{} from {}-{}@{}, key='{}', schemaId='{}': {}: {}",
+                record.topic(), record.partition(), record.offset(),
+                header(headers, KafkaHeaders.DLT_ORIGINAL_TOPIC), partition(headers),
+                offset(headers), record.key(), schemaId != SchemaIds.UNKNOWN ? schemaId : "none",
+                header(headers, KafkaHeaders.DLT_EXCEPTION_FQCN), header(headers, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        ack.acknowledge();
+    }
+
+    private static String header(Headers headers, String key) {
+        Header h = headers.lastHeader(key);
+        return h != null ? new String(h.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static Object partition(Headers headers) {
+        Header h = headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        return h != null && h.value().length == Integer.BYTES ? ByteBuffer.wrap(h.value()).getInt() : null;
+    }
+
+    private static Object offset(Headers headers) {
+        Header h = headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        return h != null && h.value().length == Long.BYTES ? ByteBuffer.wrap(h.value()).getLong() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.app.kafka.retry;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnProperty(prefix = "app.consumer.retry", name = "enabled", havingValue = "true")
+public class DltReplayController {
+
+    private final DltReplayer replayer;
+
+    public DltReplayController(DltReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    // Sends up to max dead letters back to the topic they failed on
+    @PostMapping("/dlt/replay")
+    public DltReplayer.ReplayResult replay(@RequestParam(defaultValue = "100") int max) throws InterruptedException {
+        return replayer.replay(max);
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.app.kafka.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.app.kafka.schemaid.SchemaIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends dead letters back to the topic they originally failed on, e.g. once the bug or the missing schema behind them
+ * is fixed. The raw bytes go out unchanged with their original key and headers, minus the DLT, retry and
+ * deserialization-error headers, so they start over with a fresh set of attempts.
+ * <p>
+ * Reads the dead-letter topic with its own consumer group and commits a poll's offsets only after all of its records
+ * were acknowledged, so the next replay resumes where the last one stopped; after a failed send some records may go
+ * out twice.
+ */
+public class DltReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(DltReplayer.class);
+    private static final List<String> STRIPPED_PREFIXES = List.of("kafka_dlt-", "retry_topic-",
+            SerializationUtils.DESERIALIZER_EXCEPTION_HEADER_PREFIX);
+
+    private final Map<String, Object> consumerConfigs;
+    private final KafkaTemplate<String, Object> template;
+    private final String dltTopic;
+    private final String mainTopic;
+    private final Duration timeout;
+
+    /**
+     * @param consumerConfigs consumer settings; group, deserializers and offset handling are set here
+     * @param template        publishes the raw bytes, see {@link RawValueSerializer}
+     * @param timeout         for each poll and for the acknowledgments of the records it returned
+     */
+    public DltReplayer(Map<String, Object> consumerConfigs, String groupId, KafkaTemplate<String, Object> template,
+                       String dltTopic, String mainTopic, Duration timeout) {
+        this.consumerConfigs = new HashMap<>(consumerConfigs);
+        this.consumerConfigs.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        this.consumerConfigs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerConfigs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        this.template = template;
+        this.dltTopic = dltTopic;
+        this.mainTopic = mainTopic;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Replays up to {@code maxRecords} dead letters, oldest first per partition; one replay runs at a time.
+     */
+    public synchronized ReplayResult replay(int maxRecords) throws InterruptedException {
+        Map<String, Object> configs = new HashMap<>(consumerConfigs);
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.max(1, Math.min(maxRecords, 500)));
+        Map<String, Integer> replayed = new HashMap<>();
+        try (KafkaConsumer<String, byte[]> consumer =
+                     new KafkaConsumer<>(configs, new StringDeserializer(), new ByteArrayDeserializer())) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(dltTopic, timeout)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            // Assigned rather than subscribed: no group join, offsets are still committed under the replay group
+            consumer.assign(partitions);
+            int total = 0;
+            while (total < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(timeout);
+                if (records.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> commit = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (total == maxRecords) {
+                        // Not committed: the next replay starts here
+                        break;
+                    }
+                    ProducerRecord<String, Object> replay = replayRecord(record, mainTopic);
+                    sends.add(template.send(replay));
+                    replayed.merge(replay.topic(), 1, Integer::sum);
+                    commit.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    total++;
+                }
+                await(sends);
+                consumer.commitSync(commit);
+            }
+            long remaining = remaining(consumer, partitions);
+            log.info("Replayed {} dead letter(s) from {} ({}), {} left", total, dltTopic, replayed, remaining);
+            return new ReplayResult(total, replayed, remaining);
+        }
+    }
+
+    private long remaining(KafkaConsumer<String, byte[]> consumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions), timeout);
+        Map<TopicPartition, Long> start = consumer.beginningOffsets(partitions, timeout);
+        long remaining = 0;
+        for (Map.Entry<TopicPartition, Long> end : consumer.endOffsets(partitions, timeout).entrySet()) {
+            OffsetAndMetadata position = committed.get(end.getKey());
+            long from = Math.max(start.get(end.getKey()), position != null ? position.offset() : 0);
+            remaining += Math.max(0, end.getValue() - from);
+        }
+        return remaining;
+    }
+
+    /**
+     * The record that sends a dead letter back: to the topic it first failed on, else {@code defaultTopic}.
+     */
+    static ProducerRecord<String, Object> replayRecord(ConsumerRecord<String, byte[]> record, String defaultTopic) {
+        // With original headers appended per hop, the first one names the topic the record started on
+        Iterator<Header> original = record.headers().headers(KafkaHeaders.DLT_ORIGINAL_TOPIC).iterator();
+        String topic = original.hasNext() ? new String(original.next().value(), StandardCharsets.UTF_8) : defaultTopic;
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!stripped(header.key())) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(topic, null, record.key(), record.value(), headers);
+    }
+
+    private static boolean stripped(String key) {
+        return key.equals(SchemaIds.HEADER) || key.equals(RawValueRetainingDeserializer.HEADER)
+                || STRIPPED_PREFIXES.stream().anyMatch(key::startsWith);
+    }
+
+    private void await(List<CompletableFuture<SendResult<String, Object>>> sends) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Nothing of this poll is committed: the next replay sends it again
+            throw new IllegalStateException("Replaying dead letters from " + dltTopic + " failed", e);
+        }
+    }
+
+    public record ReplayResult(int replayed, Map<String, Integer> byTopic, long remaining) {
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.app.kafka.retry;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.Map;
+
+/**
+ * Wraps the value deserializer and attaches the record's wire bytes as the {@value #HEADER} header before delegating,
+ * so they are still there when decoding or the listener fails. The header holds the fetched array itself, no copy.
+ * {@link RawValueSerializer} publishes these bytes unchanged to the retry and dead-letter topics: same schema id,
+ * no re-encoding and no registry lookups.
+ */
+public class RawValueRetainingDeserializer<T> implements Deserializer<T> {
+
+    public static final String HEADER = "x-raw-value";
+
+    private final Deserializer<T> delegate;
+
+    public RawValueRetainingDeserializer(Deserializer<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * The consumer chain used with retry topics: decoding failures become a null value plus Spring's
+     * {@code DeserializationException} header instead of an exception thrown from {@code poll()}.
+     */
+    public static <T> Deserializer<T> withErrorHandling(Deserializer<T> delegate) {
+        return new ErrorHandlingDeserializer<>(new RawValueRetainingDeserializer<>(delegate));
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        headers.remove(HEADER);
+        if (data != null) {
+            headers.add(HEADER, data);
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.app.kafka.retry;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Value serializer of the retry tier: forwards the bytes a record was consumed with instead of encoding the value
+ * again. They come from the {@value RawValueRetainingDeserializer#HEADER} header, which is removed from the outgoing
+ * record, or from a {@code byte[]} value (poison pills, DLT replays).
+ */
+public class RawValueSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null || data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        throw new SerializationException("No consumed bytes for a " + data.getClass().getName() + " sent to "
+                + topic + "; the retry tier only forwards records read through RawValueRetainingDeserializer");
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        Header raw = headers.lastHeader(RawValueRetainingDeserializer.HEADER);
+        if (raw != null) {
+            headers.remove(RawValueRetainingDeserializer.HEADER);
+            return raw.value();
+        }
+        return serialize(topic, data);
+    }
+}
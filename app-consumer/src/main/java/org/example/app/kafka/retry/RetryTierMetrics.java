@@ -0,0 +1,88 @@
+package org.example.app.kafka.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Counts the records the retry tier publishes, tagged by {@code tier} ({@code retry}, {@code dlt}, or {@code replay}
+ * for DLT records sent back to the main topic), destination {@code topic} and the {@code exception} that caused the
+ * routing.
+ */
+public class RetryTierMetrics implements ProducerListener<String, Object> {
+
+    public static final String ROUTED = "kafka.consumer.retry.routed";
+    public static final String FAILED = "kafka.consumer.retry.routing.failed";
+
+    private static final Logger log = LoggerFactory.getLogger(RetryTierMetrics.class);
+
+    private final MeterRegistry meters;
+    private final String retrySuffix;
+    private final String dltSuffix;
+
+    /**
+     * @param meters may be null: only send failures are logged then
+     */
+    public RetryTierMetrics(MeterRegistry meters, String retrySuffix, String dltSuffix) {
+        this.meters = meters;
+        this.retrySuffix = retrySuffix;
+        this.dltSuffix = dltSuffix;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<String, Object> record, RecordMetadata metadata) {
+        count(ROUTED, record);
+    }
+
+    @Override
+    public void onError(ProducerRecord<String, Object> record, RecordMetadata metadata, Exception exception) {
+        log.error("Could not route a record to {}", record.topic(), exception);
+        count(FAILED, record);
+    }
+
+    String tier(String topic) {
+        if (topic.endsWith(dltSuffix)) {
+            return "dlt";
+        }
+        return topic.contains(retrySuffix) ? "retry" : "replay";
+    }
+
+    private void count(String name, ProducerRecord<String, Object> record) {
+        if (meters == null) {
+            return;
+        }
+        Counter.builder(name)
+                .tag("tier", tier(record.topic()))
+                .tag("topic", record.topic())
+                .tag("exception", exception(record))
+                .register(meters)
+                .increment();
+    }
+
+    // The listener's own exception, not the container's ListenerExecutionFailedException wrapper
+    private static String exception(ProducerRecord<String, Object> record) {
+        String name = header(record, KafkaHeaders.DLT_EXCEPTION_FQCN);
+        String cause = header(record, KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN);
+        if (name == null) {
+            return "none";
+        }
+        if (cause != null && name.equals(ListenerExecutionFailedException.class.getName())) {
+            name = cause;
+        }
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static String header(ProducerRecord<String, Object> record, String key) {
+        Header h = record.headers().lastHeader(key);
+        return h != null ? new String(h.value(), StandardCharsets.UTF_8) : null;
+    }
+}
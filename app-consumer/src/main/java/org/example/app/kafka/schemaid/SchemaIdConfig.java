@@ -0,0 +1,76 @@
+package org.example.app.kafka.schemaid;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.app.kafka.retry.RawValueRetainingDeserializer;
+import org.example.serde.metrics.SerdeMetrics;
+import org.example.serde.metrics.TimedDeserializer;
+import org.example.serde.registry.SharedSchemaRegistryClient;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Configuration
+public class SchemaIdConfig {
+
+    // Wrap the value deserializer configured under spring.kafka.consumer.value-deserializer of the Boot-managed factory,
+    // built on the shared registry client when there is one and timed when serde metrics are enabled. With retry topics
+    // the chain also keeps the raw bytes and turns decoding failures into DeserializationException headers
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer schemaIdDeserializerCustomizer(
+            SchemaIdStats stats,
+            ObjectProvider<SchemaRegistryClient> schemaRegistryClient,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.metrics.serde.enabled:true}") boolean metrics,
+            @Value("${app.consumer.retry.enabled:false}") boolean retry) {
+        MeterRegistry registry = metrics ? meterRegistry.getIfAvailable() : null;
+        return factory -> wrap(factory, stats, schemaRegistryClient.getIfAvailable(), registry, retry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void wrap(DefaultKafkaConsumerFactory<K, V> factory, SchemaIdStats stats,
+                                    SchemaRegistryClient client, MeterRegistry registry, boolean retry) {
+        Object configured = factory.getConfigurationProperties().get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG);
+        if (configured == null) {
+            return;
+        }
+        Class<?> type;
+        try {
+            type = configured instanceof Class<?> c ? c : ClassUtils.forName(configured.toString(), null);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Value deserializer class not found: " + configured, e);
+        }
+        // Stock Confluent deserializers take the client in their constructor; the avro-serde ones read it from configs
+        Constructor<?> withClient = client != null
+                ? ClassUtils.getConstructorIfAvailable(type, SchemaRegistryClient.class)
+                : null;
+        Supplier<Deserializer<V>> supplier = () -> {
+            Deserializer<V> deserializer = (Deserializer<V>) (withClient != null
+                    ? BeanUtils.instantiateClass(withClient, client)
+                    : BeanUtils.instantiateClass(type));
+            if (registry != null) {
+                deserializer = new TimedDeserializer<>(deserializer, registry);
+            }
+            deserializer = new SchemaIdExtractingDeserializer<>(deserializer, stats);
+            return retry ? RawValueRetainingDeserializer.withErrorHandling(deserializer) : deserializer;
+        };
+        if (client != null) {
+            factory.updateConfigs(Map.of(SharedSchemaRegistryClient.CLIENT_CONFIG, client));
+        } else if (registry != null) {
+            // Registry clients the avro-serde deserializers create from their configs get instrumented too
+            factory.updateConfigs(Map.of(SerdeMetrics.METER_REGISTRY_CONFIG, registry));
+        }
+        factory.setValueDeserializerSupplier(supplier);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.app.kafka.schemaid;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class SchemaIdController {
+
+    private final SchemaIdStats stats;
+
+    public SchemaIdController(SchemaIdStats stats) {
+        this.stats = stats;
+    }
+
+    // Records consumed per writer schema id since startup
+    @GetMapping("/schema-ids")
+    public Map<Integer, Long> schemaIds() {
+        return stats.snapshot();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.app.kafka.schemaid;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps the value deserializer and reads the writer schema id straight from the Confluent wire format
+ * (magic byte 0, then a 4-byte big-endian id) before delegating. No registry lookup and no decoding is involved;
+ * the id is counted in {@link SchemaIdStats} and attached to the record as the {@value SchemaIds#HEADER} header.
+ * <p>
+ * The header and the counter of the last id seen are kept, so while consecutive records share a writer schema the
+ * extraction allocates nothing; a new id costs one {@link SchemaIdHeader} and a counter lookup.
+ */
+public class SchemaIdExtractingDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> delegate;
+    private final SchemaIdStats stats;
+    private volatile Current current;
+
+    private record Current(SchemaIdHeader header, LongAdder count) {
+    }
+
+    public SchemaIdExtractingDeserializer(Deserializer<T> delegate, SchemaIdStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        int id = SchemaIds.read(data);
+        if (id != SchemaIds.UNKNOWN) {
+            Current last = current;
+            if (last == null || last.header().id() != id) {
+                last = new Current(new SchemaIdHeader(id), stats.counter(id));
+                current = last;
+            }
+            last.count().increment();
+            // Only records that passed a retry or dead-letter topic already carry one
+            if (headers.lastHeader(SchemaIds.HEADER) != null) {
+                headers.remove(SchemaIds.HEADER);
+            }
+            headers.add(last.header());
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
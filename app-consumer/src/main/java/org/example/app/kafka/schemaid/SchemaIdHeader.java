@@ -0,0 +1,37 @@
+package org.example.app.kafka.schemaid;
+
+import org.apache.kafka.common.header.Header;
+
+/**
+ * The {@value SchemaIds#HEADER} header holding the id as an int. Immutable, so one instance is shared by every record
+ * of the same writer schema; the 4-byte value is only built when the header is serialized, e.g. into a retry or
+ * dead-letter topic.
+ */
+final class SchemaIdHeader implements Header {
+
+    private final int id;
+
+    SchemaIdHeader(int id) {
+        this.id = id;
+    }
+
+    int id() {
+        return id;
+    }
+
+    @Override
+    public String key() {
+        return SchemaIds.HEADER;
+    }
+
+    // A new array per call: the instance is shared and callers may modify the value
+    @Override
+    public byte[] value() {
+        return new byte[]{(byte) (id >>> 24), (byte) (id >>> 16), (byte) (id >>> 8), (byte) id};
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaIdHeader(" + id + ")";
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.app.kafka.schemaid;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts consumed records per writer schema id, i.e. the schema-version mix on the topic.
+ */
+@Component
+public class SchemaIdStats {
+
+    private final Map<Integer, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public void record(int schemaId) {
+        counter(schemaId).increment();
+    }
+
+    LongAdder counter(int schemaId) {
+        LongAdder adder = counts.get(schemaId);
+        return adder != null ? adder : counts.computeIfAbsent(schemaId, id -> new LongAdder());
+    }
+
+    public Map<Integer, Long> snapshot() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        counts.forEach((id, adder) -> snapshot.put(id, adder.sum()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.app.kafka.schemaid;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+public final class SchemaIds {
+
+    public static final String HEADER = "x-schema-id";
+    public static final int UNKNOWN = -1;
+
+    private static final byte MAGIC_BYTE = 0x0;
+
+    private SchemaIds() {
+    }
+
+    /**
+     * @return the schema id from bytes 1-4 of a Confluent-framed payload, or {@link #UNKNOWN} if it is not framed
+     */
+    public static int read(byte[] data) {
+        if (data == null || data.length < 5 || data[0] != MAGIC_BYTE) {
+            return UNKNOWN;
+        }
+        return (data[1] & 0xff) << 24 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 8 | (data[4] & 0xff);
+    }
+
+    /**
+     * @return the id attached by {@link SchemaIdExtractingDeserializer}, or {@link #UNKNOWN}
+     */
+    public static int fromHeaders(Headers headers) {
+        Header h = headers.lastHeader(HEADER);
+        if (h instanceof SchemaIdHeader attached) {
+            return attached.id();
+        }
+        if (h == null || h.value() == null || h.value().length != 4) {
+            return UNKNOWN;
+        }
+        byte[] v = h.value();
+        return (v[0] & 0xff) << 24 | (v[1] & 0xff) << 16 | (v[2] & 0xff) << 8 | (v[3] & 0xff);
+    }
+}
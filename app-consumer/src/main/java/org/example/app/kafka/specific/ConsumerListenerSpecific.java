@@ -1,66 +1,69 @@
 package org.example.app.kafka.specific;
 
-import io.confluent.kafka.schemaregistry.avro.AvroSchema;
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
-import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.app.kafka.latency.LatencyMonitor;
+import org.example.app.kafka.parallel.ParallelRecordProcessor;
+import org.example.app.kafka.projection.AvroProjection;
+import org.example.app.kafka.schemaid.SchemaIds;
 import org.example.avro.Greeting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.apache.avro.Schema;
-
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 @Component
 @ConditionalOnProperty(prefix = "app.examples.specific", name = "enabled", havingValue = "true")
 public class ConsumerListenerSpecific {
+    // Retry topics are resolved per listener id; the group id stays spring.kafka.consumer.group-id
+    public static final String LISTENER_ID = "greetings";
+
     private static final Logger log = LoggerFactory.getLogger(ConsumerListenerSpecific.class);
 
     @Value("${app.kafka.topic:demo-topic}")
     private String topic;
 
-    @Value("${spring.kafka.properties.schema.registry.url}")
-    private String schemaRegistryUrl;
-
-    @Value("${spring.kafka.properties.bearer.auth.issuer.endpoint.url}")
-    private String issuerEndpointUrl;
-
-    @Value("${spring.kafka.properties.bearer.auth.client.id}")
-    private String clientId;
+    private final LatencyMonitor latency;
+    // Present with app.consumer.parallel.enabled
+    private final ParallelRecordProcessor parallel;
 
-    @Value("${spring.kafka.properties.bearer.auth.client.secret}")
-    private String clientSecret;
+    public ConsumerListenerSpecific(LatencyMonitor latency, ObjectProvider<ParallelRecordProcessor> parallel) {
+        this.latency = latency;
+        this.parallel = parallel.getIfAvailable();
+    }
 
-    @Value("${spring.kafka.properties.bearer.auth.scope:}")
-    private String scope;
+    // Only message and timestamp are read; message2 and later fields are skipped when decoding.
+    // The container acknowledges sequentially processed records itself; outside AckMode.MANUAL (parallel processing
+    // off) @NonNull makes spring-kafka pass a no-op acknowledgment instead of failing the record.
+    @AvroProjection({"message", "timestamp"})
+    @KafkaListener(id = LISTENER_ID, topics = "${app.kafka.topic:demo-topic}", groupId = "${spring.kafka.consumer.group-id:demo-group}")
+    public void listen(ConsumerRecord<String, Greeting> record, @NonNull Acknowledgment ack) {
+        if (parallel != null) {
+            parallel.submit(record, ack, this::handle);
+        } else {
+            handle(record);
+        }
+    }
 
-    @KafkaListener(topics = "${app.kafka.topic:demo-topic}", groupId = "${spring.kafka.consumer.group-id:demo-group}")
-    public void listen(ConsumerRecord<String, Greeting> record) {
+    private void handle(ConsumerRecord<String, Greeting> record) {
         Greeting value = record.value();
         Headers headers = record.headers();
         String ceId = header(headers, "ce-id");
         String ceSource = header(headers, "ce-source");
+        // Writer schema id read from the wire format by SchemaIdExtractingDeserializer (no registry call)
+        int schemaId = SchemaIds.fromHeaders(headers);
 
-//        Integer schemaId = null;
-        if (value != null) {
-            try {
-//                schemaId = resolveSchemaId(topic + "-value", value.getSchema());
-            } catch (Exception e) {
-                log.warn("[Specific] Failed to resolve schema ID: {}", e.toString());
-            }
-        }
         if (value != null) {
+            latency.record(record, value.getTimestamp());
             log.info("[Specific] Received: message='{}', timestamp='{}', schemaId='{}', ce-id='{}', ce-source='{}' from {}-{}@{}",
-                    value.getMessage(), value.getTimestamp(), "none", ceId, ceSource,
+                    value.getMessage(), value.getTimestamp(), schemaId != SchemaIds.UNKNOWN ? schemaId : "none", ceId, ceSource,
                     record.topic(), record.partition(), record.offset());
         } else {
             log.warn("[Specific] Received null record from {}-{}@{}", record.topic(), record.partition(), record.offset());
@@ -71,18 +74,4 @@ public class ConsumerListenerSpecific {
         Header h = headers.lastHeader(key);
         return h != null ? new String(h.value(), StandardCharsets.UTF_8) : null;
     }
-
-    private Integer resolveSchemaId(String subject, Schema writerSchema) throws IOException, RestClientException {
-        Map<String, Object> configs = new HashMap<>();
-        configs.put("bearer.auth.credentials.source", "OAUTHBEARER");
-        configs.put("bearer.auth.issuer.endpoint.url", issuerEndpointUrl);
-        configs.put("bearer.auth.client.id", clientId);
-        configs.put("bearer.auth.client.secret", clientSecret);
-        if (scope != null && !scope.isBlank()) {
-            configs.put("bearer.auth.scope", scope);
-        }
-        try (CachedSchemaRegistryClient client = new CachedSchemaRegistryClient(schemaRegistryUrl, 100, configs)) {
-            return client.getId(subject, new AvroSchema(writerSchema));
-        }
-    }
 }
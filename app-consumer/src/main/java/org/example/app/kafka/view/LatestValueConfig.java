@@ -0,0 +1,119 @@
+package org.example.app.kafka.view;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.avro.Greeting;
+import org.example.serde.PooledSpecificAvroDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.consumer.latest-view", name = "enabled", havingValue = "true")
+public class LatestValueConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LatestValueConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public LatestValueStore latestValueStore(
+            @Value("${app.consumer.latest-view.path}") Path path,
+            @Value("${app.consumer.latest-view.segment-size:64MB}") DataSize segmentSize,
+            @Value("${app.consumer.latest-view.initial-capacity:65536}") int initialCapacity) throws IOException {
+        return LatestValueStore.open(path, Math.toIntExact(segmentSize.toBytes()), initialCapacity);
+    }
+
+    // Own container outside the listener factories: raw bytes, no parallel processing or retry topics, one thread.
+    // Stopped before the store is closed, which writes the final checkpoint
+    @Bean
+    public ConcurrentMessageListenerContainer<String, byte[]> latestValueContainer(
+            KafkaProperties kafkaProperties,
+            LatestValueStore store,
+            @Value("${app.kafka.topic:demo-topic}") String topic,
+            @Value("${app.kafka.partitions:6}") int partitions,
+            @Value("${app.consumer.latest-view.checkpoint-interval:10s}") Duration checkpointInterval) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        ConcurrentMessageListenerContainer<String, byte[]> container =
+                container(props, store, topic, partitions, checkpointInterval);
+        container.setBeanName("latest-view");
+        return container;
+    }
+
+    /**
+     * A container assigned every partition of {@code topic} directly, without a consumer group: instances do not
+     * split the partitions between them, so each one keeps every key, and there are no rebalances that would leave
+     * values of partitions it no longer reads behind. Offsets live in the store's checkpoint; nothing is committed.
+     * Partitions added to the topic later are picked up on restart.
+     *
+     * @param partitions partition count used when the topic cannot be described yet, e.g. before it is created
+     */
+    static ConcurrentMessageListenerContainer<String, byte[]> container(Map<String, Object> consumerProps,
+                                                                        LatestValueStore store, String topic,
+                                                                        int partitions, Duration checkpointInterval) {
+        Map<String, Object> props = new HashMap<>(consumerProps);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        DefaultKafkaConsumerFactory<String, byte[]> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+
+        LatestValueListener listener = new LatestValueListener(store, checkpointInterval);
+        ContainerProperties containerProperties = new ContainerProperties(
+                assignment(consumerFactory, topic, partitions).toArray(TopicPartitionOffset[]::new));
+        containerProperties.setMessageListener(listener);
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        return new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+    }
+
+    private static List<TopicPartitionOffset> assignment(ConsumerFactory<String, byte[]> consumerFactory, String topic,
+                                                         int partitions) {
+        List<PartitionInfo> described = List.of();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            described = consumer.partitionsFor(topic, Duration.ofSeconds(10));
+        } catch (KafkaException e) {
+            log.warn("Latest-value view: could not describe {} ({}), assuming {} partition(s)", topic, e.toString(),
+                    partitions);
+        }
+        return described == null || described.isEmpty()
+                ? IntStream.range(0, partitions).mapToObj(p -> new TopicPartitionOffset(topic, p)).toList()
+                : described.stream().map(info -> new TopicPartitionOffset(topic, info.partition())).toList();
+    }
+
+    // Decodes stored values on lookup; the shared registry client when there is one, else the consumer's settings
+    @Bean(destroyMethod = "close")
+    public Deserializer<Greeting> latestValueDecoder(KafkaProperties kafkaProperties,
+                                                     ObjectProvider<SchemaRegistryClient> schemaRegistryClient) {
+        SchemaRegistryClient client = schemaRegistryClient.getIfAvailable();
+        if (client != null) {
+            return new PooledSpecificAvroDeserializer<>(client, Greeting.class);
+        }
+        PooledSpecificAvroDeserializer<Greeting> decoder = new PooledSpecificAvroDeserializer<>();
+        Map<String, Object> configs = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        configs.put(PooledSpecificAvroDeserializer.VALUE_TYPE_CONFIG, Greeting.class);
+        decoder.configure(configs, false);
+        return decoder;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.app.kafka.view;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.avro.Greeting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@ConditionalOnProperty(prefix = "app.consumer.latest-view", name = "enabled", havingValue = "true")
+public class LatestValueController {
+
+    private final LatestValueStore store;
+    private final Deserializer<Greeting> decoder;
+
+    @Value("${app.kafka.topic:demo-topic}")
+    private String topic;
+
+    public LatestValueController(LatestValueStore store, Deserializer<Greeting> latestValueDecoder) {
+        this.store = store;
+        this.decoder = latestValueDecoder;
+    }
+
+    // Latest Greeting for the key as Avro JSON; only this value is decoded
+    @GetMapping("/latest/{key}")
+    public ResponseEntity<String> latest(@PathVariable String key) {
+        byte[] value = store.get(key.getBytes(StandardCharsets.UTF_8));
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(decoder.deserialize(topic, value).toString());
+    }
+
+    // Key count, log size and checkpointed offsets of the store
+    @GetMapping("/latest")
+    public LatestValueStore.Stats stats() {
+        return store.stats();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.app.kafka.view;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the raw record values of each poll into a {@link LatestValueStore}. The container assigns it every partition
+ * of the topic (no consumer group), so each instance keeps every key. When the container starts it seeks to the
+ * store's checkpointed offsets, or to the beginning for partitions the store has not seen. It checkpoints at most once
+ * per interval; the store writes the last checkpoint when it is closed, after the container has stopped.
+ */
+public class LatestValueListener implements BatchMessageListener<String, byte[]>, ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(LatestValueListener.class);
+
+    private final LatestValueStore store;
+    private final long checkpointIntervalNanos;
+    private long lastCheckpoint = System.nanoTime();
+
+    public LatestValueListener(LatestValueStore store, Duration checkpointInterval) {
+        this.store = store;
+        this.checkpointIntervalNanos = checkpointInterval.toNanos();
+    }
+
+    @Override
+    public void onMessage(List<ConsumerRecord<String, byte[]>> records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
+            // Records without a key cannot be looked up
+            if (record.key() != null) {
+                try {
+                    store.put(record.key().getBytes(StandardCharsets.UTF_8), record.value());
+                } catch (IllegalArgumentException e) {
+                    log.warn("Latest-value view: skipping {}-{}@{}: {}", record.topic(), record.partition(),
+                            record.offset(), e.getMessage());
+                }
+            }
+            store.position(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+        }
+        if (System.nanoTime() - lastCheckpoint >= checkpointIntervalNanos) {
+            checkpoint();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> positions = store.positions();
+        List<TopicPartition> unseen = new ArrayList<>();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long next = positions.get(partition);
+            if (next != null) {
+                callback.seek(partition.topic(), partition.partition(), next);
+            } else {
+                unseen.add(partition);
+            }
+        }
+        if (!unseen.isEmpty()) {
+            callback.seekToBeginning(unseen);
+        }
+        log.info("Latest-value view: resuming {} partition(s) from the checkpoint, {} from the beginning",
+                assignments.size() - unseen.size(), unseen.size());
+    }
+
+    private void checkpoint() {
+        store.checkpoint();
+        lastCheckpoint = System.nanoTime();
+    }
+}
@@ -0,0 +1,513 @@
+package org.example.app.kafka.view;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latest value per key, kept outside the Java heap.
+ * <ul>
+ *   <li>Values are appended to a log file mapped in fixed-size segments; each entry is its key and value length
+ *       followed by the bytes, and a delete appends a tombstone (value length -1). Entries never span segments.</li>
+ *   <li>A linear-probing hash index in a direct buffer maps each key to its newest entry (16 bytes per slot: entry
+ *       position, key hash and entry size) and doubles at 70% load.</li>
+ *   <li>{@link #checkpoint()} flushes the log and atomically rewrites a small checkpoint file with the log end and the
+ *       next offset of each partition. On open, the index is rebuilt by scanning the log up to that end, and anything
+ *       written after the checkpoint is overwritten as those offsets are consumed again.</li>
+ *   <li>Once the log is past one segment and more of it is dead than live, the live entries are copied into a new
+ *       log generation, which the checkpoint then points to.</li>
+ * </ul>
+ * One writer at a time; reads run concurrently with each other and wait for writes.
+ */
+public class LatestValueStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LatestValueStore.class);
+
+    static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String CHECKPOINT_VERSION = "1";
+    private static final String POSITION_PREFIX = "position.";
+    private static final int ENTRY_HEADER = 8;
+    private static final int SKIP_TO_NEXT_SEGMENT = -1;
+    private static final int TOMBSTONE = -1;
+    private static final int SLOT = 16;
+    private static final int MAX_SLOTS = 1 << 26;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TopicPartition, Long> positions = new TreeMap<>(
+            (a, b) -> a.topic().equals(b.topic()) ? Integer.compare(a.partition(), b.partition())
+                    : a.topic().compareTo(b.topic()));
+
+    private long generation;
+    private FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long end;
+    private long liveBytes;
+    private ByteBuffer index;
+    private int mask;
+    private int size;
+    private long compactions;
+
+    private LatestValueStore(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the store in {@code dir}, restoring it from the last checkpoint if there is one.
+     *
+     * @param segmentBytes    size of each mapped log segment, and the largest entry; a restored store keeps the
+     *                        segment size it was created with
+     * @param initialCapacity expected number of keys
+     */
+    public static LatestValueStore open(Path dir, int segmentBytes, int initialCapacity) throws IOException {
+        Files.createDirectories(dir);
+        Path checkpointFile = dir.resolve(CHECKPOINT_FILE);
+        Properties checkpoint = new Properties();
+        if (Files.exists(checkpointFile)) {
+            try (InputStream in = Files.newInputStream(checkpointFile)) {
+                checkpoint.load(in);
+            }
+            if (!CHECKPOINT_VERSION.equals(checkpoint.getProperty("version"))) {
+                throw new IOException("Unsupported checkpoint version in " + checkpointFile);
+            }
+            int checkpointed = Integer.parseInt(checkpoint.getProperty("segment.bytes"));
+            if (checkpointed != segmentBytes) {
+                log.info("Latest-value store: keeping segment size {} of {}", checkpointed, dir);
+                segmentBytes = checkpointed;
+            }
+        }
+        LatestValueStore store = new LatestValueStore(dir, segmentBytes);
+        store.allocateIndex(initialCapacity);
+        store.generation = Long.parseLong(checkpoint.getProperty("generation", "0"));
+        store.openLog(store.generation);
+        store.deleteOtherGenerations();
+        store.recover(Long.parseLong(checkpoint.getProperty("data.end", "0")));
+        for (String name : checkpoint.stringPropertyNames()) {
+            if (name.startsWith(POSITION_PREFIX)) {
+                String tp = name.substring(POSITION_PREFIX.length());
+                int dash = tp.lastIndexOf('-');
+                store.positions.put(new TopicPartition(tp.substring(0, dash), Integer.parseInt(tp.substring(dash + 1))),
+                        Long.parseLong(checkpoint.getProperty(name)));
+            }
+        }
+        log.info("Latest-value store: {} key(s) restored from {} up to {}", store.size, dir, store.positions);
+        return store;
+    }
+
+    /**
+     * Copy of the newest value of {@code key}, or null if there is none.
+     */
+    public byte[] get(byte[] key) {
+        lock.readLock().lock();
+        try {
+            int slot = find(key, hash(key));
+            if (slot < 0) {
+                return null;
+            }
+            long position = index.getLong(slot * SLOT) - 1;
+            int keyLength = intAt(position);
+            int valueLength = intAt(position + 4);
+            byte[] value = new byte[valueLength];
+            read(position + ENTRY_HEADER + keyLength, value);
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores {@code value} as the newest value of {@code key}; a null value deletes the key.
+     */
+    public void put(byte[] key, byte[] value) {
+        int entry = ENTRY_HEADER + key.length + (value == null ? 0 : value.length);
+        if (entry > segmentBytes) {
+            throw new IllegalArgumentException("Entry of " + entry + " bytes exceeds the segment size " + segmentBytes);
+        }
+        lock.writeLock().lock();
+        try {
+            int hash = hash(key);
+            int slot = find(key, hash);
+            if (value == null && slot < 0) {
+                return;
+            }
+            long position = append(key, value, entry);
+            if (slot >= 0) {
+                liveBytes -= index.getInt(slot * SLOT + 12);
+            }
+            if (value == null) {
+                remove(slot);
+            } else {
+                if (slot < 0) {
+                    slot = insertionSlot(hash);
+                    size++;
+                }
+                writeSlot(index, slot, position, hash, entry);
+                liveBytes += entry;
+                if (size > (mask + 1) * 0.7) {
+                    resize();
+                }
+            }
+            if (end > segmentBytes && end - liveBytes > liveBytes) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that everything before {@code nextOffset} of the partition is in the store.
+     */
+    public void position(TopicPartition partition, long nextOffset) {
+        lock.writeLock().lock();
+        try {
+            positions.put(partition, nextOffset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Next offset to consume per partition, as of the last write.
+     */
+    public Map<TopicPartition, Long> positions() {
+        lock.readLock().lock();
+        try {
+            return Map.copyOf(positions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes everything stored so far survive a restart.
+     */
+    public void checkpoint() {
+        lock.writeLock().lock();
+        try {
+            writeCheckpoint();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing checkpoint of " + dir, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> byPartition = new TreeMap<>();
+            positions.forEach((tp, offset) -> byPartition.put(tp.toString(), offset));
+            return new Stats(size, mask + 1, end, liveBytes, generation, compactions, byPartition);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                writeCheckpoint();
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param keys      keys with a value
+     * @param slots     index capacity
+     * @param dataBytes log bytes up to the end, dead entries included
+     * @param liveBytes log bytes of the newest entry of each key
+     * @param positions next offset per partition
+     */
+    public record Stats(int keys, int slots, long dataBytes, long liveBytes, long generation, long compactions,
+                        Map<String, Long> positions) {
+    }
+
+    // Log
+
+    private Path logFile(long generation) {
+        return dir.resolve("data-" + generation + ".log");
+    }
+
+    private void openLog(long generation) throws IOException {
+        channel = FileChannel.open(logFile(generation), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segments.clear();
+    }
+
+    private void deleteOtherGenerations() throws IOException {
+        Path current = logFile(generation);
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(dir, "data-*.log")) {
+            for (Path file : logs) {
+                if (!file.equals(current)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(int i) {
+        while (segments.size() <= i) {
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * segmentBytes,
+                        segmentBytes));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error mapping " + logFile(generation), e);
+            }
+        }
+        return segments.get(i);
+    }
+
+    private long append(byte[] key, byte[] value, int entry) {
+        int offset = (int) (end % segmentBytes);
+        if (entry > segmentBytes - offset) {
+            if (segmentBytes - offset >= 4) {
+                segment((int) (end / segmentBytes)).putInt(offset, SKIP_TO_NEXT_SEGMENT);
+            }
+            end += segmentBytes - offset;
+            offset = 0;
+        }
+        long position = end;
+        MappedByteBuffer segment = segment((int) (end / segmentBytes));
+        segment.putInt(offset, key.length);
+        segment.putInt(offset + 4, value == null ? TOMBSTONE : value.length);
+        segment.put(offset + ENTRY_HEADER, key, 0, key.length);
+        if (value != null) {
+            segment.put(offset + ENTRY_HEADER + key.length, value, 0, value.length);
+        }
+        end += entry;
+        return position;
+    }
+
+    private int intAt(long position) {
+        return segment((int) (position / segmentBytes)).getInt((int) (position % segmentBytes));
+    }
+
+    private void read(long position, byte[] into) {
+        segment((int) (position / segmentBytes)).get((int) (position % segmentBytes), into, 0, into.length);
+    }
+
+    private boolean keyEquals(long position, byte[] key) {
+        if (intAt(position) != key.length) {
+            return false;
+        }
+        MappedByteBuffer segment = segment((int) (position / segmentBytes));
+        int offset = (int) (position % segmentBytes) + ENTRY_HEADER;
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Rebuilds the index from the log entries before checkpointEnd
+    private void recover(long checkpointEnd) {
+        long position = 0;
+        while (position < checkpointEnd) {
+            int offset = (int) (position % segmentBytes);
+            int keyLength = segmentBytes - offset < ENTRY_HEADER ? SKIP_TO_NEXT_SEGMENT : intAt(position);
+            if (keyLength == SKIP_TO_NEXT_SEGMENT) {
+                position += segmentBytes - offset;
+                continue;
+            }
+            int valueLength = intAt(position + 4);
+            byte[] key = new byte[keyLength];
+            read(position + ENTRY_HEADER, key);
+            int entry = ENTRY_HEADER + keyLength + Math.max(0, valueLength);
+            int hash = hash(key);
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                liveBytes -= index.getInt(slot * SLOT + 12);
+            }
+            if (valueLength == TOMBSTONE) {
+                if (slot >= 0) {
+                    remove(slot);
+                }
+            } else {
+                if (slot < 0) {
+                    slot = insertionSlot(hash);
+                    size++;
+                }
+                writeSlot(index, slot, position, hash, entry);
+                liveBytes += entry;
+                if (size > (mask + 1) * 0.7) {
+                    resize();
+                }
+            }
+            position += entry;
+        }
+        end = checkpointEnd;
+    }
+
+    private void compact() {
+        long started = System.nanoTime();
+        long before = end;
+        FileChannel old = channel;
+        List<MappedByteBuffer> oldSegments = new ArrayList<>(segments);
+        try {
+            openLog(generation + 1);
+            end = 0;
+            byte[] buffer = new byte[0];
+            for (int slot = 0; slot <= mask; slot++) {
+                long position = index.getLong(slot * SLOT) - 1;
+                if (position < 0) {
+                    continue;
+                }
+                int entry = index.getInt(slot * SLOT + 12);
+                if (buffer.length < entry) {
+                    buffer = new byte[entry];
+                }
+                MappedByteBuffer from = oldSegments.get((int) (position / segmentBytes));
+                from.get((int) (position % segmentBytes), buffer, 0, entry);
+                int offset = (int) (end % segmentBytes);
+                if (entry > segmentBytes - offset) {
+                    if (segmentBytes - offset >= 4) {
+                        segment((int) (end / segmentBytes)).putInt(offset, SKIP_TO_NEXT_SEGMENT);
+                    }
+                    end += segmentBytes - offset;
+                    offset = 0;
+                }
+                segment((int) (end / segmentBytes)).put(offset, buffer, 0, entry);
+                index.putLong(slot * SLOT, end + 1);
+                end += entry;
+            }
+            generation++;
+            compactions++;
+            writeCheckpoint();
+            old.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error compacting " + dir, e);
+        }
+        // The old mappings go away with their buffers; until then some platforms refuse the delete, and the next
+        // open removes the file instead
+        try {
+            Files.deleteIfExists(logFile(generation - 1));
+        } catch (IOException e) {
+            log.debug("Latest-value store: {} not deleted yet: {}", logFile(generation - 1), e.toString());
+        }
+        log.info("Latest-value store: compacted {} to {} bytes ({} key(s)) in {} ms", before, end, size,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void writeCheckpoint() throws IOException {
+        segments.forEach(MappedByteBuffer::force);
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("version", CHECKPOINT_VERSION);
+        checkpoint.setProperty("segment.bytes", Integer.toString(segmentBytes));
+        checkpoint.setProperty("generation", Long.toString(generation));
+        checkpoint.setProperty("data.end", Long.toString(end));
+        positions.forEach((tp, offset) -> checkpoint.setProperty(POSITION_PREFIX + tp, Long.toString(offset)));
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            checkpoint.store(out, null);
+        }
+        try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Index
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocateIndex(int expectedKeys) {
+        int slots = Integer.highestOneBit(Math.max(16, (int) Math.min(MAX_SLOTS, expectedKeys / 0.7 + 1)) - 1) << 1;
+        index = ByteBuffer.allocateDirect(slots * SLOT);
+        mask = slots - 1;
+    }
+
+    private int find(byte[] key, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long position = index.getLong(slot * SLOT) - 1;
+            if (position < 0) {
+                return -1;
+            }
+            if (index.getInt(slot * SLOT + 8) == hash && keyEquals(position, key)) {
+                return slot;
+            }
+        }
+    }
+
+    private int insertionSlot(int hash) {
+        int slot = hash & mask;
+        while (index.getLong(slot * SLOT) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void writeSlot(ByteBuffer index, int slot, long position, int hash, int entry) {
+        index.putLong(slot * SLOT, position + 1);
+        index.putInt(slot * SLOT + 8, hash);
+        index.putInt(slot * SLOT + 12, entry);
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones in the index
+    private void remove(int slot) {
+        int free = slot;
+        for (int next = (free + 1) & mask; index.getLong(next * SLOT) != 0; next = (next + 1) & mask) {
+            int home = index.getInt(next * SLOT + 8) & mask;
+            boolean movable = free <= next ? home <= free || home > next : home <= free && home > next;
+            if (movable) {
+                writeSlot(index, free, index.getLong(next * SLOT) - 1, index.getInt(next * SLOT + 8),
+                        index.getInt(next * SLOT + 12));
+                free = next;
+            }
+        }
+        index.putLong(free * SLOT, 0);
+        size--;
+    }
+
+    private void resize() {
+        if (mask + 1 >= MAX_SLOTS) {
+            throw new IllegalStateException("Latest-value store is full at " + size + " keys");
+        }
+        ByteBuffer old = index;
+        int oldSlots = mask + 1;
+        index = ByteBuffer.allocateDirect(oldSlots * 2 * SLOT);
+        mask = oldSlots * 2 - 1;
+        for (int slot = 0; slot < oldSlots; slot++) {
+            long position = old.getLong(slot * SLOT);
+            if (position != 0) {
+                int hash = old.getInt(slot * SLOT + 8);
+                writeSlot(index, insertionSlot(hash), position - 1, hash, old.getInt(slot * SLOT + 12));
+            }
+        }
+    }
+}
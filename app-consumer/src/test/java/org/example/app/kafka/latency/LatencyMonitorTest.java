@@ -0,0 +1,72 @@
+package org.example.app.kafka.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyMonitorTest {
+
+    @Test
+    void recordsPerPartitionLatencies() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", meters);
+        LatencyMonitor monitor = new LatencyMonitor(beans.getBeanProvider(MeterRegistry.class),
+                beans.getBeanProvider(KafkaListenerEndpointRegistry.class));
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            monitor.record(record(0, now - 1_000, TimestampType.LOG_APPEND_TIME), now - 5_000);
+        }
+        monitor.record(record(1, now, TimestampType.NO_TIMESTAMP_TYPE), now + 60_000);
+        // Nothing is reported before the first window completes
+        assertNull(monitor.report().get("demo-topic-0").windowEnd());
+        assertEquals(0, monitor.report().get("demo-topic-0").endToEnd().count());
+
+        Instant rolled = Instant.now();
+        monitor.roll();
+        Map<String, LatencyMonitor.PartitionReport> report = monitor.report();
+        assertEquals(2, report.size());
+        LatencyMonitor.PartitionReport p0 = report.get("demo-topic-0");
+        assertFalse(p0.windowStart().isAfter(p0.windowEnd()));
+        assertFalse(p0.windowEnd().isBefore(rolled));
+        assertEquals(100, p0.endToEnd().count());
+        assertTrue(p0.endToEnd().p50() >= 5_000 && p0.endToEnd().p50() < 6_000, "end-to-end " + p0.endToEnd());
+        assertTrue(p0.brokerAppend().max() >= 1_000 && p0.brokerAppend().max() < 2_000, "append " + p0.brokerAppend());
+        assertEquals(100, p0.endToEndSinceStart().count());
+        assertNull(p0.lag());
+
+        // Producer clock ahead of ours: clamped to zero; no record timestamp: no broker-append sample
+        LatencyMonitor.PartitionReport p1 = report.get("demo-topic-1");
+        assertEquals(0, p1.endToEnd().max());
+        assertEquals(0, p1.brokerAppend().count());
+
+        monitor.record(record(0, now, TimestampType.CREATE_TIME), now);
+        monitor.roll();
+        assertEquals(p0.windowEnd(), monitor.report().get("demo-topic-0").windowStart());
+        double p50 = meters.get(LatencyMonitor.LATENCY)
+                .tags("kind", "end-to-end", "partition", "0", "quantile", "0.5").gauge().value();
+        assertTrue(p50 < 1_000, "window holds only the latest record: " + p50);
+        assertEquals(-1, meters.get(LatencyMonitor.LAG).tags("partition", "0").gauge().value());
+        assertEquals(101, monitor.report().get("demo-topic-0").endToEndSinceStart().count());
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long timestamp, TimestampType type) {
+        return new ConsumerRecord<>("demo-topic", partition, 0, timestamp, type, 0, 0, null, "v",
+                new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.app.kafka.parallel;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParallelRecordProcessorTest {
+
+    private static final String TOPIC = "demo-topic";
+    private static final TopicPartition TP = new TopicPartition(TOPIC, 0);
+
+    private final List<Long> committed = new CopyOnWriteArrayList<>();
+    private ParallelRecordProcessor processor;
+
+    @AfterEach
+    void close() {
+        if (processor != null) {
+            processor.close();
+        }
+    }
+
+    @Test
+    void commitsOnlyTheContiguousCompletedOffsets() {
+        PartitionOffsets<String> offsets = new PartitionOffsets<>();
+        for (long offset = 10; offset < 14; offset++) {
+            offsets.dispatched(offset, "ack-" + offset);
+        }
+        assertNull(offsets.completed(12));
+        assertNull(offsets.completed(11));
+        // 10 closes the gap: everything up to 12 is done
+        assertEquals("ack-12", offsets.completed(10));
+        assertEquals("ack-13", offsets.completed(13));
+        assertEquals(0, offsets.inFlight());
+    }
+
+    @Test
+    void keepsOrderPerKeyAndRunsKeysInParallel() throws Exception {
+        processor = new ParallelRecordProcessor(100, Duration.ofSeconds(1), null);
+        processor.configure(container());
+        CountDownLatch slowKeyMayFinish = new CountDownLatch(1);
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(6);
+
+        for (long offset = 0; offset < 6; offset++) {
+            String key = offset % 2 == 0 ? "slow" : "fast";
+            processor.submit(record(offset, key), ack(offset), r -> {
+                if (r.key().equals("slow") && r.offset() == 0) {
+                    await(slowKeyMayFinish);
+                }
+                seen.computeIfAbsent(r.key(), k -> new CopyOnWriteArrayList<>()).add(r.offset());
+                done.countDown();
+            });
+        }
+
+        // The fast key is not held back by the slow one, but nothing is committed past the slow offset 0
+        assertTrue(waitFor(() -> seen.getOrDefault("fast", List.of()).size() == 3));
+        assertEquals(List.of(), committed);
+        assertEquals(3, processor.inFlight());
+
+        slowKeyMayFinish.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 2L, 4L), seen.get("slow"));
+        assertEquals(List.of(1L, 3L, 5L), seen.get("fast"));
+        assertTrue(waitFor(() -> committed.contains(5L)));
+        assertEquals(0, processor.inFlight());
+    }
+
+    @Test
+    void pausesThePartitionAtTheInFlightLimitAndResumesAtHalf() throws Exception {
+        processor = new ParallelRecordProcessor(4, Duration.ofSeconds(1), null);
+        MessageListenerContainer container = container();
+        processor.configure(container);
+        assertEquals(ContainerProperties.AckMode.MANUAL, container.getContainerProperties().getAckMode());
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (long offset = 0; offset < 3; offset++) {
+            processor.submit(record(offset, "key-" + offset), ack(offset), r -> await(release));
+        }
+        verify(container, never()).pausePartition(TP);
+        processor.submit(record(3, "key-3"), ack(3), r -> await(release));
+        verify(container).pausePartition(TP);
+
+        release.countDown();
+        verify(container, timeout(5_000)).resumePartition(TP);
+    }
+
+    private MessageListenerContainer container() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        ContainerProperties properties = new ContainerProperties(TOPIC);
+        when(container.getContainerProperties()).thenReturn(properties);
+        when(container.getAssignedPartitions()).thenReturn(List.of(TP));
+        return container;
+    }
+
+    private Acknowledgment ack(long offset) {
+        return () -> committed.add(offset);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, "value-" + offset);
+    }
+
+    @Test
+    void refusesRecordInstancesReusedByThePooledDeserializer() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ParallelProcessingConfig.checkNoRecordReuse(true));
+        assertTrue(e.getMessage().contains("reuse-records"), e.getMessage());
+        ParallelProcessingConfig.checkNoRecordReuse(false);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+}
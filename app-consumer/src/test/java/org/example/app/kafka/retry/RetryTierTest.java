@@ -0,0 +1,114 @@
+package org.example.app.kafka.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.app.kafka.schemaid.SchemaIdExtractingDeserializer;
+import org.example.app.kafka.schemaid.SchemaIdStats;
+import org.example.app.kafka.schemaid.SchemaIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.adapter.HandlerAdapter;
+import org.springframework.kafka.listener.adapter.RecordMessagingMessageListenerAdapter;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryTierTest {
+
+    private static final byte[] POISON_PILL = {0, 0, 0, 0, 7, (byte) 0xff, (byte) 0xff};
+
+    @Test
+    void poisonPillsKeepTheirBytesAndSchemaIdAndAreForwardedUnchanged() {
+        Deserializer<Object> failing = (topic, data) -> {
+            throw new SerializationException("Malformed data");
+        };
+        Deserializer<Object> chain = RawValueRetainingDeserializer.withErrorHandling(
+                new SchemaIdExtractingDeserializer<>(failing, new SchemaIdStats()));
+        chain.configure(Map.of(), false);
+        RecordHeaders headers = new RecordHeaders();
+
+        assertNull(chain.deserialize("demo-topic", headers, POISON_PILL));
+        assertEquals(7, SchemaIds.fromHeaders(headers));
+        assertNotNull(headers.lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER));
+        assertSame(POISON_PILL, headers.lastHeader(RawValueRetainingDeserializer.HEADER).value());
+
+        // Any value: the consumed bytes win and their header is not published
+        byte[] published = new RawValueSerializer().serialize("demo-topic-dlt", headers, "decoded");
+        assertArrayEquals(POISON_PILL, published);
+        assertNull(headers.lastHeader(RawValueRetainingDeserializer.HEADER));
+    }
+
+    @Test
+    void logsDeadLettersWithoutManualAcks() throws Exception {
+        DeadLetterLogger logger = new DeadLetterLogger();
+        // Invoked the way a container outside AckMode.MANUAL does: without an Acknowledgment
+        Method handle = DeadLetterLogger.class.getMethod("handle", ConsumerRecord.class, Acknowledgment.class);
+        RecordMessagingMessageListenerAdapter<String, Object> adapter =
+                new RecordMessagingMessageListenerAdapter<>(logger, handle);
+        DefaultMessageHandlerMethodFactory handlerMethods = new DefaultMessageHandlerMethodFactory();
+        handlerMethods.afterPropertiesSet();
+        adapter.setHandlerMethod(new HandlerAdapter(handlerMethods.createInvocableHandlerMethod(logger, handle)));
+
+        assertDoesNotThrow(() -> adapter.onMessage(
+                new ConsumerRecord<>("demo-topic-dlt", 0, 3L, "key", (Object) POISON_PILL), null, null));
+    }
+
+    @Test
+    void refusesToEncodeValuesThatWereNotConsumed() {
+        RawValueSerializer serializer = new RawValueSerializer();
+
+        assertArrayEquals(POISON_PILL, serializer.serialize("t", new RecordHeaders(), POISON_PILL));
+        assertNull(serializer.serialize("t", new RecordHeaders(), null));
+        assertThrows(SerializationException.class, () -> serializer.serialize("t", new RecordHeaders(), "decoded"));
+    }
+
+    @Test
+    void replaysToTheOriginalTopicWithoutRetryHeaders() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("ce-id", "42".getBytes(StandardCharsets.UTF_8));
+        headers.add(SchemaIds.HEADER, new byte[]{0, 0, 0, 7});
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "demo-topic".getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "demo-topic-retry-2".getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "boom".getBytes(StandardCharsets.UTF_8));
+        headers.add("retry_topic-attempts", new byte[]{0, 0, 0, 4});
+        ConsumerRecord<String, byte[]> dead = new ConsumerRecord<>("demo-topic-dlt", 3, 10, 0L,
+                TimestampType.CREATE_TIME, 0, POISON_PILL.length, "key-1", POISON_PILL, headers, Optional.empty());
+
+        ProducerRecord<String, Object> replay = DltReplayer.replayRecord(dead, "fallback");
+
+        assertEquals("demo-topic", replay.topic());
+        assertNull(replay.partition());
+        assertEquals("key-1", replay.key());
+        assertSame(POISON_PILL, replay.value());
+        assertEquals(1, replay.headers().toArray().length);
+        assertNotNull(replay.headers().lastHeader("ce-id"));
+        assertEquals("fallback", DltReplayer.replayRecord(
+                new ConsumerRecord<>("demo-topic-dlt", 0, 0, "k", POISON_PILL), "fallback").topic());
+    }
+
+    @Test
+    void tagsRoutedRecordsByTier() {
+        RetryTierMetrics metrics = new RetryTierMetrics(null, "-retry", "-dlt");
+
+        assertEquals("retry", metrics.tier("demo-topic-retry-0"));
+        assertEquals("dlt", metrics.tier("demo-topic-dlt"));
+        assertEquals("replay", metrics.tier("demo-topic"));
+    }
+}
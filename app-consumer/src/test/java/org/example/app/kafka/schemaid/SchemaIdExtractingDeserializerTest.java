@@ -0,0 +1,96 @@
+package org.example.app.kafka.schemaid;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaIdExtractingDeserializerTest {
+
+    @Test
+    void exposesWireFormatSchemaIdAsHeaderAndCounter() {
+        SchemaIdStats stats = new SchemaIdStats();
+        SchemaIdExtractingDeserializer<byte[]> deserializer =
+                new SchemaIdExtractingDeserializer<>(new ByteArrayDeserializer(), stats);
+        byte[] framed = {0, 0, 0, 1, 2, 42};
+        RecordHeaders headers = new RecordHeaders();
+
+        assertArrayEquals(framed, deserializer.deserialize("t", headers, framed));
+        assertEquals(258, SchemaIds.fromHeaders(headers));
+        deserializer.deserialize("t", new RecordHeaders(), framed);
+        assertEquals(Map.of(258, 2L), stats.snapshot());
+    }
+
+    @Test
+    void replacesTheHeaderOfARetriedRecord() {
+        SchemaIdExtractingDeserializer<byte[]> deserializer =
+                new SchemaIdExtractingDeserializer<>(new ByteArrayDeserializer(), new SchemaIdStats());
+        // As copied from a retry topic: a plain header with the id of the original consumption
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(SchemaIds.HEADER, new byte[]{0, 0, 0, 7});
+
+        deserializer.deserialize("t", headers, new byte[]{0, 0, 0, 1, 2, 42});
+        assertEquals(1, headers.toArray().length);
+        assertEquals(258, SchemaIds.fromHeaders(headers));
+        assertArrayEquals(new byte[]{0, 0, 1, 2}, headers.lastHeader(SchemaIds.HEADER).value());
+    }
+
+    /**
+     * Bytes allocated per record by the extraction alone (the delegate allocates nothing), measured with the thread
+     * allocation counter. The header list of every record is grown beforehand, as the consumer does when it adds the
+     * first header.
+     */
+    @Test
+    void allocatesNothingPerRecordOfAKnownSchema() {
+        SchemaIdExtractingDeserializer<byte[]> deserializer =
+                new SchemaIdExtractingDeserializer<>((topic, data) -> data, new SchemaIdStats());
+        byte[] framed = {0, 0, 0, 1, 2, 42};
+        int iterations = 20_000;
+        deserialize(deserializer, headers(iterations), framed);
+
+        RecordHeaders[] headers = headers(iterations);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        deserialize(deserializer, headers, framed);
+        double bytesPerRecord = (threads.getThreadAllocatedBytes(threadId) - before) / (double) iterations;
+
+        assertTrue(bytesPerRecord < 1, bytesPerRecord + " B per record");
+        assertEquals(258, SchemaIds.fromHeaders(headers[iterations - 1]));
+    }
+
+    @Test
+    void ignoresPayloadsWithoutMagicByte() {
+        SchemaIdStats stats = new SchemaIdStats();
+        RecordHeaders headers = new RecordHeaders();
+        new SchemaIdExtractingDeserializer<>(new ByteArrayDeserializer(), stats).deserialize("t", headers, new byte[]{1, 0, 0, 0, 1});
+
+        assertNull(headers.lastHeader(SchemaIds.HEADER));
+        assertEquals(SchemaIds.UNKNOWN, SchemaIds.read(null));
+        assertEquals(Map.of(), stats.snapshot());
+    }
+
+    private static void deserialize(SchemaIdExtractingDeserializer<byte[]> deserializer, RecordHeaders[] headers,
+                                    byte[] data) {
+        for (RecordHeaders h : headers) {
+            deserializer.deserialize("t", h, data);
+        }
+    }
+
+    private static RecordHeaders[] headers(int count) {
+        RecordHeaders[] headers = new RecordHeaders[count];
+        for (int i = 0; i < count; i++) {
+            headers[i] = new RecordHeaders();
+            headers[i].add("warm-up", null);
+            headers[i].remove("warm-up");
+        }
+        return headers;
+    }
+}
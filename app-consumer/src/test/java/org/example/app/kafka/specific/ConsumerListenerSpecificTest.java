@@ -0,0 +1,44 @@
+package org.example.app.kafka.specific;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.app.kafka.latency.LatencyMonitor;
+import org.example.app.kafka.parallel.ParallelRecordProcessor;
+import org.example.avro.Greeting;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.adapter.HandlerAdapter;
+import org.springframework.kafka.listener.adapter.RecordMessagingMessageListenerAdapter;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import java.lang.reflect.Method;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ConsumerListenerSpecificTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processesRecordsWithoutManualAcksWhenParallelProcessingIsOff() throws Exception {
+        LatencyMonitor latency = mock(LatencyMonitor.class);
+        ObjectProvider<ParallelRecordProcessor> noParallel = mock(ObjectProvider.class);
+        ConsumerListenerSpecific listener = new ConsumerListenerSpecific(latency, noParallel);
+
+        // Invoked the way the container does outside AckMode.MANUAL: without an Acknowledgment
+        Method listen = ConsumerListenerSpecific.class.getMethod("listen", ConsumerRecord.class, Acknowledgment.class);
+        RecordMessagingMessageListenerAdapter<String, Greeting> adapter =
+                new RecordMessagingMessageListenerAdapter<>(listener, listen);
+        DefaultMessageHandlerMethodFactory handlerMethods = new DefaultMessageHandlerMethodFactory();
+        handlerMethods.afterPropertiesSet();
+        adapter.setHandlerMethod(new HandlerAdapter(handlerMethods.createInvocableHandlerMethod(listener, listen)));
+
+        Greeting greeting = Greeting.newBuilder().setMessage("hello").setMessage2("hello").setTimestamp(42L).build();
+        ConsumerRecord<String, Greeting> record = new ConsumerRecord<>("demo-topic", 0, 7L, null, greeting);
+        adapter.onMessage(record, null, null);
+
+        verify(latency).record(same(record), eq(42L));
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.app.kafka.view;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EmbeddedKafka(partitions = LatestValueContainerTest.PARTITIONS, topics = LatestValueContainerTest.TOPIC)
+class LatestValueContainerTest {
+
+    static final String TOPIC = "latest-view-test";
+    static final int PARTITIONS = 3;
+    private static final int KEYS = 30;
+
+    @Test
+    void everyInstanceKeepsEveryKeyAndResumesFromItsCheckpoint(EmbeddedKafkaBroker broker, @TempDir Path dir)
+            throws Exception {
+        Map<String, Object> consumerProps = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                // Ignored: the view never joins a group
+                ConsumerConfig.GROUP_ID_CONFIG, "shared-group");
+        try (KafkaProducer<String, byte[]> producer = producer(broker)) {
+            send(producer, "v1");
+
+            LatestValueStore first = LatestValueStore.open(dir.resolve("first"), 1 << 16, 64);
+            LatestValueStore second = LatestValueStore.open(dir.resolve("second"), 1 << 16, 64);
+            var firstContainer = start(consumerProps, first);
+            var secondContainer = start(consumerProps, second);
+            try {
+                assertTrue(waitFor(() -> hasAll(first, "v1") && hasAll(second, "v1")),
+                        "first " + first.stats() + ", second " + second.stats());
+            } finally {
+                secondContainer.stop();
+                second.close();
+            }
+            assertEquals(PARTITIONS, first.positions().size());
+
+            // Written while the second instance is down
+            send(producer, "v2");
+            assertTrue(waitFor(() -> hasAll(first, "v2")), first.stats().toString());
+            firstContainer.stop();
+            first.close();
+
+            try (LatestValueStore restored = LatestValueStore.open(dir.resolve("second"), 1 << 16, 64)) {
+                assertTrue(hasAll(restored, "v1"));
+                Map<TopicPartition, Long> checkpointed = restored.positions();
+                var restarted = start(consumerProps, restored);
+                try {
+                    assertTrue(waitFor(() -> hasAll(restored, "v2")), restored.stats().toString());
+                    // Only the records after the checkpoint were consumed again
+                    checkpointed.forEach((tp, next) ->
+                            assertEquals(next + KEYS / PARTITIONS, restored.positions().get(tp), tp.toString()));
+                } finally {
+                    restarted.stop();
+                }
+            }
+        }
+    }
+
+    private static ConcurrentMessageListenerContainer<String, byte[]> start(Map<String, Object> consumerProps,
+                                                                            LatestValueStore store) {
+        var container = LatestValueConfig.container(consumerProps, store, TOPIC, PARTITIONS, Duration.ofMillis(100));
+        container.setBeanName("latest-view-test");
+        container.start();
+        return container;
+    }
+
+    private static KafkaProducer<String, byte[]> producer(EmbeddedKafkaBroker broker) {
+        return new KafkaProducer<>(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    // The same number of keys on every partition
+    private static void send(KafkaProducer<String, byte[]> producer, String version) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            producer.send(new ProducerRecord<>(TOPIC, i % PARTITIONS, "key-" + i, bytes(version + "-" + i)));
+        }
+        producer.flush();
+    }
+
+    private static boolean hasAll(LatestValueStore store, String version) {
+        for (int i = 0; i < KEYS; i++) {
+            byte[] value = store.get(bytes("key-" + i));
+            if (value == null || !new String(value, StandardCharsets.UTF_8).equals(version + "-" + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.app.kafka.view;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatestValueStoreTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("demo-topic", 2);
+
+    @Test
+    void keepsTheLatestValuePerKeyAndForgetsDeletedKeys(@TempDir Path dir) throws IOException {
+        try (LatestValueStore store = LatestValueStore.open(dir, 4096, 4)) {
+            // Enough keys to grow the index several times, with deletes shifting probe chains
+            for (int i = 0; i < 1000; i++) {
+                store.put(bytes("key-" + i), bytes("v1-" + i));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                store.put(bytes("key-" + i), bytes("v2-" + i));
+            }
+            for (int i = 0; i < 1000; i += 3) {
+                store.put(bytes("key-" + i), null);
+            }
+            store.put(bytes("never-stored"), null);
+
+            for (int i = 0; i < 1000; i++) {
+                byte[] expected = i % 3 == 0 ? null : bytes((i % 2 == 0 ? "v2-" : "v1-") + i);
+                assertArrayEquals(expected, store.get(bytes("key-" + i)), "key-" + i);
+            }
+            assertEquals(666, store.stats().keys());
+            assertTrue(store.stats().compactions() > 0, store.stats().toString());
+            assertTrue(store.stats().dataBytes() <= 2 * store.stats().liveBytes() + 4096, store.stats().toString());
+        }
+    }
+
+    @Test
+    void restoresFromTheCheckpointAndDropsLaterWrites(@TempDir Path dir) throws IOException {
+        LatestValueStore store = LatestValueStore.open(dir, 1 << 16, 16);
+        store.put(bytes("a"), bytes("a1"));
+        store.put(bytes("b"), bytes("b1"));
+        store.position(PARTITION, 2);
+        store.checkpoint();
+        // Written after the checkpoint and then "crashed": these offsets are consumed again after the restart
+        store.put(bytes("a"), bytes("a2"));
+        store.put(bytes("c"), bytes("c1"));
+        store.position(PARTITION, 4);
+        String checkpoint = Files.readString(dir.resolve(LatestValueStore.CHECKPOINT_FILE));
+
+        try (LatestValueStore restored = LatestValueStore.open(dir, 1 << 16, 16)) {
+            assertEquals(checkpoint, Files.readString(dir.resolve(LatestValueStore.CHECKPOINT_FILE)));
+            assertEquals(Map.of(PARTITION, 2L), restored.positions());
+            assertArrayEquals(bytes("a1"), restored.get(bytes("a")));
+            assertArrayEquals(bytes("b1"), restored.get(bytes("b")));
+            assertNull(restored.get(bytes("c")));
+
+            restored.put(bytes("a"), bytes("a2"));
+            restored.put(bytes("b"), null);
+            restored.position(PARTITION, 4);
+        }
+        try (LatestValueStore reopened = LatestValueStore.open(dir, 1 << 16, 16)) {
+            assertEquals(Map.of(PARTITION, 4L), reopened.positions());
+            assertArrayEquals(bytes("a2"), reopened.get(bytes("a")));
+            assertNull(reopened.get(bytes("b")));
+            assertEquals(1, reopened.stats().keys());
+        }
+    }
+
+    @Test
+    void rejectsEntriesLargerThanASegment(@TempDir Path dir) throws IOException {
+        try (LatestValueStore store = LatestValueStore.open(dir, 64, 16)) {
+            assertThrows(IllegalArgumentException.class, () -> store.put(bytes("k"), new byte[64]));
+            store.put(bytes("k"), new byte[55]);
+            assertEquals(55, store.get(bytes("k")).length);
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -18,54 +18,34 @@ repositories {
     mavenCentral()
 }
 
-// Use official Apache Avro tools (no plugin) to generate SpecificRecord classes
-configurations {
-    create("avroTools")
-}
-
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.kafka:spring-kafka")
 
+    // Serde/registry metrics via Actuator, scraped at /actuator/prometheus
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+
     // Confluent serializer for Avro (works with Apicurio ccompat API)
     implementation("io.confluent:kafka-avro-serializer:8.0.0")
     implementation("org.apache.avro:avro:1.12.0")
+    // Pre-encoded Avro serializer (drop-in value-serializer)
+    implementation(project(":avro-serde"))
+    // Greeting and its generated codec (shared schemas)
+    implementation(project(":avro-schemas"))
 
     // CloudEvents SDK (use headers in binary mode)
     implementation("io.cloudevents:cloudevents-core:4.0.1")
     implementation("io.cloudevents:cloudevents-kafka:4.0.1")
 
-    // Avro code generator CLI
-    "avroTools"("org.apache.avro:avro-tools:1.12.0")
-
+    // Latency percentiles for the load generator
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.kafka:spring-kafka-test")
 }
 
-// Directories for Avro schemas and generated code
-val avroSrcDir = layout.projectDirectory.dir("src/main/avro")
-val avroOutDir = layout.buildDirectory.dir("generated-src/avro")
-
-// Task to generate Java from Avro schemas
-tasks.register<JavaExec>("generateAvroJava") {
-    group = "build"
-    description = "Generate Avro SpecificRecord classes from src/main/avro"
-    classpath = configurations.getByName("avroTools")
-    mainClass.set("org.apache.avro.tool.Main")
-    args("compile", "schema", avroSrcDir.asFile.absolutePath, avroOutDir.get().asFile.absolutePath)
-    inputs.dir(avroSrcDir.asFile)
-    outputs.dir(avroOutDir)
-}
-
-// Add generated sources to main source set
-sourceSets {
-    named("main") {
-        java.srcDir(avroOutDir)
-    }
-}
-
 tasks.test {
     useJUnitPlatform()
 }
@@ -79,8 +59,11 @@ tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
     mainClass.set("org.example.app.ProducerApp")
 }
 
-// Ensure code generation happens before Java compilation
-tasks.named("compileJava") {
-    dependsOn("generateAvroJava")
+// Offline compression/batching advisor; pass settings with -PadvisorArgs="rate=5000 payload-file=..."
+tasks.register<JavaExec>("adviseCompression") {
+    group = "verification"
+    description = "Benchmark producer compression codecs and batch sizes on sampled payloads"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.example.app.kafka.advisor.CompressionAdvisor")
+    (findProperty("advisorArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
 }
-
@@ -9,13 +9,17 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+    // Created when missing and grown when it has fewer partitions; other topic settings come from the migrator's
+    // topic provisioning
     @Bean
     public NewTopic appTopic(
-            @Value("${app.kafka.topic:demo-topic}") String topicName
+            @Value("${app.kafka.topic:demo-topic}") String topicName,
+            @Value("${app.kafka.partitions:6}") int partitions,
+            @Value("${app.kafka.replicas:1}") int replicas
     ) {
         return TopicBuilder.name(topicName)
-                .partitions(1)
-                .replicas(1)
+                .partitions(partitions)
+                .replicas(replicas)
                 .build();
     }
 }
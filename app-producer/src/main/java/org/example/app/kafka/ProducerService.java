@@ -1,6 +1,6 @@
 package org.example.app.kafka;
 
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -14,8 +14,6 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 
 @Service
 @ConditionalOnProperty(prefix = "app.examples.generic", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -32,40 +30,17 @@ public class ProducerService {
     public ProducerService(
             KafkaTemplate<String, Object> kafkaTemplate,
             @Value("${app.kafka.topic:demo-topic}") String topic,
-            @Value("${spring.kafka.properties.schema.registry.url}") String schemaRegistryUrl,
-            @Value("${spring.kafka.properties.bearer.auth.issuer.endpoint.url}") String issuerEndpointUrl,
-            @Value("${spring.kafka.properties.bearer.auth.client.id}") String clientId,
-            @Value("${spring.kafka.properties.bearer.auth.client.secret}") String clientSecret,
-            @Value("${spring.kafka.properties.bearer.auth.scope:}") String scope
+            SchemaRegistryClient schemaRegistryClient
     ) {
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic; // ensure available for subject computation
-        this.greetingSchema = fetchSchemaFromRegistry(
-                schemaRegistryUrl,
-                issuerEndpointUrl,
-                clientId,
-                clientSecret,
-                scope
-        );
+        this.greetingSchema = fetchSchemaFromRegistry(schemaRegistryClient);
     }
 
-    private Schema fetchSchemaFromRegistry(String schemaRegistryUrl,
-                                           String issuerEndpointUrl,
-                                           String clientId,
-                                           String clientSecret,
-                                           String scope) {
+    private Schema fetchSchemaFromRegistry(SchemaRegistryClient client) {
         String subject = topic + "-value"; // matches TopicNameStrategy default
 
-        Map<String, Object> configs = new HashMap<>();
-        configs.put("bearer.auth.credentials.source", "OAUTHBEARER");
-        configs.put("bearer.auth.issuer.endpoint.url", issuerEndpointUrl);
-        configs.put("bearer.auth.client.id", clientId);
-        configs.put("bearer.auth.client.secret", clientSecret);
-        if (scope != null && !scope.isBlank()) {
-            configs.put("bearer.auth.scope", scope);
-        }
-
-        try (CachedSchemaRegistryClient client = new CachedSchemaRegistryClient(schemaRegistryUrl, 16, configs)) {
+        try {
             // Fetch latest schema metadata for subject
             var metadata = client.getLatestSchemaMetadata(subject);
             String schemaString = metadata.getSchema();
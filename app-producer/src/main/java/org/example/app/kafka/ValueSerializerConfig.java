@@ -0,0 +1,71 @@
+package org.example.app.kafka;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.serde.metrics.SerdeMetrics;
+import org.example.serde.metrics.TimedSerializer;
+import org.example.serde.registry.SharedSchemaRegistryClient;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Configuration
+public class ValueSerializerConfig {
+
+    // Build the value serializer configured under spring.kafka.producer.value-serializer on the shared registry
+    // client when there is one, timed per topic when serde metrics are enabled
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer valueSerializerCustomizer(
+            ObjectProvider<SchemaRegistryClient> schemaRegistryClient,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.metrics.serde.enabled:true}") boolean metrics) {
+        return factory -> wrap(factory, schemaRegistryClient.getIfAvailable(),
+                metrics ? meterRegistry.getIfAvailable() : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void wrap(DefaultKafkaProducerFactory<K, V> factory, SchemaRegistryClient client,
+                                    MeterRegistry registry) {
+        if (client == null && registry == null) {
+            return;
+        }
+        Object configured = factory.getConfigurationProperties().get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG);
+        if (configured == null) {
+            return;
+        }
+        Class<?> type;
+        try {
+            type = configured instanceof Class<?> c ? c : ClassUtils.forName(configured.toString(), null);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Value serializer class not found: " + configured, e);
+        }
+        // Stock Confluent serializers take the client in their constructor; the avro-serde ones read it from configs
+        Constructor<?> withClient = client != null
+                ? ClassUtils.getConstructorIfAvailable(type, SchemaRegistryClient.class)
+                : null;
+        Supplier<Serializer<V>> supplier = () -> {
+            Serializer<V> serializer = (Serializer<V>) (withClient != null
+                    ? BeanUtils.instantiateClass(withClient, client)
+                    : BeanUtils.instantiateClass(type));
+            return registry != null ? new TimedSerializer<>(serializer, registry) : serializer;
+        };
+        if (client != null) {
+            factory.updateConfigs(Map.of(SharedSchemaRegistryClient.CLIENT_CONFIG, client));
+        } else {
+            // The registry client PreEncodedSpecificAvroSerializer creates from these configs gets instrumented too
+            factory.updateConfigs(Map.of(SerdeMetrics.METER_REGISTRY_CONFIG, registry));
+        }
+        factory.setValueSerializerSupplier(supplier);
+    }
+}
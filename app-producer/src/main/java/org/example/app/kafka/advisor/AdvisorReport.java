@@ -0,0 +1,57 @@
+package org.example.app.kafka.advisor;
+
+import java.util.List;
+
+/**
+ * Outcome of a compression advisor run: one row per codec and batch size, and the settings it recommends.
+ *
+ * @param payloads     number of sampled values
+ * @param payloadBytes average value size in bytes
+ * @param requiredMBps uncompressed MB per second the producer has to batch at the expected rate
+ * @param linger       recommended {@code linger.ms}
+ * @param reason       why the recommended row was picked
+ */
+public record AdvisorReport(
+        int payloads,
+        double payloadBytes,
+        double requiredMBps,
+        List<CodecResult> results,
+        CodecResult recommended,
+        long linger,
+        String reason
+) {
+
+    /**
+     * Recommended settings in application.yml form.
+     */
+    public String producerSettings() {
+        return String.format("""
+                spring.kafka.producer.compression-type: %s
+                spring.kafka.producer.batch-size: %d
+                spring.kafka.producer.properties.linger.ms: %d""",
+                recommended.compression().name, recommended.batchSize(), linger);
+    }
+
+    static String bytes(double bytes) {
+        String[] units = {"B", "KB", "MB", "GB", "TB", "PB"};
+        int unit = 0;
+        while (bytes >= 1024 && unit < units.length - 1) {
+            bytes /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", bytes, units[unit]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d payload(s), %.0f bytes on average; %.2f MB/s to batch at the expected rate%n",
+                payloads, payloadBytes, requiredMBps));
+        s.append(String.format("%-6s %9s %9s %7s %12s %14s %9s %9s %14s%n", "codec", "batch", "records", "ratio",
+                "compr MB/s", "decompr MB/s", "B/record", "fill ms", "broker/day"));
+        results.forEach(r -> s.append(r).append(System.lineSeparator()));
+        s.append("Recommended (").append(reason).append("):").append(System.lineSeparator());
+        s.append(producerSettings());
+        return s.toString();
+    }
+}
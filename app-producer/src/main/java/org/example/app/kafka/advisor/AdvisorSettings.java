@@ -0,0 +1,82 @@
+package org.example.app.kafka.advisor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of the compression advisor, given as {@code name=value} arguments.
+ *
+ * @param payloadFile values captured from a topic, each a 4-byte big-endian length followed by the value bytes;
+ *                    null samples {@code samples} Greetings serialized like the producer does
+ * @param samples     number of Greetings to sample when there is no payload file
+ * @param keys        number of distinct record keys, cycled round-robin; 0 sends null keys like the example producer
+ * @param batchSizes  {@code batch.size} values to try
+ * @param rate        expected messages per second across the topic, for linger and broker-bytes projections
+ * @param partitions  partitions of the topic; keyed records fill a batch per partition
+ * @param replicas    replication factor, for the broker-bytes projection
+ * @param maxLinger   longest {@code linger.ms} worth waiting to fill a batch
+ * @param headroom    how many times the required MB/s a codec must compress and decompress to be recommended
+ * @param measure     time measured per codec and batch size, after a warm-up of half as long
+ */
+public record AdvisorSettings(
+        Path payloadFile,
+        int samples,
+        int keys,
+        List<Integer> batchSizes,
+        int rate,
+        int partitions,
+        int replicas,
+        Duration maxLinger,
+        double headroom,
+        Duration measure
+) {
+
+    public static AdvisorSettings defaults() {
+        return new AdvisorSettings(null, 10_000, 0, List.of(16_384, 65_536, 262_144, 1_048_576), 1000, 6, 1,
+                Duration.ofMillis(100), 3.0, Duration.ofMillis(500));
+    }
+
+    /**
+     * Defaults overridden by {@code name=value} arguments, e.g. {@code rate=20000 batch-sizes=16384,131072}.
+     */
+    public static AdvisorSettings parse(String... args) {
+        AdvisorSettings s = defaults();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected name=value but got '" + arg + "'");
+            }
+            String value = arg.substring(eq + 1).trim();
+            s = switch (arg.substring(0, eq).trim()) {
+                case "payload-file" -> new AdvisorSettings(Path.of(value), s.samples, s.keys, s.batchSizes, s.rate,
+                        s.partitions, s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "samples" -> new AdvisorSettings(s.payloadFile, Integer.parseInt(value), s.keys, s.batchSizes,
+                        s.rate, s.partitions, s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "keys" -> new AdvisorSettings(s.payloadFile, s.samples, Integer.parseInt(value), s.batchSizes,
+                        s.rate, s.partitions, s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "batch-sizes" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys,
+                        Arrays.stream(value.split(",")).map(String::trim).map(Integer::valueOf).sorted().toList(),
+                        s.rate, s.partitions, s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "rate" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes,
+                        Integer.parseInt(value), s.partitions, s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "partitions" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes, s.rate,
+                        Integer.parseInt(value), s.replicas, s.maxLinger, s.headroom, s.measure);
+                case "replicas" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes, s.rate,
+                        s.partitions, Integer.parseInt(value), s.maxLinger, s.headroom, s.measure);
+                case "max-linger-ms" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes, s.rate,
+                        s.partitions, s.replicas, Duration.ofMillis(Long.parseLong(value)), s.headroom, s.measure);
+                case "headroom" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes, s.rate,
+                        s.partitions, s.replicas, s.maxLinger, Double.parseDouble(value), s.measure);
+                case "measure-ms" -> new AdvisorSettings(s.payloadFile, s.samples, s.keys, s.batchSizes, s.rate,
+                        s.partitions, s.replicas, s.maxLinger, s.headroom, Duration.ofMillis(Long.parseLong(value)));
+                default -> throw new IllegalArgumentException("Unknown setting '" + arg.substring(0, eq) + "'");
+            };
+        }
+        if (s.batchSizes.isEmpty() || s.rate <= 0 || s.partitions <= 0 || s.replicas <= 0) {
+            throw new IllegalArgumentException("batch-sizes, rate, partitions and replicas must be positive: " + s);
+        }
+        return s;
+    }
+}
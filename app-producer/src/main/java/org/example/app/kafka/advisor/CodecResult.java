@@ -0,0 +1,34 @@
+package org.example.app.kafka.advisor;
+
+import org.apache.kafka.common.record.CompressionType;
+
+/**
+ * Measurements of one codec and {@code batch.size}, over record batches built the way the producer builds them.
+ *
+ * @param recordsPerBatch   average records in a batch
+ * @param ratio             uncompressed over compressed batch bytes
+ * @param compressMBps      uncompressed MB per second through batch building and compression
+ * @param decompressMBps    uncompressed MB per second through decompression and record iteration
+ * @param bytesPerRecord    batch bytes per record as sent to and stored by the broker, batch overhead included
+ * @param fillMillis        time to fill a batch at the expected rate, about max-linger-ms at most
+ * @param brokerBytesPerDay projected log bytes per day at the expected rate, all replicas
+ */
+public record CodecResult(
+        CompressionType compression,
+        int batchSize,
+        double recordsPerBatch,
+        double ratio,
+        double compressMBps,
+        double decompressMBps,
+        double bytesPerRecord,
+        double fillMillis,
+        double brokerBytesPerDay
+) {
+
+    @Override
+    public String toString() {
+        return String.format("%-6s %9d %9.0f %7.2f %12.1f %14.1f %9.1f %9.1f %14s", compression.name, batchSize,
+                recordsPerBatch, ratio, compressMBps, decompressMBps, bytesPerRecord, fillMillis,
+                AdvisorReport.bytes(brokerBytesPerDay));
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.app.kafka.advisor;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import org.apache.kafka.common.compress.Compression;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.Record;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.BufferSupplier;
+import org.apache.kafka.common.utils.CloseableIterator;
+import org.example.avro.Greeting;
+import org.example.serde.PreEncodedSpecificAvroSerializer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures how the producer's compression codecs and batch sizes do on real payloads, fully offline, and recommends
+ * {@code compression-type}, {@code batch-size} and {@code linger.ms}.
+ * <p>
+ * Payloads are either Greetings serialized with {@link PreEncodedSpecificAvroSerializer} (against an in-memory
+ * registry, so only the schema id differs from production) or values captured from a topic. For each codec and
+ * batch size they are appended to {@link MemoryRecordsBuilder}s with the CloudEvents headers the send pipeline adds,
+ * exactly as the producer's accumulator does: a batch is closed once its estimated compressed size reaches
+ * {@code batch.size}, with the compression ratio estimate carried over from the previous batch, or once it holds the
+ * records that arrive for it in {@code max-linger-ms} at the expected rate. Keyed records spread that rate over the
+ * partitions; null keys go to one partition at a time (sticky partitioner), so each batch sees the full rate. The
+ * batches are then read back like a consumer does.
+ * <p>
+ * The recommendation is the row with the fewest broker bytes (or within 5% of them, the one compressing fastest)
+ * among those that compress and decompress at least {@code headroom} times the MB/s the producer has to batch. Batch
+ * sizes that the linger limit keeps from filling give the same batches, so the smallest of them is recommended.
+ * Run it with {@code ./gradlew :app-producer:adviseCompression -PadvisorArgs="rate=5000"}; see {@link AdvisorSettings}.
+ */
+public class CompressionAdvisor {
+
+    private static final byte[] CE_SOURCE = "urn:example:spring-boot-app".getBytes(StandardCharsets.UTF_8);
+    private static final double MB = 1024.0 * 1024.0;
+    // Producer default linger.ms since Kafka 4.0
+    private static final long DEFAULT_LINGER_MS = 5;
+
+    private final AdvisorSettings settings;
+
+    public CompressionAdvisor(AdvisorSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws IOException {
+        AdvisorSettings settings = AdvisorSettings.parse(args);
+        List<byte[]> payloads = settings.payloadFile() != null
+                ? readPayloads(settings.payloadFile())
+                : samplePayloads(settings.samples(), settings.rate());
+        System.out.println(new CompressionAdvisor(settings).advise(payloads));
+    }
+
+    /**
+     * Greetings as the specific example producer builds them, one every {@code 1000 / rate} ms, serialized with the
+     * producer's value serializer.
+     */
+    public static List<byte[]> samplePayloads(int count, int rate) {
+        List<byte[]> payloads = new ArrayList<>(count);
+        long start = System.currentTimeMillis();
+        try (var serializer = new PreEncodedSpecificAvroSerializer<>(new MockSchemaRegistryClient(), Greeting.class)) {
+            for (int i = 0; i < count; i++) {
+                long timestamp = start + i * 1000L / Math.max(1, rate);
+                Greeting greeting = Greeting.newBuilder()
+                        .setMessage2("Hello from Spring Boot (SpecificRecord) @ " + timestamp)
+                        .setMessage("Hello from Spring Boot (SpecificRecord) @ " + timestamp)
+                        .setTimestamp(timestamp)
+                        .build();
+                payloads.add(serializer.serialize("advisor", greeting));
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * Values stored as a 4-byte big-endian length followed by the bytes, as written by
+     * {@code kcat -C -t <topic> -e -f '%R%s'}.
+     */
+    public static List<byte[]> readPayloads(Path file) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             DataInputStream data = new DataInputStream(in)) {
+            while (true) {
+                int length;
+                try {
+                    length = data.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0) {
+                    throw new IOException("Negative value length " + length + " after " + payloads.size()
+                            + " payload(s) in " + file);
+                }
+                byte[] payload = new byte[length];
+                data.readFully(payload);
+                payloads.add(payload);
+            }
+        }
+        if (payloads.isEmpty()) {
+            throw new IOException("No payloads in " + file);
+        }
+        return payloads;
+    }
+
+    public AdvisorReport advise(List<byte[]> payloads) {
+        if (payloads.isEmpty()) {
+            throw new IllegalArgumentException("No payloads to measure");
+        }
+        Records records = new Records(payloads, settings.keys());
+        List<CodecResult> results = new ArrayList<>();
+        for (CompressionType type : CompressionType.values()) {
+            for (int batchSize : settings.batchSizes()) {
+                results.add(measure(records, type, batchSize));
+            }
+        }
+        double recordBytes = results.get(0).bytesPerRecord();
+        double requiredMBps = settings.rate() * recordBytes / MB;
+        double payloadBytes = payloads.stream().mapToInt(p -> p.length).average().orElse(0);
+
+        List<CodecResult> fastEnough = results.stream()
+                .filter(r -> Math.min(r.compressMBps(), r.decompressMBps()) >= requiredMBps * settings.headroom())
+                .toList();
+        CodecResult best;
+        String reason;
+        if (fastEnough.isEmpty()) {
+            best = results.stream().max(Comparator.comparingDouble(CodecResult::compressMBps)).orElseThrow();
+            reason = String.format("no codec reaches %.0fx headroom over %.2f MB/s, fastest picked",
+                    settings.headroom(), requiredMBps);
+        } else {
+            double fewest = fastEnough.stream().mapToDouble(CodecResult::brokerBytesPerDay).min().orElseThrow();
+            best = fastEnough.stream()
+                    .filter(r -> r.brokerBytesPerDay() <= fewest * 1.05)
+                    .max(Comparator.comparingDouble(CodecResult::compressMBps))
+                    .orElseThrow();
+            reason = String.format("fewest broker bytes with %.0fx headroom at %d msg/s",
+                    settings.headroom(), settings.rate());
+        }
+        // Larger batch sizes only cost memory when batches do not grow with them
+        CodecResult recommended = results.stream()
+                .filter(r -> r.compression() == best.compression()
+                        && r.recordsPerBatch() >= best.recordsPerBatch() * 0.98)
+                .min(Comparator.comparingInt(CodecResult::batchSize))
+                .orElseThrow();
+        // Wait about as long as a batch takes to fill, unless records arrive too far apart to be batched at all
+        long linger = recommended.recordsPerBatch() <= 1
+                ? DEFAULT_LINGER_MS
+                : Math.min(settings.maxLinger().toMillis(),
+                        Math.max(DEFAULT_LINGER_MS, (long) Math.ceil(recommended.fillMillis())));
+        return new AdvisorReport(payloads.size(), payloadBytes, requiredMBps, results, recommended, linger, reason);
+    }
+
+    private CodecResult measure(Records records, CompressionType type, int batchSize) {
+        Compression compression = Compression.of(type).build();
+        double batchRate = settings.keys() > 0
+                ? (double) settings.rate() / Math.min(settings.partitions(), settings.keys())
+                : settings.rate();
+        int maxRecords = (int) Math.max(1, Math.ceil(batchRate * settings.maxLinger().toMillis() / 1000));
+        Totals warmUp = new Totals();
+        run(records, compression, batchSize, maxRecords, settings.measure().toNanos() / 2, warmUp);
+        Totals totals = new Totals();
+        totals.estimatedRatio = warmUp.estimatedRatio;
+        run(records, compression, batchSize, maxRecords, settings.measure().toNanos(), totals);
+
+        double recordsPerBatch = (double) totals.records / totals.batches;
+        double bytesPerRecord = (double) totals.batchBytes / totals.records;
+        return new CodecResult(type, batchSize, recordsPerBatch,
+                (double) totals.uncompressedBytes / totals.batchBytes,
+                totals.uncompressedBytes / MB / (totals.compressNanos / 1e9),
+                totals.uncompressedBytes / MB / (totals.decompressNanos / 1e9),
+                bytesPerRecord,
+                recordsPerBatch / batchRate * 1000,
+                bytesPerRecord * settings.rate() * 86_400 * settings.replicas());
+    }
+
+    private static void run(Records records, Compression compression, int batchSize, int maxRecords, long nanos,
+                            Totals totals) {
+        long deadline = System.nanoTime() + nanos;
+        do {
+            long start = System.nanoTime();
+            MemoryRecordsBuilder builder = MemoryRecords.builder(ByteBuffer.allocate(batchSize),
+                    RecordBatch.CURRENT_MAGIC_VALUE, compression, TimestampType.CREATE_TIME, 0L);
+            builder.setEstimatedCompressionRatio(totals.estimatedRatio);
+            while (builder.numRecords() < maxRecords) {
+                int i = records.next;
+                if (!builder.hasRoomFor(records.timestamp, records.keys[i], records.values[i], records.headers[i])) {
+                    break;
+                }
+                builder.append(records.timestamp, records.keys[i], records.values[i], records.headers[i]);
+                records.next = (i + 1) % records.values.length;
+            }
+            MemoryRecords batch = builder.build();
+            long built = System.nanoTime();
+            int count = 0;
+            for (RecordBatch recordBatch : batch.batches()) {
+                try (CloseableIterator<Record> it = recordBatch.streamingIterator(BufferSupplier.NO_CACHING)) {
+                    while (it.hasNext()) {
+                        count += it.next().valueSize() >= 0 ? 1 : 0;
+                    }
+                }
+            }
+            long read = System.nanoTime();
+
+            int uncompressed = builder.uncompressedBytesWritten();
+            totals.estimatedRatio = (float) batch.sizeInBytes() / uncompressed;
+            totals.batches++;
+            totals.records += count;
+            totals.batchBytes += batch.sizeInBytes();
+            totals.uncompressedBytes += uncompressed;
+            totals.compressNanos += built - start;
+            totals.decompressNanos += read - built;
+        } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * Sampled values with their keys and headers, prepared once and cycled through.
+     */
+    private static final class Records {
+        private final long timestamp = System.currentTimeMillis();
+        private final byte[][] keys;
+        private final byte[][] values;
+        private final Header[][] headers;
+        private int next;
+
+        Records(List<byte[]> payloads, int keyCount) {
+            values = payloads.toArray(byte[][]::new);
+            keys = new byte[values.length][];
+            headers = new Header[values.length][];
+            for (int i = 0; i < values.length; i++) {
+                keys[i] = keyCount > 0 ? ("key-" + i % keyCount).getBytes(StandardCharsets.UTF_8) : null;
+                headers[i] = new Header[]{
+                        new RecordHeader("ce-id", UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)),
+                        new RecordHeader("ce-source", CE_SOURCE)
+                };
+            }
+        }
+    }
+
+    private static final class Totals {
+        private float estimatedRatio = 1.0f;
+        private long batches;
+        private long records;
+        private long batchBytes;
+        private long uncompressedBytes;
+        private long compressNanos;
+        private long decompressNanos;
+    }
+}
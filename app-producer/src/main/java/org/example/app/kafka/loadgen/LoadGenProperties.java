@@ -0,0 +1,27 @@
+package org.example.app.kafka.loadgen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the load-generation mode (app.loadgen.*).
+ *
+ * @param rate           target messages per second across all senders; 0 sends closed-loop: each sender waits for a
+ *                       free slot in the in-flight window
+ * @param payloadBytes   approximate size of the Greeting message text
+ * @param keyCardinality number of distinct record keys, cycled round-robin
+ * @param senders        number of virtual-thread senders
+ * @param maxInFlight    unacknowledged sends allowed at once; senders block when the window is full
+ */
+@ConfigurationProperties(prefix = "app.loadgen")
+public record LoadGenProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000") int rate,
+        @DefaultValue("256") int payloadBytes,
+        @DefaultValue("1000") int keyCardinality,
+        @DefaultValue("30s") Duration duration,
+        @DefaultValue("4") int senders,
+        @DefaultValue("1000") int maxInFlight
+) { }
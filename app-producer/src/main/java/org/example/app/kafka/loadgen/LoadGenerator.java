@@ -0,0 +1,104 @@
+package org.example.app.kafka.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.avro.Greeting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends Greeting records as fast as configured and measures send-to-ack latency.
+ * <p>
+ * Senders are virtual threads sharing one sequence: in fixed-rate mode message {@code n} is due at
+ * {@code start + n / rate}; in closed-loop mode (rate 0) senders send back to back. A semaphore bounds the number of
+ * unacknowledged sends, so a slow broker applies backpressure instead of growing the producer buffer without limit.
+ * Closed-loop mode therefore only offers as much load as the broker acknowledges, and its latency starts when a
+ * permit is obtained; use a fixed rate to see queueing delay.
+ */
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String topic;
+    private final LoadGenProperties props;
+
+    public LoadGenerator(KafkaTemplate<String, Object> kafkaTemplate, String topic, LoadGenProperties props) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.props = props;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        String payload = "x".repeat(Math.max(0, props.payloadBytes()));
+        String[] keys = new String[Math.max(1, props.keyCardinality())];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key-" + i;
+        }
+        long intervalNanos = props.rate() > 0 ? TimeUnit.SECONDS.toNanos(1) / props.rate() : 0;
+        int maxInFlight = Math.max(1, props.maxInFlight());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Recorder recorder = new Recorder(3);
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong acked = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        log.info("Load generation: topic={} rate={} payloadBytes={} keys={} senders={} maxInFlight={} duration={}",
+                topic, props.rate() > 0 ? props.rate() + "/s" : "closed-loop", props.payloadBytes(), keys.length,
+                props.senders(), maxInFlight, props.duration());
+        long start = System.nanoTime();
+        long deadline = start + props.duration().toNanos();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < Math.max(1, props.senders()); s++) {
+                senders.submit(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        long n = sequence.getAndIncrement();
+                        long due = intervalNanos > 0 ? start + n * intervalNanos : System.nanoTime();
+                        if (due >= deadline) {
+                            return;
+                        }
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        inFlight.acquireUninterruptibly();
+                        long sendStart = intervalNanos > 0 ? due : System.nanoTime();
+                        Greeting greeting = Greeting.newBuilder()
+                                .setMessage(payload)
+                                .setTimestamp(System.currentTimeMillis())
+                                .build();
+                        try {
+                            kafkaTemplate.send(topic, keys[(int) (n % keys.length)], greeting).whenComplete((result, ex) -> {
+                                recorder.recordValue(Math.max(0, (System.nanoTime() - sendStart) / 1_000));
+                                (ex == null ? acked : failed).incrementAndGet();
+                                inFlight.release();
+                            });
+                            sent.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+        }
+        kafkaTemplate.flush();
+        // Wait for outstanding acknowledgements
+        if (!inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+            log.warn("Timed out waiting for {} in-flight send(s)", maxInFlight - inFlight.availablePermits());
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Histogram latency = recorder.getIntervalHistogram();
+        return new LoadReport(sent.get(), acked.get(), failed.get(), props.payloadBytes(), elapsed, latency);
+    }
+}
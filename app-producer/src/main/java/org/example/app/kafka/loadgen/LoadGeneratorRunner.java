@@ -0,0 +1,35 @@
+package org.example.app.kafka.loadgen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "app.loadgen", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(LoadGenProperties.class)
+public class LoadGeneratorRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorRunner.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final LoadGenProperties props;
+
+    @Value("${app.kafka.topic:demo-topic}")
+    private String topic;
+
+    public LoadGeneratorRunner(KafkaTemplate<String, Object> kafkaTemplate, LoadGenProperties props) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.props = props;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        LoadReport report = new LoadGenerator(kafkaTemplate, topic, props).run();
+        log.info("Load generation finished: {}", report);
+    }
+}
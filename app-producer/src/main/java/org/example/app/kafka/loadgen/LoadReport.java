@@ -0,0 +1,34 @@
+package org.example.app.kafka.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a load-generation run. Latencies are send-to-ack in microseconds; in fixed-rate mode they are measured
+ * from the scheduled send time, so time spent blocked on a full in-flight window counts (no coordinated omission).
+ */
+public record LoadReport(long sent, long acked, long failed, long payloadBytes, Duration elapsed, Histogram latencyMicros) {
+
+    public double messagesPerSecond() {
+        return acked / seconds();
+    }
+
+    public double megabytesPerSecond() {
+        return acked * payloadBytes / seconds() / (1024.0 * 1024.0);
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sent=%d acked=%d failed=%d in %.1fs -> %.0f msg/s, %.2f MB/s (payload); "
+                        + "ack latency us: p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                sent, acked, failed, seconds(), messagesPerSecond(), megabytesPerSecond(),
+                latencyMicros.getValueAtPercentile(50), latencyMicros.getValueAtPercentile(90),
+                latencyMicros.getValueAtPercentile(99), latencyMicros.getValueAtPercentile(99.9),
+                latencyMicros.getMaxValue());
+    }
+}
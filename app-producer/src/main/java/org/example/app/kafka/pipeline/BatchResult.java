@@ -0,0 +1,20 @@
+package org.example.app.kafka.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Completion of one batch of a {@link SendPipeline}, reported once its last record is acknowledged or failed.
+ *
+ * @param batch        batch number, increasing across all sends of the pipeline
+ * @param records      records in the batch
+ * @param acked        records the broker acknowledged (committed, in transactional mode)
+ * @param failed       records that failed; in transactional mode an aborted batch fails as a whole
+ * @param firstFailure the first failure, or null
+ * @param elapsed      from the first send of the batch to its last completion
+ */
+public record BatchResult(long batch, int records, int acked, int failed, Throwable firstFailure, Duration elapsed) {
+
+    public boolean succeeded() {
+        return failed == 0;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.app.kafka.pipeline;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one {@link SendPipeline#send} call, complete once every record in it was acknowledged or failed.
+ */
+public record PipelineResult(long sent, long acked, long failed, int batches, Duration elapsed) {
+
+    public double messagesPerSecond() {
+        return acked / (Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sent=%d acked=%d failed=%d in %d batch(es), %d ms -> %.0f msg/s",
+                sent, acked, failed, batches, elapsed.toMillis(), messagesPerSecond());
+    }
+}
@@ -0,0 +1,333 @@
+package org.example.app.kafka.pipeline;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.avro.Greeting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sends Greeting records with a bounded number of unacknowledged sends and reports completions per batch.
+ * <p>
+ * The caller blocks while {@code maxInFlight} sends are unacknowledged, and the source is only pulled when a permit is
+ * free, so a stalled broker holds back the caller instead of piling up futures and buffered records. Records are
+ * grouped into batches of {@code batchSize} in send order; each batch is logged and passed to the
+ * {@link #onBatch listeners} once, when its last record completes. In transactional mode each batch is one
+ * transaction, committed before the next batch starts.
+ * <p>
+ * {@link #send(Greeting, String)} sends one record within the same window but without batch accounting: nothing is
+ * allocated besides the send itself, success is logged at DEBUG only, and batch listeners are not called.
+ * <p>
+ * Records carry the CloudEvents binary-mode {@code ce-id} and {@code ce-source} headers, as in
+ * {@code ProducerServiceSpecific}.
+ */
+public class SendPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SendPipeline.class);
+    private static final byte[] CE_SOURCE = "urn:example:spring-boot-app".getBytes(StandardCharsets.UTF_8);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean ownsTemplate;
+    private final String topic;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final Semaphore inFlight;
+    private final AtomicLong batches = new AtomicLong();
+    private final List<Consumer<BatchResult>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param kafkaTemplate the application's template; the idempotent and transactional modes send through a copy of
+     *                      its producer factory with the mode's producer settings
+     */
+    public SendPipeline(KafkaTemplate<String, Object> kafkaTemplate, String topic, SendPipelineProperties props) {
+        Map<String, Object> overrides = props.mode().producerOverrides(props.transactionIdPrefix());
+        this.ownsTemplate = !overrides.isEmpty();
+        this.kafkaTemplate = ownsTemplate
+                ? new KafkaTemplate<>(kafkaTemplate.getProducerFactory(), overrides)
+                : kafkaTemplate;
+        this.topic = topic;
+        this.maxInFlight = Math.max(1, props.maxInFlight());
+        this.batchSize = Math.max(1, props.batchSize());
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Adds a listener for completed batches. It runs on the producer's I/O thread, so keep it short.
+     */
+    public void onBatch(Consumer<BatchResult> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unacknowledged sends right now.
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public CompletableFuture<PipelineResult> send(Iterable<? extends Greeting> greetings) throws InterruptedException {
+        return send(greetings.iterator(), greeting -> null);
+    }
+
+    public CompletableFuture<PipelineResult> send(Iterable<? extends Greeting> greetings,
+                                                  Function<? super Greeting, String> keys) throws InterruptedException {
+        return send(greetings.iterator(), keys);
+    }
+
+    public CompletableFuture<PipelineResult> send(Stream<? extends Greeting> greetings,
+                                                  Function<? super Greeting, String> keys) throws InterruptedException {
+        return send(greetings.iterator(), keys);
+    }
+
+    /**
+     * Sends one greeting, blocking while the in-flight window is full. In transactional mode it is its own
+     * transaction.
+     *
+     * @param key record key; may be null
+     * @return the send's future; it completes exceptionally when the send fails
+     */
+    public CompletableFuture<SendResult<String, Object>> send(Greeting greeting, String key)
+            throws InterruptedException {
+        inFlight.acquire();
+        ProducerRecord<String, Object> record = record(greeting, key);
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.isTransactional()
+                    ? kafkaTemplate.executeInTransaction(operations -> operations.send(record))
+                    : kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            log.warn("Record failed: {}", e.toString());
+            throw e;
+        }
+        return future.whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex != null) {
+                log.warn("Record failed: {}", ex.toString());
+            } else if (log.isDebugEnabled()) {
+                log.debug("Record acknowledged at {}-{}@{}", result.getRecordMetadata().topic(),
+                        result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+            }
+        });
+    }
+
+    /**
+     * Sends every greeting, blocking while the in-flight window is full.
+     *
+     * @param keys record key per greeting; may return null
+     * @return completes once all records are acknowledged or failed; it never completes exceptionally, failures are
+     * counted in the result
+     */
+    public CompletableFuture<PipelineResult> send(Iterator<? extends Greeting> greetings,
+                                                  Function<? super Greeting, String> keys) throws InterruptedException {
+        Run run = new Run();
+        try {
+            while (greetings.hasNext()) {
+                Batch batch = new Batch(run, batches.incrementAndGet());
+                try {
+                    if (kafkaTemplate.isTransactional()) {
+                        sendInTransaction(greetings, keys, batch);
+                    } else {
+                        fill(kafkaTemplate, greetings, keys, batch);
+                    }
+                } finally {
+                    batch.seal();
+                }
+            }
+        } finally {
+            run.seal();
+        }
+        return run.result;
+    }
+
+    private void sendInTransaction(Iterator<? extends Greeting> greetings, Function<? super Greeting, String> keys,
+                                   Batch batch) throws InterruptedException {
+        try {
+            // Commit flushes the producer, so every record of the batch has completed when this returns
+            kafkaTemplate.executeInTransaction(operations -> {
+                try {
+                    fill(operations, greetings, keys, batch);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Interrupted while waiting for an in-flight permit", e);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            batch.abort(e);
+            if (e.getCause() instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+        }
+    }
+
+    private void fill(KafkaOperations<String, Object> operations, Iterator<? extends Greeting> greetings,
+                      Function<? super Greeting, String> keys, Batch batch) throws InterruptedException {
+        while (batch.records < batchSize && greetings.hasNext()) {
+            inFlight.acquire();
+            Greeting greeting = greetings.next();
+            batch.sending();
+            try {
+                operations.send(record(greeting, keys.apply(greeting))).whenComplete((result, ex) -> {
+                    inFlight.release();
+                    batch.completed(ex);
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                batch.completed(e);
+                if (operations.isTransactional()) {
+                    // Abort the transaction rather than commit the rest of the batch
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ProducerRecord<String, Object> record(Greeting greeting, String key) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, greeting);
+        record.headers()
+                .add("ce-id", UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8))
+                .add("ce-source", CE_SOURCE);
+        return record;
+    }
+
+    private void report(BatchResult result) {
+        if (result.succeeded()) {
+            log.info("Batch {}: {} record(s) acknowledged in {} ms", result.batch(), result.acked(),
+                    result.elapsed().toMillis());
+        } else {
+            log.warn("Batch {}: {} of {} record(s) failed in {} ms", result.batch(), result.failed(), result.records(),
+                    result.elapsed().toMillis(), result.firstFailure());
+        }
+        for (Consumer<BatchResult> listener : listeners) {
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                log.warn("Batch listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Waits for outstanding sends, then closes the producers of the idempotent and transactional modes.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (!kafkaTemplate.isTransactional()) {
+            kafkaTemplate.flush();
+        }
+        if (inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        } else {
+            log.warn("Timed out waiting for {} in-flight send(s)", inFlight());
+        }
+        if (ownsTemplate) {
+            kafkaTemplate.destroy();
+        }
+    }
+
+    // One send() call; completes when its last batch does. Pending counts batches, plus one until sealed.
+    private static final class Run {
+        private final long start = System.nanoTime();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong acked = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final CompletableFuture<PipelineResult> result = new CompletableFuture<>();
+
+        private void add(BatchResult batch) {
+            sent.addAndGet(batch.records());
+            acked.addAndGet(batch.acked());
+            failed.addAndGet(batch.failed());
+            batches.incrementAndGet();
+            done();
+        }
+
+        private void seal() {
+            done();
+        }
+
+        private void done() {
+            if (pending.decrementAndGet() == 0) {
+                result.complete(new PipelineResult(sent.get(), acked.get(), failed.get(), batches.get(),
+                        Duration.ofNanos(System.nanoTime() - start)));
+            }
+        }
+    }
+
+    // Pending counts incomplete sends, plus one until sealed; records is only written by the sending thread
+    private final class Batch {
+        private final Run run;
+        private final long number;
+        private final long start = System.nanoTime();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicInteger acked = new AtomicInteger();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private volatile Throwable aborted;
+        private int records;
+
+        private Batch(Run run, long number) {
+            this.run = run;
+            this.number = number;
+            run.pending.incrementAndGet();
+        }
+
+        private void sending() {
+            records++;
+            pending.incrementAndGet();
+        }
+
+        private void completed(Throwable ex) {
+            if (ex == null) {
+                acked.incrementAndGet();
+            } else {
+                firstFailure.compareAndSet(null, ex);
+            }
+            done();
+        }
+
+        // Aborted transaction: records the broker acknowledged are discarded too
+        private void abort(Throwable ex) {
+            aborted = ex;
+        }
+
+        private void seal() {
+            done();
+        }
+
+        private void done() {
+            if (pending.decrementAndGet() != 0) {
+                return;
+            }
+            if (records == 0) {
+                run.done();
+                return;
+            }
+            int ok = aborted != null ? 0 : acked.get();
+            BatchResult result = new BatchResult(number, records, ok, records - ok,
+                    aborted != null ? aborted : firstFailure.get(), Duration.ofNanos(System.nanoTime() - start));
+            report(result);
+            run.add(result);
+        }
+    }
+}
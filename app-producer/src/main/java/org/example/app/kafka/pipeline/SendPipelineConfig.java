@@ -0,0 +1,22 @@
+package org.example.app.kafka.pipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@Configuration
+@EnableConfigurationProperties(SendPipelineProperties.class)
+public class SendPipelineConfig {
+
+    // Closed before the KafkaTemplate it depends on, so outstanding sends are drained first
+    @Bean(destroyMethod = "close")
+    public SendPipeline sendPipeline(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            SendPipelineProperties props,
+            @Value("${app.kafka.topic:demo-topic}") String topic
+    ) {
+        return new SendPipeline(kafkaTemplate, topic, props);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.app.kafka.pipeline;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Settings of the send pipeline (app.pipeline.*).
+ *
+ * @param maxInFlight         unacknowledged sends allowed at once across all callers; senders block when it is full
+ * @param batchSize           records per reported batch (and per transaction in transactional mode)
+ * @param mode                delivery mode, see {@link Mode}
+ * @param transactionIdPrefix transactional.id prefix in transactional mode
+ */
+@ConfigurationProperties(prefix = "app.pipeline")
+public record SendPipelineProperties(
+        @DefaultValue("1000") int maxInFlight,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("default") Mode mode,
+        @DefaultValue("app-producer-tx-") String transactionIdPrefix
+) {
+
+    public enum Mode {
+        /** The application's KafkaTemplate as configured under spring.kafka.producer */
+        DEFAULT,
+        /** Idempotent producer with acks=all: retries cannot duplicate or reorder records within a partition */
+        IDEMPOTENT,
+        /** Idempotent producer where each batch is committed or aborted as one transaction */
+        TRANSACTIONAL;
+
+        Map<String, Object> producerOverrides(String transactionIdPrefix) {
+            return switch (this) {
+                case DEFAULT -> Map.of();
+                case IDEMPOTENT -> Map.of(
+                        ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                        ProducerConfig.ACKS_CONFIG, "all");
+                case TRANSACTIONAL -> Map.of(
+                        ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                        ProducerConfig.ACKS_CONFIG, "all",
+                        ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionIdPrefix);
+            };
+        }
+    }
+}
@@ -1,33 +1,20 @@
 package org.example.app.kafka.specific;
 
+import org.example.app.kafka.pipeline.SendPipeline;
 import org.example.avro.Greeting;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.net.URI;
-import java.util.UUID;
 
 @Service
 @ConditionalOnProperty(prefix = "app.examples.specific", name = "enabled", havingValue = "true")
 public class ProducerServiceSpecific {
-    private static final Logger log = LoggerFactory.getLogger(ProducerServiceSpecific.class);
+    private final SendPipeline sendPipeline;
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-
-    @Value("${app.kafka.topic:demo-topic}")
-    private String topic;
-
-    public ProducerServiceSpecific(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public ProducerServiceSpecific(SendPipeline sendPipeline) {
+        this.sendPipeline = sendPipeline;
     }
 
     // Send a message every 5 seconds (stagger initial to avoid collision with generic demo)
@@ -39,27 +26,12 @@ public class ProducerServiceSpecific {
                 .setTimestamp(Instant.now().toEpochMilli())
                 .build();
 
-        // CloudEvents binary mode: set only ce-id and ce-source headers
-        String ceId = UUID.randomUUID().toString();
-        String ceSource = URI.create("urn:example:spring-boot-app").toString();
-
-        Message<Greeting> msg = MessageBuilder.withPayload(greeting)
-                .setHeader("ce-id", ceId)
-                .setHeader("ce-source", ceSource)
-                .setHeader(KafkaHeaders.TOPIC, topic)
-                .build();
-
-        kafkaTemplate.send(msg).whenComplete((result, ex) -> {
-            if (ex != null) {
-                log.error("Failed to send SpecificRecord", ex);
-            } else if (result != null && result.getRecordMetadata() != null) {
-                log.info("Sent SpecificRecord to {}-{}@{}",
-                        result.getRecordMetadata().topic(),
-                        result.getRecordMetadata().partition(),
-                        result.getRecordMetadata().offset());
-            } else {
-                log.info("Sent SpecificRecord");
-            }
-        });
+        // Bounded in-flight window without batch accounting; failures are logged (CloudEvents ce-id/ce-source headers
+        // included)
+        try {
+            sendPipeline.send(greeting, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,65 @@
+package org.example.app.kafka.advisor;
+
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionAdvisorTest {
+
+    @Test
+    void measuresEveryCodecAndBatchSizeAndRecommendsFromThem() {
+        AdvisorSettings settings = AdvisorSettings.parse("batch-sizes=65536,16384", "rate=20000", "measure-ms=20");
+        List<byte[]> payloads = CompressionAdvisor.samplePayloads(2000, settings.rate());
+
+        AdvisorReport report = new CompressionAdvisor(settings).advise(payloads);
+
+        assertEquals(CompressionType.values().length * 2, report.results().size());
+        assertEquals(List.of(16384, 65536), settings.batchSizes());
+        for (CodecResult result : report.results()) {
+            if (result.compression() == CompressionType.NONE) {
+                assertTrue(result.ratio() <= 1.0, result.toString());
+            } else {
+                // Greetings repeat their text and the schema id header
+                assertTrue(result.ratio() > 1.5, result.toString());
+            }
+            assertTrue(result.recordsPerBatch() >= 1 && result.compressMBps() > 0 && result.decompressMBps() > 0);
+        }
+        assertTrue(report.results().contains(report.recommended()));
+        assertNotEquals(CompressionType.NONE, report.recommended().compression());
+        assertTrue(report.linger() >= 5 && report.linger() <= settings.maxLinger().toMillis());
+        assertTrue(report.producerSettings().contains("spring.kafka.producer.batch-size: "
+                + report.recommended().batchSize()));
+    }
+
+    @Test
+    void readsLengthPrefixedCaptures(@TempDir Path dir) throws IOException {
+        byte[] first = {0, 0, 0, 0, 1, 2, 3};
+        byte[] empty = {};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (byte[] payload : new byte[][]{first, empty}) {
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+        Path file = Files.write(dir.resolve("payloads.bin"), bytes.toByteArray());
+
+        List<byte[]> payloads = CompressionAdvisor.readPayloads(file);
+
+        assertEquals(2, payloads.size());
+        assertArrayEquals(first, payloads.get(0));
+        assertArrayEquals(empty, payloads.get(1));
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.app.kafka.loadgen;
+
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EmbeddedKafka(partitions = 2, topics = LoadGeneratorTest.TOPIC)
+class LoadGeneratorTest {
+
+    static final String TOPIC = "loadgen-test";
+
+    @Test
+    void sendsAtFixedRateAgainstEmbeddedBroker(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        // In-memory registry: no network, schemas are registered on first use
+        config.put("schema.registry.url", "mock://loadgen");
+        config.put("auto.register.schemas", true);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+
+        LoadGenProperties props = new LoadGenProperties(true, 200, 64, 10, Duration.ofSeconds(2), 2, 50);
+        LoadReport report = new LoadGenerator(template, TOPIC, props).run();
+
+        assertEquals(0, report.failed());
+        assertEquals(report.sent(), report.acked());
+        assertTrue(report.acked() > 300, "expected roughly 400 messages, got " + report.acked());
+        assertEquals(report.acked(), report.latencyMicros().getTotalCount());
+    }
+}
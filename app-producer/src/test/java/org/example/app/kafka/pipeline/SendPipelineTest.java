@@ -0,0 +1,147 @@
+package org.example.app.kafka.pipeline;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.avro.Greeting;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SendPipelineTest {
+
+    private static final String TOPIC = "pipeline-test";
+
+    // Acknowledged only when the test calls completeNext/errorNext, like a stalled broker. KafkaTemplate closes its
+    // producer after each send, which the factory's shared MockProducer has to survive.
+    private final MockProducer<String, Object> producer =
+            new MockProducer<>(false, new StringSerializer(), (topic, value) -> new byte[0]) {
+                @Override
+                public void close(Duration timeout) {
+                }
+            };
+    private final List<BatchResult> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void blocksWhileTheWindowIsFullAndReportsEachBatchOnce() throws Exception {
+        SendPipeline pipeline = pipeline(4, 3);
+        CompletableFuture<CompletableFuture<PipelineResult>> sending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.send(greetingStream(10), greeting -> "key-" + greeting.getTimestamp());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        awaitSent(4);
+        Thread.sleep(100);
+        assertEquals(4, producer.history().size(), "no send beyond the window while nothing is acknowledged");
+        assertEquals(4, pipeline.inFlight());
+        assertFalse(sending.isDone());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < 4 && System.nanoTime() < deadline) {
+            if (!producer.completeNext()) {
+                Thread.sleep(1);
+            }
+        }
+        PipelineResult result = sending.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+
+        assertEquals(10, result.acked());
+        assertEquals(0, result.failed());
+        assertEquals(4, result.batches());
+        assertEquals(List.of(3, 3, 3, 1), batches.stream().map(BatchResult::records).toList());
+        assertEquals(0, pipeline.inFlight());
+        assertEquals("key-3", producer.history().get(3).key());
+        assertNotNull(producer.history().get(0).headers().lastHeader("ce-id"));
+    }
+
+    @Test
+    void countsFailuresPerBatch() throws Exception {
+        SendPipeline pipeline = pipeline(10, 2);
+        CompletableFuture<PipelineResult> sent = pipeline.send(greetings(4), greeting -> null);
+        assertFalse(sent.isDone());
+
+        producer.errorNext(new IllegalStateException("broker said no"));
+        while (producer.completeNext()) {
+            // acknowledge the rest
+        }
+        PipelineResult result = sent.get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, result.sent());
+        assertEquals(3, result.acked());
+        assertEquals(1, result.failed());
+        BatchResult first = batches.get(0);
+        assertEquals(1, first.failed());
+        assertEquals("broker said no", first.firstFailure().getCause().getMessage());
+        assertTrue(batches.get(1).succeeded());
+        assertNull(batches.get(1).firstFailure());
+    }
+
+    @Test
+    void sendsSingleRecordsWithinTheWindowWithoutBatches() throws Exception {
+        SendPipeline pipeline = pipeline(1, 3);
+        CompletableFuture<?> first = pipeline.send(greetings(1).get(0), "key-0");
+        assertEquals(1, pipeline.inFlight());
+
+        CompletableFuture<CompletableFuture<?>> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.send(greetings(1).get(0), null);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(second.isDone(), "blocked while the window is full");
+
+        producer.completeNext();
+        first.get(5, TimeUnit.SECONDS);
+        awaitSent(2);
+        producer.errorNext(new IllegalStateException("broker said no"));
+        assertTrue(second.get(5, TimeUnit.SECONDS).isCompletedExceptionally());
+
+        assertEquals(0, pipeline.inFlight());
+        assertEquals("key-0", producer.history().get(0).key());
+        assertNotNull(producer.history().get(1).headers().lastHeader("ce-id"));
+        assertTrue(batches.isEmpty());
+    }
+
+    private SendPipeline pipeline(int maxInFlight, int batchSize) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        SendPipeline pipeline = new SendPipeline(template, TOPIC,
+                new SendPipelineProperties(maxInFlight, batchSize, SendPipelineProperties.Mode.DEFAULT, "tx-"));
+        pipeline.onBatch(batches::add);
+        return pipeline;
+    }
+
+    private void awaitSent(int records) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.history().size() < records && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static Stream<Greeting> greetingStream(int count) {
+        return IntStream.range(0, count).mapToObj(i -> Greeting.newBuilder()
+                .setMessage("hello " + i)
+                .setTimestamp(i)
+                .build());
+    }
+
+    private static List<Greeting> greetings(int count) {
+        return greetingStream(count).toList();
+    }
+}
@@ -16,8 +16,15 @@ dependencies {
     implementation("io.confluent:kafka-schema-registry-client:8.0.0")
     implementation("org.apache.avro:avro:1.12.0")
     implementation("io.confluent:kafka-avro-serializer:8.0.0")
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    // Shared registry client with background OAuth token refresh (auto-configured from app.schema-registry.*)
+    implementation(project(":avro-serde"))
+    // Topic provisioning through AdminClient, configured from spring.kafka.*
+    implementation("org.springframework.kafka:spring-kafka")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    // MockAdminClient
+    testImplementation("org.apache.kafka:kafka-clients::test")
 }
 
 tasks.test {
@@ -0,0 +1,169 @@
+package org.example.migrator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Checks new schemas against their subject's earlier versions locally with Avro's {@link SchemaCompatibility},
+ * following the registry's compatibility levels. Earlier versions are the registry's versions (when a catalog was
+ * prefetched; only the latest one unless the level is transitive) followed by the new files of the same subject that
+ * sort before the candidate. Files already registered count as earlier versions only while no registry versions are
+ * known, i.e. in the offline pass. Subjects are checked in parallel on virtual threads.
+ */
+@Component
+public class CompatibilityChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompatibilityChecker.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public enum Level {
+        NONE, BACKWARD, BACKWARD_TRANSITIVE, FORWARD, FORWARD_TRANSITIVE, FULL, FULL_TRANSITIVE;
+
+        boolean transitive() {
+            return name().endsWith("_TRANSITIVE");
+        }
+
+        boolean backward() {
+            return this == BACKWARD || this == BACKWARD_TRANSITIVE || this == FULL || this == FULL_TRANSITIVE;
+        }
+
+        boolean forward() {
+            return this == FORWARD || this == FORWARD_TRANSITIVE || this == FULL || this == FULL_TRANSITIVE;
+        }
+    }
+
+    public record Incompatibility(String type, String location, String message) { }
+
+    /**
+     * @param against    the earlier version: a file name, or "registry v{version} (id {id})"
+     * @param direction  BACKWARD (new schema reads data written with the earlier one) or FORWARD (the reverse)
+     */
+    public record Result(String topic, String subject, String source, String against, String direction,
+                         boolean compatible, List<Incompatibility> incompatibilities) { }
+
+    public record Report(String level, boolean compatible, int checked, List<Result> results) {
+        public List<Result> failures() {
+            return results.stream().filter(r -> !r.compatible()).toList();
+        }
+    }
+
+    private record Prior(String label, Schema schema) { }
+
+    @Value("${schema.compatibility.level:BACKWARD}")
+    private Level level;
+
+    @Value("${schema.compatibility.report:}")
+    private String reportPath;
+
+    /**
+     * Whether candidates are checked against every earlier version, so the catalog must index them all.
+     */
+    public boolean needsFullHistory() {
+        return level.transitive();
+    }
+
+    /**
+     * @param registered tasks already known to be registered; they are history, not candidates
+     */
+    public Report check(List<SchemaTask> tasks, SubjectCatalog catalog, Predicate<SchemaTask> registered) {
+        if (level == Level.NONE) {
+            return new Report(level.name(), true, 0, List.of());
+        }
+        Map<String, List<SchemaTask>> bySubject = new TreeMap<>();
+        for (SchemaTask task : tasks) {
+            bySubject.computeIfAbsent(task.subject(), s -> new ArrayList<>()).add(task);
+        }
+        Queue<Result> results = new ConcurrentLinkedQueue<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, List<SchemaTask>> chain : bySubject.entrySet()) {
+                executor.submit(() -> checkSubject(chain.getKey(), chain.getValue(), catalog, registered, results));
+            }
+        }
+        List<Result> sorted = results.stream()
+                .sorted(Comparator.comparing(Result::subject)
+                        .thenComparing(Result::source, RegistrationEngine::compareNatural)
+                        .thenComparing(Result::against)
+                        .thenComparing(Result::direction))
+                .toList();
+        Report report = new Report(level.name(), sorted.stream().allMatch(Result::compatible), sorted.size(), sorted);
+        report.failures().forEach(r -> logger.error("[{}] '{}' is not {} compatible with {} for subject={}: {}",
+                r.topic(), r.source(), r.direction(), r.against(), r.subject(), r.incompatibilities()));
+        return report;
+    }
+
+    private void checkSubject(String subject, List<SchemaTask> chain, SubjectCatalog catalog,
+                              Predicate<SchemaTask> registered, Queue<Result> results) {
+        chain.sort(Comparator.comparing(SchemaTask::source, RegistrationEngine::compareNatural));
+        List<Prior> history = new ArrayList<>();
+        List<SubjectCatalog.Version> versions = catalog.versions(subject);
+        versions.forEach(v -> history.add(new Prior("registry v" + v.version() + " (id " + v.id() + ")", v.schema())));
+
+        for (SchemaTask task : chain) {
+            // Already in the registry: its indexed versions stand for it
+            if (catalog.lookup(subject, task.fingerprint()) != null) {
+                continue;
+            }
+            if (registered.test(task)) {
+                // Known only from the manifest. Once the registry's versions are known they take its place: it may be
+                // older than the registry's latest, so it must not be checked against after it
+                if (versions.isEmpty()) {
+                    history.add(new Prior(task.source(), task.schema()));
+                }
+                continue;
+            }
+            List<Prior> against = level.transitive() || history.isEmpty()
+                    ? history
+                    : List.of(history.get(history.size() - 1));
+            for (Prior prior : against) {
+                if (level.backward()) {
+                    results.add(result(task, prior, "BACKWARD", task.schema(), prior.schema()));
+                }
+                if (level.forward()) {
+                    results.add(result(task, prior, "FORWARD", prior.schema(), task.schema()));
+                }
+            }
+            history.add(new Prior(task.source(), task.schema()));
+        }
+    }
+
+    private Result result(SchemaTask task, Prior prior, String direction, Schema reader, Schema writer) {
+        SchemaCompatibility.SchemaCompatibilityResult result =
+                SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getResult();
+        List<Incompatibility> incompatibilities = result.getIncompatibilities().stream()
+                .map(i -> new Incompatibility(i.getType().name(), i.getLocation(), i.getMessage()))
+                .toList();
+        return new Result(task.topic(), task.subject(), task.source(), prior.label(), direction,
+                result.getCompatibility() == SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE, incompatibilities);
+    }
+
+    public void writeReport(Report report) throws IOException {
+        if (reportPath == null || reportPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(reportPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        MAPPER.writeValue(path.toFile(), report);
+        logger.info("Wrote compatibility report to '{}'", path);
+    }
+}
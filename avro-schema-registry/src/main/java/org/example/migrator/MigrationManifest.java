@@ -0,0 +1,130 @@
+package org.example.migrator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local record of what has already been registered: subject -> schema fingerprint -> schema id.
+ * <p>
+ * Schemas found here are skipped without contacting the registry. The manifest is bound to the registry URL and
+ * group it was produced against; a manifest written for another registry is ignored. It is saved by writing a
+ * temporary file next to the target and atomically moving it into place, so an interrupted run never leaves a
+ * truncated manifest behind.
+ */
+@Component
+public class MigrationManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationManifest.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${schema.migration.manifest:}")
+    private String manifestPath;
+
+    @Value("${schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${schema.registry.group}")
+    private String registryGroup;
+
+    private final Map<String, Map<String, Integer>> subjects = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public boolean isEnabled() {
+        return manifestPath != null && !manifestPath.isBlank();
+    }
+
+    public void load() throws IOException {
+        subjects.clear();
+        dirty = false;
+        if (!isEnabled()) {
+            return;
+        }
+        Path path = Paths.get(manifestPath);
+        if (!Files.exists(path)) {
+            logger.info("No migration manifest at '{}'; all schemas will be checked against the registry", path.toAbsolutePath());
+            return;
+        }
+        ManifestFile file = MAPPER.readValue(path.toFile(), ManifestFile.class);
+        if (!Objects.equals(file.registryUrl(), schemaRegistryUrl) || !Objects.equals(file.group(), registryGroup)) {
+            logger.warn("Migration manifest '{}' was written for {} (group {}); ignoring it", path.toAbsolutePath(), file.registryUrl(), file.group());
+            dirty = true;
+            return;
+        }
+        if (file.subjects() != null) {
+            file.subjects().forEach((subject, ids) -> subjects.put(subject, new ConcurrentHashMap<>(ids)));
+        }
+        logger.info("Loaded migration manifest '{}' with {} subject(s)", path.toAbsolutePath(), subjects.size());
+    }
+
+    public Integer lookup(String subject, String fingerprint) {
+        Map<String, Integer> ids = subjects.get(subject);
+        return ids != null ? ids.get(fingerprint) : null;
+    }
+
+    public void put(String subject, String fingerprint, int id) {
+        Integer previous = subjects.computeIfAbsent(subject, s -> new ConcurrentHashMap<>()).put(fingerprint, id);
+        if (previous == null || previous != id) {
+            dirty = true;
+        }
+    }
+
+    public void remove(String subject, String fingerprint) {
+        Map<String, Integer> ids = subjects.get(subject);
+        if (ids != null && ids.remove(fingerprint) != null) {
+            dirty = true;
+            if (ids.isEmpty()) {
+                subjects.remove(subject);
+            }
+        }
+    }
+
+    public Set<String> subjects() {
+        return Set.copyOf(subjects.keySet());
+    }
+
+    public Map<String, Integer> entries(String subject) {
+        return Map.copyOf(subjects.getOrDefault(subject, Map.of()));
+    }
+
+    public void save() throws IOException {
+        if (!isEnabled() || !dirty) {
+            return;
+        }
+        Path path = Paths.get(manifestPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Map<String, Map<String, Integer>> sorted = new TreeMap<>();
+        subjects.forEach((subject, ids) -> sorted.put(subject, new TreeMap<>(ids)));
+
+        Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            MAPPER.writeValue(tmp.toFile(), new ManifestFile(schemaRegistryUrl, registryGroup, sorted));
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        dirty = false;
+        logger.info("Saved migration manifest '{}' with {} subject(s)", path, sorted.size());
+    }
+
+    record ManifestFile(String registryUrl, String group, Map<String, Map<String, Integer>> subjects) { }
+}
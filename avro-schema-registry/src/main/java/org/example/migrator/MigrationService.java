@@ -1,8 +1,9 @@
 package org.example.migrator;
 
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import org.apache.avro.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,12 +12,14 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 @Service
@@ -29,38 +32,50 @@ public class MigrationService {
     private static final String STRATEGY_TOPIC_RECORD_NAME = "TopicRecordNameStrategy";
     private static final String STRATEGY_RECORD_NAME = "RecordNameStrategy";
 
-    @Value("${schema.registry.url}")
-    private String schemaRegistryUrl;
-
-    @Value("${schema.registry.group}")
-    private String registryGroup;
-
-    @Value("${schema.registry.bearer.issuer-endpoint-url}")
-    private String issuerEndpointUrl;
-
-    @Value("${schema.registry.bearer.client-id}")
-    private String clientId;
-
-    @Value("${schema.registry.bearer.client-secret}")
-    private String clientSecret;
-
-    @Value("${schema.registry.bearer.scope:}")
-    private String scope;
-
     @Value("${schema.subject.strategy:TopicRecordNameStrategy}")
     private String subjectStrategy;
 
     private final TopicsConfig topicsConfig;
+    private final RegistrationEngine registrationEngine;
+    private final MigrationManifest manifest;
+    private final SchemaGraphLoader schemaGraphLoader;
+    private final CompatibilityChecker compatibilityChecker;
+    private final SchemaRegistryClient client;
 
-    public MigrationService(TopicsConfig topicsConfig) {
+    /**
+     * @param client the shared registry client auto-configured by avro-serde (app.schema-registry.*)
+     */
+    public MigrationService(TopicsConfig topicsConfig,
+                            RegistrationEngine registrationEngine,
+                            MigrationManifest manifest,
+                            SchemaGraphLoader schemaGraphLoader,
+                            CompatibilityChecker compatibilityChecker,
+                            SchemaRegistryClient client) {
         this.topicsConfig = topicsConfig;
+        this.registrationEngine = registrationEngine;
+        this.manifest = manifest;
+        this.schemaGraphLoader = schemaGraphLoader;
+        this.compatibilityChecker = compatibilityChecker;
+        this.client = client;
     }
 
     public void registerSchema() throws Exception {
-        SchemaRegistryClient client = createSchemaRegistryClient();
+        registerSchema(false);
+    }
+
+    /**
+     * @param verify reconcile the local manifest against the registry before registering, so entries that no longer
+     *               match the registry (deleted subjects, re-created schemas) are re-sent instead of skipped
+     */
+    public void registerSchema(boolean verify) throws Exception {
         // 1) If YAML mapping exists, honor it
         if (topicsConfig != null && topicsConfig.topics() != null && !topicsConfig.topics().isEmpty()) {
-            registerFromMappings(client, topicsConfig);
+            manifest.load();
+            try {
+                registerFromMappings(client, topicsConfig, verify, task -> true);
+            } finally {
+                manifest.save();
+            }
             return;
         }
 
@@ -68,7 +83,101 @@ public class MigrationService {
         logger.error("No topics configured. Provide schema.topics mapping in kafka-topic-config.yml (imported via spring.config.import).");
     }
 
-    private void registerFromMappings(SchemaRegistryClient client, TopicsConfig mappings) throws Exception {
+    /**
+     * Re-registers only the given files (topic -> file names), keeping the registry client, the parse cache and the
+     * manifest loaded by {@link #registerSchema(boolean)} warm. Unchanged files are still read so that changed files
+     * can resolve the named types they reference; they come out of the parse cache.
+     */
+    public void registerChanged(Map<String, Set<String>> changedFilesByTopic) throws Exception {
+        try {
+            registerFromMappings(client, topicsConfig, false,
+                    task -> changedFilesByTopic.getOrDefault(task.topic(), Set.of()).contains(task.source()));
+        } finally {
+            manifest.save();
+        }
+    }
+
+    private void registerFromMappings(SchemaRegistryClient client,
+                                      TopicsConfig mappings,
+                                      boolean verify,
+                                      Predicate<SchemaTask> selected) throws Exception {
+        MigrationSummary summary = new MigrationSummary();
+        List<SchemaTask> tasks = loadFromMappings(mappings, summary).stream().filter(selected).toList();
+        Predicate<SchemaTask> unchanged = t -> manifest.lookup(t.subject(), t.fingerprint()) != null;
+
+        // Offline pass: local files against each other, before any registry call
+        ensureCompatible(compatibilityChecker.check(tasks, SubjectCatalog.empty(), unchanged));
+
+        // Only schemas the manifest does not know about need the registry (plus every version of its subjects for
+        // --verify, and of the candidates' subjects when compatibility is transitive)
+        List<SchemaTask> candidates = tasks.stream().filter(unchanged.negate()).toList();
+        Set<String> fullHistory = new HashSet<>();
+        if (verify) {
+            fullHistory.addAll(manifest.subjects());
+        }
+        if (compatibilityChecker.needsFullHistory()) {
+            candidates.forEach(t -> fullHistory.add(t.subject()));
+        }
+        boolean prefetch = !candidates.isEmpty() || !fullHistory.isEmpty();
+        SubjectCatalog catalog = prefetch
+                ? SubjectCatalog.prefetch(client, candidates, fullHistory, task -> lookUp(client, task),
+                        registrationEngine.parallelism())
+                : SubjectCatalog.empty();
+        if (verify) {
+            verifyManifest(catalog);
+        }
+        if (prefetch) {
+            // Against the registry's existing versions, still before anything is registered
+            ensureCompatible(compatibilityChecker.check(tasks, catalog, unchanged));
+        }
+
+        registrationEngine.run(tasks, task -> registerOne(client, catalog, task), summary);
+        summary.log();
+    }
+
+    private void ensureCompatible(CompatibilityChecker.Report report) throws IOException {
+        compatibilityChecker.writeReport(report);
+        if (!report.compatible()) {
+            throw new IllegalStateException(report.failures().size() + " incompatible schema change(s) under "
+                    + report.level() + " compatibility; nothing was registered");
+        }
+    }
+
+    /**
+     * Compares every manifest entry with the prefetched registry catalog.
+     */
+    private void verifyManifest(SubjectCatalog catalog) {
+        if (!manifest.isEnabled()) {
+            logger.warn("--verify requested but no manifest is configured (schema.migration.manifest); nothing to verify");
+            return;
+        }
+        int verified = 0;
+        int drifted = 0;
+        for (String subject : manifest.subjects()) {
+            Map<String, Integer> registered = catalog.ids(subject);
+            for (Map.Entry<String, Integer> entry : manifest.entries(subject).entrySet()) {
+                Integer actual = registered.get(entry.getKey());
+                if (entry.getValue().equals(actual)) {
+                    verified++;
+                    continue;
+                }
+                drifted++;
+                if (actual == null) {
+                    logger.warn("Manifest drift: subject={} fingerprint={} (id={}) is not in the registry; it will be re-registered",
+                            subject, entry.getKey(), entry.getValue());
+                    manifest.remove(subject, entry.getKey());
+                } else {
+                    logger.warn("Manifest drift: subject={} fingerprint={} has id={} in the registry, manifest had id={}",
+                            subject, entry.getKey(), actual, entry.getValue());
+                    manifest.put(subject, entry.getKey(), actual);
+                }
+            }
+        }
+        logger.info("Manifest verification: {} entr(ies) match the registry, {} drifted", verified, drifted);
+    }
+
+    private List<SchemaTask> loadFromMappings(TopicsConfig mappings, MigrationSummary summary) throws Exception {
+        List<SchemaGraphLoader.SchemaSource> sources = new ArrayList<>();
         for (TopicsConfig.Topic t : mappings.topics()) {
             if (t.name() == null || t.name().isBlank() || t.directory() == null || t.directory().isBlank()) {
                 logger.warn("Skipping invalid topic mapping entry: name='{}', directory='{}'", t.name(), t.directory());
@@ -86,7 +195,7 @@ public class MigrationService {
                     logger.warn("[{}] No AVSC resources found for pattern '{}'. Skipping.", topicName, pattern);
                     continue;
                 }
-                registerSchemas(client, topicName, Arrays.asList(resources), src -> readResource((Resource) src));
+                sources.addAll(readSources(topicName, Arrays.asList(resources), src -> readResource((Resource) src), summary));
             } else {
                 Path topicDir = Paths.get(dir);
                 if (!Files.exists(topicDir)) {
@@ -102,27 +211,11 @@ public class MigrationService {
                         logger.warn("[{}] No AVSC files found in '{}'. Skipping.", topicName, topicDir.toAbsolutePath());
                         continue;
                     }
-                    registerSchemas(client, topicName, avscFiles, p -> Files.readString((Path) p, StandardCharsets.UTF_8));
+                    sources.addAll(readSources(topicName, avscFiles, p -> Files.readString((Path) p, StandardCharsets.UTF_8), summary));
                 }
             }
         }
-    }
-
-    private SchemaRegistryClient createSchemaRegistryClient() {
-        Map<String, Object> configs = new HashMap<>();
-        configs.put("bearer.auth.issuer.endpoint.url", issuerEndpointUrl);
-        configs.put("bearer.auth.client.id", clientId);
-        configs.put("bearer.auth.client.secret", clientSecret);
-        if (scope != null && !scope.isBlank()) {
-            configs.put("bearer.auth-scope", scope);
-        }
-
-        return new CachedSchemaRegistryClient(
-                schemaRegistryUrl,
-                16,
-                configs,
-                Map.of("X-Registry-GroupId", registryGroup)
-        );
+        return schemaGraphLoader.load(sources, this::computeSubject, summary);
     }
 
     private String readResource(Resource resource) throws Exception {
@@ -131,29 +224,81 @@ public class MigrationService {
         }
     }
 
-    private void registerSchemas(SchemaRegistryClient client,
-                                 String topicName,
-                                 List<?> sources,
-                                 ContentReader reader) throws Exception {
+    private List<SchemaGraphLoader.SchemaSource> readSources(String topicName,
+                                                             List<?> sources,
+                                                             ContentReader reader,
+                                                             MigrationSummary summary) {
+        List<SchemaGraphLoader.SchemaSource> read = new ArrayList<>();
         for (Object src : sources) {
             String name = getSourceName(src);
+            long start = System.nanoTime();
             try {
-                String avsc = reader.read(src);
-                Schema avroSchema = new Schema.Parser().parse(avsc);
-                AvroSchema confluentAvroSchema = new AvroSchema(avroSchema);
-                String subject = computeSubject(topicName, avroSchema);
-
-                try {
-                    int id = client.getId(subject, confluentAvroSchema);
-                    logger.info("[{}] Schema already exists for subject={}, id={}", topicName, subject, id);
-                } catch (Exception e) {
-                    int id = client.register(subject, confluentAvroSchema);
-                    logger.info("[{}] Schema registered for subject={}, id={}", topicName, subject, id);
-                }
+                read.add(new SchemaGraphLoader.SchemaSource(topicName, name, reader.read(src)));
             } catch (Exception e) {
-                logger.error("[{}] Failed to register schema '{}': {}", topicName, name, e.getMessage());
+                logger.error("[{}] Failed to read schema '{}': {}", topicName, name, e.getMessage());
+                summary.record(topicName, RegistrationOutcome.FAILED, start, System.nanoTime());
             }
         }
+        return read;
+    }
+
+    private RegistrationOutcome registerOne(SchemaRegistryClient client, SubjectCatalog catalog, SchemaTask task) throws Exception {
+        Integer known = manifest.lookup(task.subject(), task.fingerprint());
+        if (known != null) {
+            logger.debug("[{}] Unchanged since last run: subject={}, id={}", task.topic(), task.subject(), known);
+            return RegistrationOutcome.UNCHANGED;
+        }
+        Integer existing = catalog.lookup(task.subject(), task.fingerprint());
+        if (existing != null) {
+            logger.info("[{}] Schema already exists for subject={}, id={}", task.topic(), task.subject(), existing);
+            manifest.put(task.subject(), task.fingerprint(), existing);
+            return RegistrationOutcome.EXISTING;
+        }
+        int id = client.register(task.subject(), toAvroSchema(client, task));
+        logger.info("[{}] Schema registered for subject={}, id={}", task.topic(), task.subject(), id);
+        catalog.add(task.subject(), task.fingerprint(), id);
+        manifest.put(task.subject(), task.fingerprint(), id);
+        return RegistrationOutcome.REGISTERED;
+    }
+
+    /**
+     * Id of the task's schema in its subject, or null if the subject (or a subject it references) does not have it.
+     */
+    private Integer lookUp(SchemaRegistryClient client, SchemaTask task) throws Exception {
+        try {
+            return client.getId(task.subject(), toAvroSchema(client, task));
+        } catch (RestClientException e) {
+            if (e.getStatus() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Schemas that use types from other files are sent with their raw text plus registry references
+     * (type name -> subject/version of the defining file); the referenced texts are supplied in dependency order so
+     * the client can resolve them locally.
+     */
+    private AvroSchema toAvroSchema(SchemaRegistryClient client, SchemaTask task) throws Exception {
+        if (task.dependencies().isEmpty()) {
+            return new AvroSchema(task.schema());
+        }
+        List<SchemaReference> references = new ArrayList<>();
+        for (SchemaTask.Dependency dep : task.dependencies()) {
+            int version = client.getVersion(dep.task().subject(), toAvroSchema(client, dep.task()));
+            references.add(new SchemaReference(dep.name(), dep.task().subject(), version));
+        }
+        Map<String, String> resolved = new LinkedHashMap<>();
+        collectResolved(task, resolved);
+        return new AvroSchema(task.content(), references, resolved, null);
+    }
+
+    private void collectResolved(SchemaTask task, Map<String, String> resolved) {
+        for (SchemaTask.Dependency dep : task.dependencies()) {
+            collectResolved(dep.task(), resolved);
+            resolved.putIfAbsent(dep.name(), dep.task().content());
+        }
     }
 
     private String computeSubject(String topicName, Schema avroSchema) {
@@ -0,0 +1,61 @@
+package org.example.migrator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe collector of per-topic registration outcomes and wall-clock timings.
+ */
+public class MigrationSummary {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationSummary.class);
+
+    private final Map<String, TopicStats> topics = new TreeMap<>();
+
+    public synchronized void record(SchemaTask task, RegistrationOutcome outcome, long startNanos, long endNanos) {
+        record(task.topic(), outcome, startNanos, endNanos);
+    }
+
+    public synchronized void record(String topic, RegistrationOutcome outcome, long startNanos, long endNanos) {
+        topics.computeIfAbsent(topic, t -> new TopicStats()).add(outcome, startNanos, endNanos);
+    }
+
+    public synchronized int count(RegistrationOutcome outcome) {
+        return topics.values().stream().mapToInt(s -> s.counts.getOrDefault(outcome, 0)).sum();
+    }
+
+    public synchronized boolean hasFailures() {
+        return count(RegistrationOutcome.FAILED) > 0 || count(RegistrationOutcome.SKIPPED) > 0;
+    }
+
+    public synchronized void log() {
+        if (topics.isEmpty()) {
+            logger.info("Migration summary: no schemas processed");
+            return;
+        }
+        logger.info("Migration summary ({} topic(s)):", topics.size());
+        topics.forEach((topic, stats) -> logger.info("[{}] {} schema(s) in {} ms: {}",
+                topic, stats.total(), TimeUnit.NANOSECONDS.toMillis(stats.lastEnd - stats.firstStart), stats.counts));
+    }
+
+    private static final class TopicStats {
+        private final Map<RegistrationOutcome, Integer> counts = new EnumMap<>(RegistrationOutcome.class);
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd = Long.MIN_VALUE;
+
+        void add(RegistrationOutcome outcome, long startNanos, long endNanos) {
+            counts.merge(outcome, 1, Integer::sum);
+            firstStart = Math.min(firstStart, startNanos);
+            lastEnd = Math.max(lastEnd, endNanos);
+        }
+
+        int total() {
+            return counts.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
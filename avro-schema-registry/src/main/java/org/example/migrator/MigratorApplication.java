@@ -1,6 +1,7 @@
 package org.example.migrator;
 
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -16,10 +17,21 @@ public class MigratorApplication {
         System.exit(exit);
     }
 
+    // Topics are provisioned first (when schema.provisioning.enabled), so they exist before producers start
+    // --verify: reconcile the local manifest against the registry before registering
+    // --watch: after the initial run, keep watching the schema directories and register changed files
     @Bean
-    CommandLineRunner run(MigrationService migrationService) {
+    ApplicationRunner run(ObjectProvider<TopicProvisioner> topicProvisioner, MigrationService migrationService,
+                          SchemaWatcher schemaWatcher) {
         return args -> {
-            migrationService.registerSchema();
+            TopicProvisioner provisioner = topicProvisioner.getIfAvailable();
+            if (provisioner != null) {
+                provisioner.provision();
+            }
+            migrationService.registerSchema(args.containsOption("verify"));
+            if (args.containsOption("watch")) {
+                schemaWatcher.watch();
+            }
         };
     }
 }
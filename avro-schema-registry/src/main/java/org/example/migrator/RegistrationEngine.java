@@ -0,0 +1,188 @@
+package org.example.migrator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fans schema registration out over virtual threads.
+ * <p>
+ * Tasks are grouped by subject; each subject is registered by one virtual thread in natural file-name order
+ * (greeting.avsc before greeting2.avsc before greeting10.avsc) so versions land deterministically, while different
+ * subjects proceed concurrently. A task whose schema references types from other files waits until those files are
+ * registered. A semaphore caps the number of registry calls in flight at any time.
+ */
+@Component
+public class RegistrationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationEngine.class);
+
+    @Value("${schema.migration.parallelism:8}")
+    private int parallelism;
+
+    public int parallelism() {
+        return Math.max(1, parallelism);
+    }
+
+    public void run(List<SchemaTask> tasks, RegistrationStep step, MigrationSummary summary) {
+        Map<String, List<SchemaTask>> bySubject = new TreeMap<>();
+        for (SchemaTask task : tasks) {
+            bySubject.computeIfAbsent(task.subject(), s -> new ArrayList<>()).add(task);
+        }
+        bySubject.values().forEach(chain -> chain.sort(Comparator.comparing(SchemaTask::source, RegistrationEngine::compareNatural)));
+        Map<SchemaTask, CompletableFuture<Boolean>> done = new HashMap<>();
+        bySubject.values().forEach(chain -> chain.forEach(task -> done.put(task, new CompletableFuture<>())));
+        rejectUnorderable(bySubject, done, summary);
+
+        Semaphore permits = new Semaphore(parallelism());
+        logger.info("Registering {} schema(s) across {} subject(s) with parallelism={}", tasks.size(), bySubject.size(), parallelism());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<SchemaTask> chain : bySubject.values()) {
+                executor.submit(() -> runChain(chain, step, permits, done, summary));
+            }
+        }
+    }
+
+    private void runChain(List<SchemaTask> chain,
+                          RegistrationStep step,
+                          Semaphore permits,
+                          Map<SchemaTask, CompletableFuture<Boolean>> done,
+                          MigrationSummary summary) {
+        boolean failed = false;
+        for (SchemaTask task : chain) {
+            // Referenced schemas must be registered first; dependencies outside this run are assumed registered
+            boolean dependenciesOk = task.dependencies().stream()
+                    .map(dep -> done.get(dep.task()))
+                    .allMatch(future -> future == null || future.join());
+            long start = System.nanoTime();
+            if (failed || !dependenciesOk) {
+                // A later version must not be registered ahead of one that failed
+                logger.warn("[{}] Skipping '{}' for subject={} because an earlier version or a referenced schema failed",
+                        task.topic(), task.source(), task.subject());
+                summary.record(task, RegistrationOutcome.SKIPPED, start, start);
+                failed = true;
+                done.get(task).complete(false);
+                continue;
+            }
+            permits.acquireUninterruptibly();
+            try {
+                summary.record(task, step.register(task), start, System.nanoTime());
+                done.get(task).complete(true);
+            } catch (Exception e) {
+                failed = true;
+                logger.error("[{}] Failed to register schema '{}': {}", task.topic(), task.source(), e.getMessage());
+                summary.record(task, RegistrationOutcome.FAILED, start, System.nanoTime());
+                done.get(task).complete(false);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Version order within a subject and reference order across subjects can contradict each other (v1 of A needs B,
+     * while B needs v2 of A). Such tasks can never run, so they are failed up front instead of deadlocking.
+     */
+    private void rejectUnorderable(Map<String, List<SchemaTask>> bySubject,
+                                   Map<SchemaTask, CompletableFuture<Boolean>> done,
+                                   MigrationSummary summary) {
+        Map<SchemaTask, Integer> inDegree = new HashMap<>();
+        Map<SchemaTask, List<SchemaTask>> next = new HashMap<>();
+        for (List<SchemaTask> chain : bySubject.values()) {
+            SchemaTask previous = null;
+            for (SchemaTask task : chain) {
+                inDegree.putIfAbsent(task, 0);
+                List<SchemaTask> before = new ArrayList<>();
+                if (previous != null) {
+                    before.add(previous);
+                }
+                task.dependencies().forEach(dep -> before.add(dep.task()));
+                for (SchemaTask b : before) {
+                    next.computeIfAbsent(b, k -> new ArrayList<>()).add(task);
+                    inDegree.merge(task, 1, Integer::sum);
+                }
+                previous = task;
+            }
+        }
+        // Edges from tasks outside this run never get released; drop them
+        next.keySet().stream().filter(t -> !inDegree.containsKey(t)).toList()
+                .forEach(outside -> next.remove(outside).forEach(t -> inDegree.merge(t, -1, Integer::sum)));
+
+        Deque<SchemaTask> ready = new ArrayDeque<>();
+        inDegree.forEach((task, degree) -> {
+            if (degree == 0) {
+                ready.add(task);
+            }
+        });
+        while (!ready.isEmpty()) {
+            for (SchemaTask t : next.getOrDefault(ready.poll(), List.of())) {
+                if (inDegree.merge(t, -1, Integer::sum) == 0) {
+                    ready.add(t);
+                }
+            }
+        }
+        for (List<SchemaTask> chain : bySubject.values()) {
+            chain.removeIf(task -> {
+                if (inDegree.get(task) == 0) {
+                    return false;
+                }
+                logger.error("[{}] Cannot register '{}': its subject's version order conflicts with its references",
+                        task.topic(), task.source());
+                long now = System.nanoTime();
+                summary.record(task, RegistrationOutcome.FAILED, now, now);
+                done.get(task).complete(false);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Compares names chunk by chunk, treating digit runs as numbers so that "v2" sorts before "v10".
+     */
+    static int compareNatural(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int si = i;
+                int sj = j;
+                while (i < a.length() && Character.isDigit(a.charAt(i))) i++;
+                while (j < b.length() && Character.isDigit(b.charAt(j))) j++;
+                String na = a.substring(si, i).replaceFirst("^0+(?=.)", "");
+                String nb = b.substring(sj, j).replaceFirst("^0+(?=.)", "");
+                int cmp = na.length() != nb.length() ? Integer.compare(na.length(), nb.length()) : na.compareTo(nb);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            } else {
+                if (ca != cb) {
+                    return Character.compare(ca, cb);
+                }
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    @FunctionalInterface
+    public interface RegistrationStep {
+        RegistrationOutcome register(SchemaTask task) throws Exception;
+    }
+}
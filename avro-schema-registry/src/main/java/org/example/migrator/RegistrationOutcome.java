@@ -0,0 +1,9 @@
+package org.example.migrator;
+
+public enum RegistrationOutcome {
+    REGISTERED,
+    EXISTING,
+    UNCHANGED,
+    FAILED,
+    SKIPPED
+}
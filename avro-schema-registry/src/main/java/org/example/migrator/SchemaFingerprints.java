@@ -0,0 +1,22 @@
+package org.example.migrator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+import java.nio.charset.StandardCharsets;
+
+final class SchemaFingerprints {
+
+    private SchemaFingerprints() {
+    }
+
+    /**
+     * 64-bit Rabin fingerprint of the full normalized schema JSON (as Avro writes it back out, which is also the
+     * registry client's canonical string). Formatting and attribute order do not change the value; defaults, docs,
+     * aliases, logical types and other properties do, since they matter for compatibility and generated code.
+     * Parsing Canonical Form would drop them and report such edits as unchanged.
+     */
+    static String of(Schema schema) {
+        return String.format("%016x", SchemaNormalization.fingerprint64(schema.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.migrator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Loads .avsc files as a graph of named types.
+ * <p>
+ * Each file is scanned for the named types it defines and the ones it only references. References are resolved to
+ * the file defining them (same topic first), files are parsed in topological order with their dependencies' types
+ * pre-registered in the parser, and the result carries the dependency edges so the referenced schemas can be
+ * registered first and attached as registry references.
+ * <p>
+ * Parsed schemas are cached by a hash of the file content plus the content of its dependencies, so the same file
+ * mapped to several topics (or seen again on a later run in the same JVM) is parsed only once. Each load drops the
+ * entries of content no longer among its sources, so the caches follow the files on disk in --watch mode.
+ */
+@Component
+public class SchemaGraphLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaGraphLoader.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> PRIMITIVES = Set.of(
+            "null", "boolean", "int", "long", "float", "double", "bytes", "string");
+    private static final Set<String> NAMED = Set.of("record", "error", "enum", "fixed");
+
+    private final Map<String, Scan> scanCache = new ConcurrentHashMap<>();
+    private final Map<String, Parsed> parseCache = new ConcurrentHashMap<>();
+
+    public record SchemaSource(String topic, String name, String content) { }
+
+    private record Scan(Set<String> defined, Set<String> referenced) { }
+
+    private record Parsed(Schema schema, String fingerprint, List<Schema> types) { }
+
+    private static final class Node {
+        final SchemaSource source;
+        final String contentHash;
+        final Scan scan;
+        final Map<String, Node> dependencies = new LinkedHashMap<>();
+        String cacheKey;
+        Parsed parsed;
+        SchemaTask task;
+
+        Node(SchemaSource source, String contentHash, Scan scan) {
+            this.source = source;
+            this.contentHash = contentHash;
+            this.scan = scan;
+        }
+    }
+
+    /**
+     * @param subjectOf maps (topic, parsed schema) to the subject the schema registers under
+     * @return tasks in dependency order; files that fail to load are recorded in the summary and left out
+     */
+    public List<SchemaTask> load(List<SchemaSource> sources,
+                                 BiFunction<String, Schema, String> subjectOf,
+                                 MigrationSummary summary) {
+        List<Node> nodes = new ArrayList<>();
+        for (SchemaSource source : sources) {
+            String hash = sha256(source.content());
+            try {
+                Scan scan = scanCache.computeIfAbsent(hash, h -> scan(source.content()));
+                nodes.add(new Node(source, hash, scan));
+            } catch (RuntimeException e) {
+                fail(summary, source, "not valid schema JSON: " + e.getMessage());
+            }
+        }
+
+        Map<String, List<Node>> providers = new HashMap<>();
+        for (Node node : nodes) {
+            node.scan.defined().forEach(name -> providers.computeIfAbsent(name, n -> new ArrayList<>()).add(node));
+        }
+        Set<Node> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Node node : nodes) {
+            for (String name : node.scan.referenced()) {
+                Node provider = resolve(node, name, providers);
+                if (provider == null) {
+                    fail(summary, node.source, "unresolved named type '" + name + "'");
+                    failed.add(node);
+                } else {
+                    node.dependencies.put(name, provider);
+                }
+            }
+        }
+
+        int parsedCount = 0;
+        int cachedCount = 0;
+        List<SchemaTask> tasks = new ArrayList<>();
+        for (Node node : topologicalOrder(nodes, failed, summary)) {
+            if (failed.contains(node)) {
+                continue;
+            }
+            if (node.dependencies.values().stream().anyMatch(failed::contains)) {
+                fail(summary, node.source, "a referenced schema failed to load");
+                failed.add(node);
+                continue;
+            }
+            StringBuilder key = new StringBuilder(node.contentHash);
+            node.dependencies.values().stream().map(d -> d.cacheKey).sorted().forEach(k -> key.append('|').append(k));
+            node.cacheKey = node.dependencies.isEmpty() ? node.contentHash : sha256(key.toString());
+            try {
+                Parsed cached = parseCache.get(node.cacheKey);
+                if (cached != null) {
+                    cachedCount++;
+                } else {
+                    cached = parse(node);
+                    parseCache.put(node.cacheKey, cached);
+                    parsedCount++;
+                }
+                node.parsed = cached;
+            } catch (RuntimeException e) {
+                fail(summary, node.source, e.getMessage());
+                failed.add(node);
+                continue;
+            }
+            List<SchemaTask.Dependency> dependencies = new ArrayList<>();
+            node.dependencies.forEach((name, dep) -> dependencies.add(new SchemaTask.Dependency(name, dep.task)));
+            node.task = new SchemaTask(node.source.topic(), node.source.name(),
+                    subjectOf.apply(node.source.topic(), node.parsed.schema()), node.parsed.schema(),
+                    node.source.content(), node.parsed.fingerprint(), List.copyOf(dependencies));
+            tasks.add(node.task);
+        }
+        // Every load sees all configured files, so older content is not coming back
+        Set<String> hashes = new HashSet<>();
+        Set<String> cacheKeys = new HashSet<>();
+        for (Node node : nodes) {
+            hashes.add(node.contentHash);
+            if (node.cacheKey != null) {
+                cacheKeys.add(node.cacheKey);
+            }
+        }
+        scanCache.keySet().retainAll(hashes);
+        parseCache.keySet().retainAll(cacheKeys);
+        logger.info("Loaded {} schema file(s): {} parsed, {} from parse cache", tasks.size(), parsedCount, cachedCount);
+        return tasks;
+    }
+
+    private Parsed parse(Node node) {
+        Schema.Parser parser = new Schema.Parser();
+        Map<String, Schema> known = new LinkedHashMap<>();
+        node.dependencies.values().forEach(dep -> dep.parsed.types().forEach(t -> known.putIfAbsent(t.getFullName(), t)));
+        parser.addTypes(known.values());
+        Schema schema = parser.parse(node.source.content());
+        return new Parsed(schema, SchemaFingerprints.of(schema), List.copyOf(parser.getTypes().values()));
+    }
+
+    /**
+     * Prefers a provider from the same topic; among several, the last one in natural file-name order (the newest
+     * version) wins.
+     */
+    private Node resolve(Node node, String name, Map<String, List<Node>> providers) {
+        List<Node> found = providers.get(name);
+        if (found == null) {
+            // Unqualified names may also resolve to a type in the null namespace
+            found = providers.getOrDefault(name.substring(name.lastIndexOf('.') + 1), List.of());
+        }
+        List<Node> candidates = found.stream()
+                .filter(c -> c != node)
+                .toList();
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        List<Node> sameTopic = candidates.stream().filter(c -> c.source.topic().equals(node.source.topic())).toList();
+        List<Node> pool = sameTopic.isEmpty() ? candidates : sameTopic;
+        return pool.stream()
+                .max(Comparator.comparing((Node c) -> c.source.name(), RegistrationEngine::compareNatural))
+                .orElseThrow();
+    }
+
+    private List<Node> topologicalOrder(List<Node> nodes, Set<Node> failed, MigrationSummary summary) {
+        Map<Node, Integer> inDegree = new IdentityHashMap<>();
+        Map<Node, List<Node>> dependents = new IdentityHashMap<>();
+        for (Node node : nodes) {
+            inDegree.putIfAbsent(node, 0);
+            for (Node dep : new LinkedHashSet<>(node.dependencies.values())) {
+                inDegree.merge(node, 1, Integer::sum);
+                dependents.computeIfAbsent(dep, d -> new ArrayList<>()).add(node);
+            }
+        }
+        Deque<Node> ready = new ArrayDeque<>();
+        nodes.stream().filter(n -> inDegree.get(n) == 0).forEach(ready::add);
+        List<Node> ordered = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            ordered.add(node);
+            for (Node dependent : dependents.getOrDefault(node, List.of())) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        for (Node node : nodes) {
+            if (inDegree.get(node) > 0) {
+                fail(summary, node.source, "cyclic named-type references");
+                failed.add(node);
+            }
+        }
+        return ordered;
+    }
+
+    private static Scan scan(String content) {
+        try {
+            Set<String> defined = new LinkedHashSet<>();
+            Set<String> referenced = new LinkedHashSet<>();
+            scan(MAPPER.readTree(content), "", defined, referenced);
+            referenced.removeAll(defined);
+            // An unqualified reference may also match a type defined in the null namespace
+            referenced.removeIf(name -> defined.contains(name.substring(name.lastIndexOf('.') + 1)));
+            return new Scan(Set.copyOf(defined), Set.copyOf(referenced));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static void scan(JsonNode node, String namespace, Set<String> defined, Set<String> referenced) {
+        if (node == null) {
+            return;
+        }
+        if (node.isTextual()) {
+            String name = node.asText();
+            if (!PRIMITIVES.contains(name)) {
+                referenced.add(qualify(name, namespace));
+            }
+        } else if (node.isArray()) {
+            node.forEach(element -> scan(element, namespace, defined, referenced));
+        } else if (node.isObject()) {
+            JsonNode type = node.get("type");
+            String typeName = type != null && type.isTextual() ? type.asText() : null;
+            if (typeName != null && NAMED.contains(typeName) && node.hasNonNull("name")) {
+                String name = node.get("name").asText();
+                String ns = node.hasNonNull("namespace") ? node.get("namespace").asText() : namespace;
+                String fullName = qualify(name, ns);
+                defined.add(fullName);
+                String innerNamespace = fullName.contains(".") ? fullName.substring(0, fullName.lastIndexOf('.')) : "";
+                JsonNode fields = node.get("fields");
+                if (fields != null) {
+                    fields.forEach(field -> scan(field.get("type"), innerNamespace, defined, referenced));
+                }
+            } else if ("array".equals(typeName)) {
+                scan(node.get("items"), namespace, defined, referenced);
+            } else if ("map".equals(typeName)) {
+                scan(node.get("values"), namespace, defined, referenced);
+            } else if (typeName == null || !PRIMITIVES.contains(typeName)) {
+                scan(type, namespace, defined, referenced);
+            }
+        }
+    }
+
+    private static String qualify(String name, String namespace) {
+        return name.contains(".") || namespace == null || namespace.isEmpty() ? name : namespace + "." + name;
+    }
+
+    private static void fail(MigrationSummary summary, SchemaSource source, String reason) {
+        logger.error("[{}] Failed to load schema '{}': {}", source.topic(), source.name(), reason);
+        long now = System.nanoTime();
+        summary.record(source.topic(), RegistrationOutcome.FAILED, now, now);
+    }
+
+    static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
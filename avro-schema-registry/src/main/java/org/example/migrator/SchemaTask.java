@@ -0,0 +1,77 @@
+package org.example.migrator;
+
+import org.apache.avro.Schema;
+
+import java.util.List;
+
+/**
+ * A single parsed .avsc file bound to the topic it was mapped to and the subject it registers under.
+ * <p>
+ * The fingerprint is the hex Rabin fingerprint of the full normalized schema. Dependencies are the files that define
+ * named types this file uses but does not define itself; they are registered first and referenced by subject/version.
+ * <p>
+ * Tasks are graph nodes, so they compare by identity rather than by their (deep) schemas.
+ */
+public final class SchemaTask {
+
+    private final String topic;
+    private final String source;
+    private final String subject;
+    private final Schema schema;
+    private final String content;
+    private final String fingerprint;
+    private final List<Dependency> dependencies;
+
+    public SchemaTask(String topic, String source, String subject, Schema schema, String content, String fingerprint,
+                      List<Dependency> dependencies) {
+        this.topic = topic;
+        this.source = source;
+        this.subject = subject;
+        this.schema = schema;
+        this.content = content;
+        this.fingerprint = fingerprint;
+        this.dependencies = dependencies;
+    }
+
+    public SchemaTask(String topic, String source, String subject, Schema schema, String content, String fingerprint) {
+        this(topic, source, subject, schema, content, fingerprint, List.of());
+    }
+
+    /**
+     * @param name full name of the referenced named type, used as the registry reference name
+     */
+    public record Dependency(String name, SchemaTask task) { }
+
+    public String topic() {
+        return topic;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    public Schema schema() {
+        return schema;
+    }
+
+    public String content() {
+        return content;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public List<Dependency> dependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaTask[topic=" + topic + ", source=" + source + ", subject=" + subject + "]";
+    }
+}
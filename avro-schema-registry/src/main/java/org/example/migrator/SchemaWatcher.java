@@ -0,0 +1,146 @@
+package org.example.migrator;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Long-running watch mode: watches the filesystem directories of the topic mappings and re-registers changed .avsc
+ * files. Bursts of events (editors writing temp files, a git checkout touching many files) are coalesced until the
+ * directories have been quiet for the debounce interval. Classpath directories cannot change at runtime and are
+ * not watched.
+ */
+@Component
+public class SchemaWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaWatcher.class);
+
+    @Value("${schema.watch.debounce:500ms}")
+    private Duration debounce;
+
+    private final TopicsConfig topicsConfig;
+    private final MigrationService migrationService;
+    private volatile WatchService watchService;
+
+    public SchemaWatcher(TopicsConfig topicsConfig, MigrationService migrationService) {
+        this.topicsConfig = topicsConfig;
+        this.migrationService = migrationService;
+    }
+
+    /**
+     * Blocks until the application shuts down.
+     */
+    public void watch() throws IOException {
+        Map<Path, List<String>> topicsByDir = watchedDirectories();
+        if (topicsByDir.isEmpty()) {
+            logger.warn("Watch mode: no filesystem directories in the topic mappings; nothing to watch");
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        Map<WatchKey, Path> dirs = new HashMap<>();
+        for (Path dir : topicsByDir.keySet()) {
+            dirs.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+            logger.info("Watching '{}' for topic(s) {}", dir, topicsByDir.get(dir));
+        }
+
+        try {
+            while (true) {
+                Map<String, Set<String>> changed = new TreeMap<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collect(key, dirs.get(key), topicsByDir, changed);
+                    key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (changed.isEmpty()) {
+                    continue;
+                }
+                logger.info("Detected changes: {}", changed);
+                try {
+                    migrationService.registerChanged(changed);
+                } catch (Exception e) {
+                    logger.error("Failed to register changed schemas: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private void collect(WatchKey key, Path dir, Map<Path, List<String>> topicsByDir, Map<String, Set<String>> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; treat every file in the directory as changed
+                try (Stream<Path> files = Files.list(dir)) {
+                    files.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".avsc"))
+                            .forEach(name -> topicsByDir.get(dir).forEach(t -> changed.computeIfAbsent(t, k -> new TreeSet<>()).add(name)));
+                } catch (IOException e) {
+                    logger.warn("Could not rescan '{}' after overflow: {}", dir, e.getMessage());
+                }
+                continue;
+            }
+            String name = ((Path) event.context()).getFileName().toString();
+            if (!name.endsWith(".avsc")) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // Registry versions are never deleted by the migrator
+                logger.info("'{}' was deleted from '{}'; registered versions are kept", name, dir);
+                continue;
+            }
+            topicsByDir.get(dir).forEach(t -> changed.computeIfAbsent(t, k -> new TreeSet<>()).add(name));
+        }
+        key.reset();
+    }
+
+    private Map<Path, List<String>> watchedDirectories() {
+        Map<Path, List<String>> topicsByDir = new HashMap<>();
+        if (topicsConfig == null || topicsConfig.topics() == null) {
+            return topicsByDir;
+        }
+        for (TopicsConfig.Topic t : topicsConfig.topics()) {
+            if (t.name() == null || t.name().isBlank() || t.directory() == null || t.directory().isBlank()
+                    || t.directory().trim().startsWith("classpath:")) {
+                continue;
+            }
+            Path dir = Paths.get(t.directory().trim()).toAbsolutePath().normalize();
+            if (Files.isDirectory(dir)) {
+                topicsByDir.computeIfAbsent(dir, d -> new ArrayList<>()).add(t.name().trim());
+            }
+        }
+        return topicsByDir;
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        WatchService ws = watchService;
+        if (ws != null) {
+            ws.close();
+        }
+    }
+}
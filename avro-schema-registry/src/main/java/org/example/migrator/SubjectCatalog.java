@@ -0,0 +1,187 @@
+package org.example.migrator;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * In-memory snapshot of the registry's subjects for the configured group, indexed by schema fingerprint.
+ * <p>
+ * Built once per run: one call lists the group's subjects, then the subjects we care about are queried concurrently.
+ * Subjects that need their full history (transitive compatibility, manifest verification) have every version
+ * indexed; for the others only the latest version is fetched, as the baseline of the compatibility check, and each
+ * new or changed schema is looked up in its subject with one call instead of walking every version. Existence checks
+ * are answered from the index instead of probing the registry per file, and any error while prefetching (auth,
+ * timeouts) fails the run rather than being mistaken for "not registered".
+ */
+public class SubjectCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubjectCatalog.class);
+
+    private final Map<String, Map<String, Integer>> idsByFingerprint = new ConcurrentHashMap<>();
+    private final Map<String, List<Version>> versions = new ConcurrentHashMap<>();
+
+    public record Version(int version, int id, String fingerprint, Schema schema) { }
+
+    /**
+     * Finds the id of a schema among its subject's versions (the registry's lookup call).
+     */
+    @FunctionalInterface
+    public interface SchemaLookup {
+        /**
+         * @return the schema's id, or null if no version of the subject has that schema
+         */
+        Integer id(SchemaTask task) throws Exception;
+    }
+
+    public static SubjectCatalog empty() {
+        return new SubjectCatalog();
+    }
+
+    /**
+     * @param candidates  schemas that may have to be registered; each is looked up in its subject unless the subject's
+     *                    full history is indexed anyway
+     * @param fullHistory subjects whose every version should be indexed
+     */
+    public static SubjectCatalog prefetch(SchemaRegistryClient client, Collection<SchemaTask> candidates,
+                                          Collection<String> fullHistory, SchemaLookup lookup,
+                                          int parallelism) throws Exception {
+        long start = System.nanoTime();
+        SubjectCatalog catalog = new SubjectCatalog();
+        Map<String, List<SchemaTask>> bySubject = new HashMap<>();
+        candidates.forEach(task -> bySubject.computeIfAbsent(task.subject(), s -> new ArrayList<>()).add(task));
+        fullHistory.forEach(subject -> bySubject.computeIfAbsent(subject, s -> new ArrayList<>()));
+        Set<String> subjects = new HashSet<>(client.getAllSubjects());
+        subjects.retainAll(bySubject.keySet());
+
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String subject : subjects) {
+                futures.add(executor.submit(() -> {
+                    call(permits, () -> catalog.index(client, subject, fullHistory.contains(subject)));
+                    return null;
+                }));
+            }
+            // The latest versions first: a candidate that is the latest version needs no lookup
+            await(futures);
+            futures.clear();
+            for (String subject : subjects) {
+                if (fullHistory.contains(subject)) {
+                    continue;
+                }
+                for (SchemaTask task : bySubject.get(subject)) {
+                    if (catalog.lookup(subject, task.fingerprint()) != null) {
+                        continue;
+                    }
+                    futures.add(executor.submit(() -> {
+                        Integer id = call(permits, () -> lookup.id(task));
+                        if (id != null) {
+                            catalog.add(subject, task.fingerprint(), id);
+                        }
+                        return null;
+                    }));
+                }
+            }
+        }
+        await(futures);
+        logger.info("Prefetched {} subject(s) with {} version(s) and {} lookup(s) from the registry in {} ms",
+                subjects.size(), catalog.versions.values().stream().mapToInt(List::size).sum(), futures.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return catalog;
+    }
+
+    private interface RegistryCall<T> {
+        T call() throws Exception;
+    }
+
+    private static <T> T call(Semaphore permits, RegistryCall<T> call) throws Exception {
+        permits.acquire();
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void await(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+
+    private Void index(SchemaRegistryClient client, String subject, boolean allVersions) throws Exception {
+        List<Version> indexed = new ArrayList<>();
+        List<SchemaMetadata> fetched = new ArrayList<>();
+        if (allVersions) {
+            for (Integer version : client.getAllVersions(subject)) {
+                fetched.add(client.getSchemaMetadata(subject, version));
+            }
+        } else {
+            fetched.add(client.getLatestSchemaMetadata(subject));
+        }
+        for (SchemaMetadata metadata : fetched) {
+            Schema schema;
+            try {
+                schema = metadata.getReferences() == null || metadata.getReferences().isEmpty()
+                        ? new Schema.Parser().parse(metadata.getSchema())
+                        // Let the client resolve referenced subjects/versions into a complete schema
+                        : ((AvroSchema) client.getSchemaBySubjectAndId(subject, metadata.getId())).rawSchema();
+            } catch (SchemaParseException | ClassCastException e) {
+                // Registering it again is idempotent, so an unindexed version only costs a round trip
+                logger.warn("Could not index subject={} version={}: {}", subject, metadata.getVersion(), e.getMessage());
+                continue;
+            }
+            indexed.add(new Version(metadata.getVersion(), metadata.getId(), SchemaFingerprints.of(schema), schema));
+        }
+        versions.put(subject, List.copyOf(indexed));
+        Map<String, Integer> ids = idsByFingerprint.computeIfAbsent(subject, s -> new ConcurrentHashMap<>());
+        indexed.forEach(v -> ids.put(v.fingerprint(), v.id()));
+        return null;
+    }
+
+    public Integer lookup(String subject, String fingerprint) {
+        Map<String, Integer> ids = idsByFingerprint.get(subject);
+        return ids != null ? ids.get(fingerprint) : null;
+    }
+
+    /**
+     * Records a schema registered during this run so later tasks for the same subject see it.
+     */
+    public void add(String subject, String fingerprint, int id) {
+        idsByFingerprint.computeIfAbsent(subject, s -> new ConcurrentHashMap<>()).put(fingerprint, id);
+    }
+
+    /**
+     * The subject's indexed versions, oldest first: all of them for full-history subjects, else only the latest.
+     */
+    public List<Version> versions(String subject) {
+        return versions.getOrDefault(subject, List.of());
+    }
+
+    public Map<String, Integer> ids(String subject) {
+        return Map.copyOf(idsByFingerprint.getOrDefault(subject, Map.of()));
+    }
+}
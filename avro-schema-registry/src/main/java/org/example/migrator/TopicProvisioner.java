@@ -0,0 +1,257 @@
+package org.example.migrator;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and grows the topics listed in {@link TopicsConfig} and applies their settings, idempotently: a second run
+ * against an up-to-date cluster changes nothing.
+ * <p>
+ * The cluster is read with one describeCluster, one describeTopics and one describeConfigs call; the changes are then
+ * sent as at most one createTopics, one createPartitions and one incrementalAlterConfigs call for all topics.
+ * Settings that would hurt throughput or availability are logged as warnings (and returned in the {@link Plan}), but
+ * still applied.
+ */
+@Component
+@ConditionalOnProperty(prefix = "schema.provisioning", name = "enabled", havingValue = "true")
+public class TopicProvisioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicProvisioner.class);
+    // Below this, segments roll often: more files, index handles and log-cleaner passes per byte
+    private static final long SMALL_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Current state of an existing topic.
+     */
+    record TopicState(int partitions, int replicationFactor, Map<String, String> configs) { }
+
+    /**
+     * Changes for one run. Empty collections mean the cluster already matches the config.
+     */
+    public record Plan(List<NewTopic> create, Map<String, NewPartitions> grow,
+                       Map<ConfigResource, Collection<AlterConfigOp>> alter, List<String> warnings) {
+        public boolean empty() {
+            return create.isEmpty() && grow.isEmpty() && alter.isEmpty();
+        }
+    }
+
+    private final TopicsConfig topicsConfig;
+    private final KafkaAdmin kafkaAdmin;
+    private final Duration timeout;
+
+    public TopicProvisioner(TopicsConfig topicsConfig, KafkaAdmin kafkaAdmin,
+                            @Value("${schema.provisioning.timeout:30s}") Duration timeout) {
+        this.topicsConfig = topicsConfig;
+        this.kafkaAdmin = kafkaAdmin;
+        this.timeout = timeout;
+    }
+
+    public Plan provision() throws Exception {
+        List<TopicsConfig.Topic> topics = topicsConfig.topics() != null ? topicsConfig.topics() : List.of();
+        if (topics.isEmpty()) {
+            return new Plan(List.of(), Map.of(), Map.of(), List.of());
+        }
+        try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+            return provision(admin, topics);
+        }
+    }
+
+    Plan provision(Admin admin, List<TopicsConfig.Topic> topics) throws Exception {
+        long start = System.nanoTime();
+        int brokers = get(admin.describeCluster().nodes()).size();
+        Map<String, TopicState> existing = describe(admin, topics.stream().map(TopicsConfig.Topic::name).toList());
+        Plan plan = plan(topics, existing, brokers);
+        plan.warnings().forEach(warning -> logger.warn("Topic provisioning: {}", warning));
+
+        if (!plan.create().isEmpty()) {
+            for (Map.Entry<String, KafkaFuture<Void>> created : admin.createTopics(plan.create()).values().entrySet()) {
+                try {
+                    get(created.getValue());
+                    logger.info("Created topic {}", created.getKey());
+                } catch (TopicExistsException e) {
+                    // Created concurrently (e.g. by an app's auto-creation); grown and configured on the next run
+                    logger.info("Topic {} was created concurrently, run again to apply its settings", created.getKey());
+                }
+            }
+        }
+        if (!plan.grow().isEmpty()) {
+            get(admin.createPartitions(plan.grow()).all());
+            plan.grow().forEach((topic, partitions) ->
+                    logger.info("Grew topic {} to {} partitions", topic, partitions.totalCount()));
+        }
+        if (!plan.alter().isEmpty()) {
+            get(admin.incrementalAlterConfigs(plan.alter()).all());
+            plan.alter().forEach((resource, ops) ->
+                    logger.info("Updated topic {}: {}", resource.name(), ops.stream()
+                            .map(op -> op.configEntry().name() + "=" + op.configEntry().value()).toList()));
+        }
+        logger.info("Provisioned {} topic(s) in {} ms: {} created, {} grown, {} reconfigured, {} warning(s)",
+                topics.size(), (System.nanoTime() - start) / 1_000_000, plan.create().size(), plan.grow().size(),
+                plan.alter().size(), plan.warnings().size());
+        return plan;
+    }
+
+    private Map<String, TopicState> describe(Admin admin, List<String> names) throws Exception {
+        Map<String, TopicDescription> descriptions = new LinkedHashMap<>();
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> entry
+                : admin.describeTopics(names).topicNameValues().entrySet()) {
+            try {
+                descriptions.put(entry.getKey(), get(entry.getValue()));
+            } catch (UnknownTopicOrPartitionException e) {
+                // created below
+            }
+        }
+        Map<String, TopicState> states = new LinkedHashMap<>();
+        if (descriptions.isEmpty()) {
+            return states;
+        }
+        List<ConfigResource> resources = descriptions.keySet().stream()
+                .map(name -> new ConfigResource(ConfigResource.Type.TOPIC, name))
+                .toList();
+        Map<ConfigResource, Config> configs = get(admin.describeConfigs(resources).all());
+        descriptions.forEach((name, description) -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            Config config = configs.get(new ConfigResource(ConfigResource.Type.TOPIC, name));
+            if (config != null) {
+                config.entries().forEach(e -> values.put(e.name(), e.value()));
+            }
+            int replicas = description.partitions().isEmpty() ? 0 : description.partitions().get(0).replicas().size();
+            states.put(name, new TopicState(description.partitions().size(), replicas, values));
+        });
+        return states;
+    }
+
+    /**
+     * Diffs the configured topics against the cluster.
+     *
+     * @param existing state of the topics that exist, by name
+     * @param brokers  brokers in the cluster
+     */
+    static Plan plan(List<TopicsConfig.Topic> topics, Map<String, TopicState> existing, int brokers) {
+        List<NewTopic> create = new ArrayList<>();
+        Map<String, NewPartitions> grow = new LinkedHashMap<>();
+        Map<ConfigResource, Collection<AlterConfigOp>> alter = new LinkedHashMap<>();
+        List<String> warnings = new ArrayList<>();
+        for (TopicsConfig.Topic topic : topics) {
+            Map<String, String> desired = desiredConfigs(topic);
+            TopicState state = existing.get(topic.name());
+            Integer partitions = topic.partitions();
+            Integer replicationFactor = topic.replicationFactor() != null ? (int) topic.replicationFactor() : null;
+            if (state == null) {
+                create.add(new NewTopic(topic.name(), Optional.ofNullable(partitions),
+                        Optional.ofNullable(topic.replicationFactor())).configs(desired));
+            } else {
+                if (partitions != null && partitions > state.partitions()) {
+                    grow.put(topic.name(), NewPartitions.increaseTo(partitions));
+                } else if (partitions != null && partitions < state.partitions()) {
+                    warnings.add(topic.name() + " has " + state.partitions() + " partitions, config asks for "
+                            + partitions + "; partitions cannot be removed");
+                }
+                partitions = Math.max(state.partitions(), partitions != null ? partitions : 0);
+                if (replicationFactor != null && replicationFactor != state.replicationFactor()) {
+                    warnings.add(topic.name() + " has replication factor " + state.replicationFactor()
+                            + ", config asks for " + replicationFactor + "; change it with a partition reassignment");
+                }
+                replicationFactor = state.replicationFactor();
+                List<AlterConfigOp> ops = new ArrayList<>();
+                desired.forEach((key, value) -> {
+                    if (!value.equals(state.configs().get(key))) {
+                        ops.add(new AlterConfigOp(new ConfigEntry(key, value), AlterConfigOp.OpType.SET));
+                    }
+                });
+                if (!ops.isEmpty()) {
+                    alter.put(new ConfigResource(ConfigResource.Type.TOPIC, topic.name()), ops);
+                }
+            }
+            warnings.addAll(throughputWarnings(topic, partitions, replicationFactor, brokers));
+        }
+        return new Plan(List.copyOf(create), grow, alter, List.copyOf(warnings));
+    }
+
+    private static List<String> throughputWarnings(TopicsConfig.Topic topic, Integer partitions,
+                                                   Integer replicationFactor, int brokers) {
+        List<String> warnings = new ArrayList<>();
+        String name = topic.name();
+        if (partitions != null && topic.consumerConcurrency() != null && partitions < topic.consumerConcurrency()) {
+            warnings.add(name + " has " + partitions + " partition(s) for " + topic.consumerConcurrency()
+                    + " consumer threads; " + (topic.consumerConcurrency() - partitions) + " of them will sit idle");
+        }
+        if (replicationFactor != null && brokers > 0 && replicationFactor > brokers) {
+            warnings.add(name + " asks for replication factor " + replicationFactor + " on " + brokers
+                    + " broker(s); creating it will fail");
+        }
+        Integer minIsr = topic.minInsyncReplicas();
+        if (minIsr != null && replicationFactor != null) {
+            if (minIsr > replicationFactor) {
+                warnings.add(name + " has min.insync.replicas " + minIsr + " above replication factor "
+                        + replicationFactor + "; every acks=all write will fail");
+            } else if (minIsr.equals(replicationFactor) && replicationFactor > 1) {
+                warnings.add(name + " has min.insync.replicas equal to its replication factor (" + minIsr
+                        + "); acks=all writes stop whenever one replica is down");
+            }
+        }
+        String compression = topic.compressionType();
+        if (compression != null && !compression.equals("producer")) {
+            warnings.add(name + " has compression.type " + compression + "; brokers recompress every batch that"
+                    + " producers did not already compress with " + compression);
+        }
+        if (topic.segmentBytes() != null && topic.segmentBytes().toBytes() < SMALL_SEGMENT_BYTES) {
+            warnings.add(name + " has segment.bytes " + topic.segmentBytes().toBytes() + "; small segments roll"
+                    + " often and add file handles and log-cleaner work");
+        }
+        return warnings;
+    }
+
+    private static Map<String, String> desiredConfigs(TopicsConfig.Topic topic) {
+        Map<String, String> configs = new LinkedHashMap<>();
+        if (topic.compressionType() != null) {
+            configs.put(TopicConfig.COMPRESSION_TYPE_CONFIG, topic.compressionType());
+        }
+        if (topic.segmentBytes() != null) {
+            configs.put(TopicConfig.SEGMENT_BYTES_CONFIG, Long.toString(topic.segmentBytes().toBytes()));
+        }
+        if (topic.retention() != null) {
+            configs.put(TopicConfig.RETENTION_MS_CONFIG,
+                    Long.toString(topic.retention().isNegative() ? -1 : topic.retention().toMillis()));
+        }
+        if (topic.minInsyncReplicas() != null) {
+            configs.put(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, Objects.toString(topic.minInsyncReplicas()));
+        }
+        return configs;
+    }
+
+    private <T> T get(KafkaFuture<T> future) throws Exception {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
@@ -1,10 +1,28 @@
 package org.example.migrator;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "schema")
 public record TopicsConfig(List<Topic> topics) {
-    public record Topic(String name, String directory) { }
+
+    /**
+     * A topic, the schema directory registered for it and the settings {@link TopicProvisioner} applies. Unset
+     * settings are left to the broker defaults (or the topic's current value).
+     *
+     * @param partitions          partition count; existing topics are grown to it, never shrunk
+     * @param replicationFactor   replicas per partition, used when the topic is created
+     * @param compressionType     topic compression.type, e.g. producer, lz4, zstd
+     * @param segmentBytes        segment.bytes
+     * @param retention           retention.ms; negative for unlimited
+     * @param minInsyncReplicas   min.insync.replicas
+     * @param consumerConcurrency consumer threads expected across the group; only used to warn about idle consumers
+     */
+    public record Topic(String name, String directory,
+                        Integer partitions, Short replicationFactor, String compressionType,
+                        DataSize segmentBytes, Duration retention, Integer minInsyncReplicas,
+                        Integer consumerConcurrency) { }
 }
@@ -0,0 +1,97 @@
+package org.example.migrator;
+
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompatibilityCheckerTest {
+
+    private static final String V1 = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message","type":"string"},{"name":"timestamp","type":"long"}]}""";
+    private static final String V2_WITH_DEFAULT = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message2","type":["null","string"],"default":null},
+                       {"name":"message","type":"string"},{"name":"timestamp","type":"long"}]}""";
+    private static final String V2_WITHOUT_DEFAULT = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message2","type":"string"},
+                       {"name":"message","type":"string"},{"name":"timestamp","type":"long"}]}""";
+
+    @Test
+    void acceptsAddedFieldWithDefaultUnderBackward() {
+        CompatibilityChecker.Report report = checker("BACKWARD").check(
+                List.of(task("greeting2.avsc", V2_WITH_DEFAULT), task("greeting.avsc", V1)),
+                SubjectCatalog.empty(), t -> false);
+
+        assertTrue(report.compatible());
+        assertEquals(1, report.checked());
+        assertEquals("greeting.avsc", report.results().get(0).against());
+    }
+
+    @Test
+    void reportsAddedFieldWithoutDefaultUnderFull() {
+        CompatibilityChecker.Report report = checker("FULL").check(
+                List.of(task("greeting.avsc", V1), task("greeting2.avsc", V2_WITHOUT_DEFAULT)),
+                SubjectCatalog.empty(), t -> false);
+
+        assertFalse(report.compatible());
+        assertEquals(2, report.checked());
+        CompatibilityChecker.Result failure = report.failures().get(0);
+        assertEquals("BACKWARD", failure.direction());
+        assertEquals("READER_FIELD_MISSING_DEFAULT_VALUE", failure.incompatibilities().get(0).type());
+    }
+
+    @Test
+    void doesNotCheckAlreadyRegisteredFiles() {
+        SchemaTask v1 = task("greeting.avsc", V1);
+        SchemaTask v2 = task("greeting2.avsc", V2_WITHOUT_DEFAULT);
+        CompatibilityChecker.Report report = checker("BACKWARD").check(List.of(v1, v2), SubjectCatalog.empty(), t -> true);
+
+        assertTrue(report.compatible());
+        assertEquals(0, report.checked());
+    }
+
+    @Test
+    void checksNewFilesAgainstTheRegistryLatestRatherThanOlderRegisteredFiles() throws Exception {
+        // Reads greeting2 data but not greeting data: message2 has no default
+        String v3 = V2_WITH_DEFAULT.replace(",\"default\":null", "");
+        SchemaTask v1 = task("greeting.avsc", V1);
+        SchemaTask v2 = task("greeting2.avsc", V2_WITH_DEFAULT);
+        SchemaTask candidate = task("greeting3.avsc", v3);
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of(v2.subject()));
+        when(client.getLatestSchemaMetadata(v2.subject())).thenReturn(new SchemaMetadata(12, 2, V2_WITH_DEFAULT));
+        SubjectCatalog catalog = SubjectCatalog.prefetch(client, List.of(candidate), List.of(), task -> null, 2);
+
+        // greeting.avsc and greeting2.avsc are in the manifest; only greeting2 is indexed as the registry's latest
+        CompatibilityChecker.Report report = checker("BACKWARD").check(List.of(v1, v2, candidate), catalog,
+                t -> t != candidate);
+
+        assertTrue(report.compatible(), report.failures().toString());
+        assertEquals(1, report.checked());
+        assertEquals("registry v2 (id 12)", report.results().get(0).against());
+    }
+
+    private static CompatibilityChecker checker(String level) {
+        CompatibilityChecker checker = new CompatibilityChecker();
+        ReflectionTestUtils.setField(checker, "level", CompatibilityChecker.Level.valueOf(level));
+        return checker;
+    }
+
+    private static SchemaTask task(String source, String avsc) {
+        Schema schema = new Schema.Parser().parse(avsc);
+        return new SchemaTask("demo-topic", source, "demo-topic-org.example.avro.Greeting", schema, avsc,
+                SchemaFingerprints.of(schema));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.migrator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationManifestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsThroughAtomicSave() throws Exception {
+        Path file = dir.resolve("nested/manifest.json");
+        MigrationManifest manifest = manifest(file, "http://sr");
+        manifest.load();
+        manifest.put("demo-topic-org.example.avro.Greeting", "00ff", 7);
+        manifest.save();
+
+        assertTrue(Files.exists(file));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+        MigrationManifest reloaded = manifest(file, "http://sr");
+        reloaded.load();
+        assertEquals(7, reloaded.lookup("demo-topic-org.example.avro.Greeting", "00ff"));
+    }
+
+    @Test
+    void ignoresManifestWrittenForAnotherRegistry() throws Exception {
+        Path file = dir.resolve("manifest.json");
+        MigrationManifest manifest = manifest(file, "http://sr-a");
+        manifest.load();
+        manifest.put("s", "01", 1);
+        manifest.save();
+
+        MigrationManifest other = manifest(file, "http://sr-b");
+        other.load();
+        assertNull(other.lookup("s", "01"));
+    }
+
+    private static MigrationManifest manifest(Path file, String url) {
+        MigrationManifest manifest = new MigrationManifest();
+        ReflectionTestUtils.setField(manifest, "manifestPath", file.toString());
+        ReflectionTestUtils.setField(manifest, "schemaRegistryUrl", url);
+        ReflectionTestUtils.setField(manifest, "registryGroup", "my-group");
+        return manifest;
+    }
+}
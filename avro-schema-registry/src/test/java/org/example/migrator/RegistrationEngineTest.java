@@ -0,0 +1,79 @@
+package org.example.migrator;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistrationEngineTest {
+
+    private static final Schema SCHEMA = Schema.create(Schema.Type.STRING);
+
+    @Test
+    void registersEachSubjectInNaturalFileOrder() {
+        RegistrationEngine engine = new RegistrationEngine();
+        ReflectionTestUtils.setField(engine, "parallelism", 4);
+        Map<String, List<String>> seen = new ConcurrentHashMap<>();
+
+        List<SchemaTask> tasks = List.of(
+                task("greeting10.avsc", "a"),
+                task("greeting2.avsc", "a"),
+                task("greeting.avsc", "a"),
+                task("other.avsc", "b"));
+        MigrationSummary summary = new MigrationSummary();
+        engine.run(tasks, task -> {
+            seen.computeIfAbsent(task.subject(), s -> new CopyOnWriteArrayList<>()).add(task.source());
+            return RegistrationOutcome.REGISTERED;
+        }, summary);
+
+        assertEquals(List.of("greeting.avsc", "greeting2.avsc", "greeting10.avsc"), seen.get("a"));
+        assertEquals(4, summary.count(RegistrationOutcome.REGISTERED));
+    }
+
+    @Test
+    void skipsLaterVersionsAfterAFailure() {
+        RegistrationEngine engine = new RegistrationEngine();
+        List<SchemaTask> tasks = List.of(
+                task("v1.avsc", "a"),
+                task("v2.avsc", "a"));
+        MigrationSummary summary = new MigrationSummary();
+        engine.run(tasks, task -> {
+            throw new IllegalStateException("boom");
+        }, summary);
+
+        assertEquals(1, summary.count(RegistrationOutcome.FAILED));
+        assertEquals(1, summary.count(RegistrationOutcome.SKIPPED));
+        assertTrue(summary.hasFailures());
+    }
+
+    @Test
+    void waitsForReferencedSchemasInOtherSubjects() {
+        RegistrationEngine engine = new RegistrationEngine();
+        ReflectionTestUtils.setField(engine, "parallelism", 4);
+        SchemaTask library = task("address.avsc", "lib");
+        SchemaTask user = new SchemaTask("t", "person.avsc", "a", SCHEMA, "", "1",
+                List.of(new SchemaTask.Dependency("org.example.Address", library)));
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        engine.run(List.of(user, library), task -> {
+            if (task == library) {
+                Thread.sleep(50);
+            }
+            order.add(task.source());
+            return RegistrationOutcome.REGISTERED;
+        }, new MigrationSummary());
+
+        assertEquals(List.of("address.avsc", "person.avsc"), order);
+    }
+
+    private static SchemaTask task(String source, String subject) {
+        return new SchemaTask("t", source, subject, SCHEMA, "", "0");
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.migrator;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SchemaFingerprintsTest {
+
+    private static final String GREETING = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message","type":"string","default":"hello"},
+                       {"name":"timestamp","type":{"type":"long","logicalType":"timestamp-millis"}}]}""";
+
+    @Test
+    void ignoresFormattingAndAttributeOrder() {
+        String reformatted = """
+                {
+                  "namespace": "org.example.avro", "name": "Greeting", "type": "record",
+                  "fields": [
+                    {"default": "hello", "type": "string", "name": "message"},
+                    {"name": "timestamp", "type": {"logicalType": "timestamp-millis", "type": "long"}}
+                  ]
+                }""";
+        assertEquals(fingerprint(GREETING), fingerprint(reformatted));
+    }
+
+    @Test
+    void changesWithDefaultsDocsAliasesAndLogicalTypes() {
+        String original = fingerprint(GREETING);
+        assertNotEquals(original, fingerprint(GREETING.replace("\"hello\"", "\"hi\"")));
+        assertNotEquals(original, fingerprint(GREETING.replace("\"name\":\"message\",",
+                "\"name\":\"message\",\"doc\":\"Greeting text\",")));
+        assertNotEquals(original, fingerprint(GREETING.replace("\"name\":\"Greeting\",",
+                "\"name\":\"Greeting\",\"aliases\":[\"Hello\"],")));
+        assertNotEquals(original, fingerprint(GREETING.replace("timestamp-millis", "timestamp-micros")));
+    }
+
+    private static String fingerprint(String schema) {
+        return SchemaFingerprints.of(new Schema.Parser().parse(schema));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.migrator;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaGraphLoaderTest {
+
+    private static final String ADDRESS = """
+            {"type":"record","name":"Address","namespace":"org.example.avro",
+             "fields":[{"name":"city","type":"string"}]}""";
+    private static final String PERSON = """
+            {"type":"record","name":"Person","namespace":"org.example.avro",
+             "fields":[{"name":"home","type":"Address"},
+                       {"name":"previous","type":{"type":"array","items":"org.example.avro.Address"}}]}""";
+
+    @Test
+    void resolvesCrossFileReferencesInDependencyOrder() {
+        SchemaGraphLoader loader = new SchemaGraphLoader();
+        List<SchemaTask> tasks = loader.load(List.of(
+                        new SchemaGraphLoader.SchemaSource("t", "person.avsc", PERSON),
+                        new SchemaGraphLoader.SchemaSource("t", "address.avsc", ADDRESS)),
+                (topic, schema) -> topic + "-" + schema.getFullName(),
+                new MigrationSummary());
+
+        assertEquals(List.of("address.avsc", "person.avsc"), tasks.stream().map(SchemaTask::source).toList());
+        SchemaTask person = tasks.get(1);
+        assertEquals(1, person.dependencies().size());
+        assertEquals("org.example.avro.Address", person.dependencies().get(0).name());
+        assertSame(tasks.get(0), person.dependencies().get(0).task());
+        assertEquals(Schema.Type.RECORD, person.schema().getField("home").schema().getType());
+    }
+
+    @Test
+    void parsesIdenticalContentOnce() {
+        SchemaGraphLoader loader = new SchemaGraphLoader();
+        MigrationSummary summary = new MigrationSummary();
+        List<SchemaTask> tasks = loader.load(List.of(
+                        new SchemaGraphLoader.SchemaSource("a", "address.avsc", ADDRESS),
+                        new SchemaGraphLoader.SchemaSource("b", "address.avsc", ADDRESS)),
+                (topic, schema) -> topic + "-" + schema.getFullName(),
+                summary);
+
+        assertEquals(2, tasks.size());
+        assertSame(tasks.get(0).schema(), tasks.get(1).schema());
+        assertTrue(!summary.hasFailures());
+    }
+
+    @Test
+    void dropsCachedEntriesOfContentNoLongerLoaded() {
+        SchemaGraphLoader loader = new SchemaGraphLoader();
+        String moved = ADDRESS.replace("city", "town");
+        Schema first = loadAddress(loader, ADDRESS);
+        assertSame(first, loadAddress(loader, ADDRESS));
+
+        loadAddress(loader, moved);
+        assertEquals(1, ((Map<?, ?>) ReflectionTestUtils.getField(loader, "scanCache")).size());
+        assertEquals(1, ((Map<?, ?>) ReflectionTestUtils.getField(loader, "parseCache")).size());
+        // The old content was dropped, so bringing it back parses it again
+        assertNotSame(first, loadAddress(loader, ADDRESS));
+    }
+
+    @Test
+    void reportsUnresolvedReferences() {
+        SchemaGraphLoader loader = new SchemaGraphLoader();
+        MigrationSummary summary = new MigrationSummary();
+        List<SchemaTask> tasks = loader.load(List.of(new SchemaGraphLoader.SchemaSource("t", "person.avsc", PERSON)),
+                (topic, schema) -> topic, summary);
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(1, summary.count(RegistrationOutcome.FAILED));
+    }
+
+    private static Schema loadAddress(SchemaGraphLoader loader, String content) {
+        List<SchemaTask> tasks = loader.load(List.of(new SchemaGraphLoader.SchemaSource("t", "address.avsc", content)),
+                (topic, schema) -> topic, new MigrationSummary());
+        return tasks.get(0).schema();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.migrator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class SchemaWatcherTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(300);
+
+    private final MigrationService migrationService = mock(MigrationService.class);
+    private final BlockingQueue<Map<String, Set<String>>> registered = new LinkedBlockingQueue<>();
+    private SchemaWatcher watcher;
+    private Thread thread;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(5_000);
+        }
+    }
+
+    @Test
+    void coalescesABurstIntoOneRegistrationOfTheChangedSchemas(@TempDir Path dir) throws Exception {
+        start(dir, "demo-topic", "other-topic");
+
+        Files.writeString(dir.resolve("001-greeting.avsc"), "{}");
+        Files.writeString(dir.resolve("002-greeting.avsc"), "{}");
+        Files.writeString(dir.resolve("notes.txt"), "not a schema");
+        assertEquals(Map.of("demo-topic", Set.of("001-greeting.avsc", "002-greeting.avsc"),
+                "other-topic", Set.of("001-greeting.avsc", "002-greeting.avsc")), next());
+        assertNull(registered.poll(DEBOUNCE.toMillis() * 3, TimeUnit.MILLISECONDS), "one call per burst");
+
+        Files.writeString(dir.resolve("002-greeting.avsc"), "{\"type\":\"string\"}");
+        assertEquals(Map.of("demo-topic", Set.of("002-greeting.avsc"), "other-topic", Set.of("002-greeting.avsc")),
+                next());
+
+        // Registered versions are never deleted, so a deletion alone registers nothing
+        Files.delete(dir.resolve("001-greeting.avsc"));
+        assertNull(registered.poll(DEBOUNCE.toMillis() * 3, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void keepsWatchingAfterARegistrationFails(@TempDir Path dir) throws Exception {
+        start(dir, "demo-topic");
+        doAnswer(invocation -> {
+            registered.add(invocation.getArgument(0));
+            throw new IllegalStateException("registry unavailable");
+        }).doAnswer(invocation -> registered.add(invocation.getArgument(0)))
+                .when(migrationService).registerChanged(anyMap());
+
+        Files.writeString(dir.resolve("001-greeting.avsc"), "{}");
+        assertEquals(Map.of("demo-topic", Set.of("001-greeting.avsc")), next());
+        Files.writeString(dir.resolve("001-greeting.avsc"), "{\"type\":\"string\"}");
+        assertEquals(Map.of("demo-topic", Set.of("001-greeting.avsc")), next());
+        assertTrue(thread.isAlive());
+    }
+
+    @Test
+    void returnsWithoutClasspathOrMissingDirectories(@TempDir Path dir) throws Exception {
+        SchemaWatcher idle = new SchemaWatcher(new TopicsConfig(List.of(
+                topic("demo-topic", "classpath:avro"), topic("other-topic", dir.resolve("missing").toString()))),
+                migrationService);
+        idle.watch();
+        verifyNoInteractions(migrationService);
+    }
+
+    private void start(Path dir, String... topics) throws Exception {
+        doAnswer(invocation -> registered.add(invocation.getArgument(0)))
+                .when(migrationService).registerChanged(anyMap());
+        watcher = new SchemaWatcher(new TopicsConfig(Arrays.stream(topics)
+                .map(t -> topic(t, dir.toString())).toList()), migrationService);
+        ReflectionTestUtils.setField(watcher, "debounce", DEBOUNCE);
+        thread = Thread.ofVirtual().start(() -> {
+            try {
+                watcher.watch();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // The directory is registered asynchronously; touch a file until the watcher reports it
+        Path probe = dir.resolve("000-probe.avsc");
+        Map<String, Set<String>> first = null;
+        for (int i = 0; i < 20 && first == null; i++) {
+            Files.writeString(probe, "{}");
+            first = registered.poll(DEBOUNCE.toMillis() * 2, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(first, "watcher never started");
+        Files.delete(probe);
+        while (registered.poll(DEBOUNCE.toMillis() * 2, TimeUnit.MILLISECONDS) != null) {
+            // drain the rest of the probe burst
+        }
+    }
+
+    private Map<String, Set<String>> next() throws InterruptedException {
+        Map<String, Set<String>> changed = registered.poll(10, TimeUnit.SECONDS);
+        assertNotNull(changed, "no registration after the change");
+        return changed;
+    }
+
+    private static TopicsConfig.Topic topic(String name, String directory) {
+        return new TopicsConfig.Topic(name, directory, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.migrator;
+
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubjectCatalogTest {
+
+    private static final String GREETING = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message","type":"string"}]}""";
+    private static final String GREETING_V2 = """
+            {"type":"record","name":"Greeting","namespace":"org.example.avro",
+             "fields":[{"name":"message","type":"string"},{"name":"message2","type":"string","default":"hello"}]}""";
+
+    @Test
+    void indexesEveryVersionOfFullHistorySubjectsOnly() throws Exception {
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of("wanted", "other"));
+        when(client.getAllVersions("wanted")).thenReturn(List.of(1));
+        when(client.getSchemaMetadata("wanted", 1)).thenReturn(new SchemaMetadata(42, 1, GREETING));
+
+        SubjectCatalog catalog = SubjectCatalog.prefetch(client, List.of(), Set.of("wanted", "missing"),
+                task -> fail("no lookups for full-history subjects"), 2);
+
+        String fingerprint = SchemaFingerprints.of(new Schema.Parser().parse(GREETING));
+        assertEquals(42, catalog.lookup("wanted", fingerprint));
+        assertNull(catalog.lookup("missing", fingerprint));
+        verify(client, never()).getAllVersions("other");
+    }
+
+    @Test
+    void fetchesTheLatestVersionAndLooksUpOtherCandidates() throws Exception {
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of("subject"));
+        when(client.getLatestSchemaMetadata("subject")).thenReturn(new SchemaMetadata(43, 2, GREETING_V2));
+        SchemaTask latest = task(GREETING_V2);
+        SchemaTask older = task(GREETING);
+        // Same as the latest version except for a default: a different schema, not an existing one
+        SchemaTask changedDefault = task(GREETING_V2.replace("\"hello\"", "\"hi\""));
+        SchemaTask elsewhere = new SchemaTask("demo-topic", "other.avsc", "missing", older.schema(),
+                older.content(), older.fingerprint());
+        List<SchemaTask> lookedUp = new CopyOnWriteArrayList<>();
+
+        SubjectCatalog catalog = SubjectCatalog.prefetch(client, List.of(latest, older, changedDefault, elsewhere),
+                Set.of(), task -> {
+                    lookedUp.add(task);
+                    return task == older ? 42 : null;
+                }, 2);
+
+        assertEquals(43, catalog.lookup("subject", latest.fingerprint()));
+        assertEquals(42, catalog.lookup("subject", older.fingerprint()));
+        assertNull(catalog.lookup("subject", changedDefault.fingerprint()));
+        assertEquals(Set.of(older, changedDefault), Set.copyOf(lookedUp));
+        assertEquals(List.of(2), catalog.versions("subject").stream().map(SubjectCatalog.Version::version).toList());
+        verify(client, never()).getAllVersions(anyString());
+        verify(client, never()).getSchemaMetadata(anyString(), anyInt());
+    }
+
+    @Test
+    void propagatesRegistryErrors() throws Exception {
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of("wanted"));
+        when(client.getAllVersions(anyString())).thenThrow(new RestClientException("Unauthorized", 401, 401));
+
+        assertThrows(RestClientException.class,
+                () -> SubjectCatalog.prefetch(client, List.of(), Set.of("wanted"), task -> null, 1));
+    }
+
+    private static SchemaTask task(String avsc) {
+        Schema schema = new Schema.Parser().parse(avsc);
+        return new SchemaTask("demo-topic", "greeting.avsc", "subject", schema, avsc, SchemaFingerprints.of(schema));
+    }
+}
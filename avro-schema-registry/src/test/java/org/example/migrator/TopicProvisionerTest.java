@@ -0,0 +1,91 @@
+package org.example.migrator;
+
+import org.apache.kafka.clients.admin.CreatePartitionsResult;
+import org.apache.kafka.clients.admin.MockAdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TopicProvisionerTest {
+
+    private final TopicProvisioner provisioner = new TopicProvisioner(new TopicsConfig(List.of()), null,
+            Duration.ofSeconds(5));
+
+    @Test
+    void createsMissingTopicsAndLeavesThemAloneOnTheNextRun() throws Exception {
+        try (MockAdminClient admin = MockAdminClient.create().numBrokers(3).build()) {
+            List<TopicsConfig.Topic> topics = List.of(topic("demo-topic", 6, 2), topic("other-topic", 3, null));
+
+            TopicProvisioner.Plan first = provisioner.provision(admin, topics);
+            assertEquals(2, first.create().size());
+            TopicDescription demo = admin.describeTopics(List.of("demo-topic")).allTopicNames().get().get("demo-topic");
+            assertEquals(6, demo.partitions().size());
+            assertEquals("zstd", admin.describeConfigs(List.of(resource("demo-topic"))).all().get()
+                    .get(resource("demo-topic")).get("compression.type").value());
+
+            assertTrue(provisioner.provision(admin, topics).empty());
+        }
+    }
+
+    @Test
+    void growsPartitionsAndUpdatesChangedSettings() throws Exception {
+        // MockAdminClient does not implement createPartitions
+        try (MockAdminClient admin = spy(MockAdminClient.create().numBrokers(3).build())) {
+            CreatePartitionsResult grown = mock(CreatePartitionsResult.class);
+            when(grown.all()).thenReturn(KafkaFuture.completedFuture(null));
+            doReturn(grown).when(admin).createPartitions(anyMap());
+            admin.createTopics(List.of(new NewTopic("demo-topic", 2, (short) 3)
+                    .configs(Map.of("compression.type", "producer")))).all().get();
+
+            TopicProvisioner.Plan plan = provisioner.provision(admin, List.of(topic("demo-topic", 6, 2)));
+            assertEquals(List.of(), plan.create());
+            assertEquals(6, plan.grow().get("demo-topic").totalCount());
+            verify(admin).createPartitions(plan.grow());
+            assertEquals("zstd", admin.describeConfigs(List.of(resource("demo-topic"))).all().get()
+                    .get(resource("demo-topic")).get("compression.type").value());
+
+            TopicProvisioner.Plan shrink = provisioner.provision(admin, List.of(topic("demo-topic", 1, null)));
+            assertTrue(shrink.empty());
+            assertTrue(shrink.warnings().stream().anyMatch(w -> w.contains("partitions cannot be removed")),
+                    shrink.warnings().toString());
+        }
+    }
+
+    @Test
+    void warnsAboutSettingsThatHurtThroughputOrAvailability() {
+        TopicsConfig.Topic topic = new TopicsConfig.Topic("demo-topic", null, 2, (short) 2, "producer",
+                DataSize.ofMegabytes(16), null, 3, 4);
+        List<String> warnings = TopicProvisioner.plan(List.of(topic), Map.of(), 1).warnings();
+
+        assertEquals(4, warnings.size(), warnings.toString());
+        assertTrue(warnings.get(0).contains("2 of them will sit idle"));
+        assertTrue(warnings.get(1).contains("creating it will fail"));
+        assertTrue(warnings.get(2).contains("every acks=all write will fail"));
+        assertTrue(warnings.get(3).contains("small segments"));
+    }
+
+    private static TopicsConfig.Topic topic(String name, int partitions, Integer consumers) {
+        return new TopicsConfig.Topic(name, null, partitions, (short) 3, "zstd", DataSize.ofMegabytes(512),
+                Duration.ofDays(7), 2, consumers);
+    }
+
+    private static ConfigResource resource(String topic) {
+        return new ConfigResource(ConfigResource.Type.TOPIC, topic);
+    }
+}
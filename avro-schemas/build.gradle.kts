@@ -0,0 +1,80 @@
+plugins {
+    // Shared Avro schemas, their SpecificRecord classes and generated codecs, consumed by the apps and benchmarks
+    id("buildlogic.java-library-conventions")
+}
+
+repositories {
+    maven("https://packages.confluent.io/maven/")
+    mavenCentral()
+}
+
+// Use official Apache Avro tools (no plugin) to generate SpecificRecord classes
+configurations {
+    create("avroTools")
+}
+
+// Codec generator, run at build time only
+sourceSets {
+    create("codegen")
+}
+
+dependencies {
+    api("org.apache.avro:avro:1.12.0")
+    // SpecificCodec SPI the generated codecs implement and the serdes that pick them up
+    api(project(":avro-serde"))
+
+    "avroTools"("org.apache.avro:avro-tools:1.12.0")
+    "codegenImplementation"("org.apache.avro:avro-compiler:1.12.0")
+}
+
+// Directories for Avro schemas and generated code
+val avroSrcDir = layout.projectDirectory.dir("src/main/avro")
+val avroOutDir = layout.buildDirectory.dir("generated-src/avro")
+val codecOutDir = layout.buildDirectory.dir("generated-src/avro-codecs/java")
+val codecResourcesOutDir = layout.buildDirectory.dir("generated-src/avro-codecs/resources")
+
+// Task to generate Java from Avro schemas
+tasks.register<JavaExec>("generateAvroJava") {
+    group = "build"
+    description = "Generate Avro SpecificRecord classes from src/main/avro"
+    classpath = configurations.getByName("avroTools")
+    mainClass.set("org.apache.avro.tool.Main")
+    args("compile", "schema", avroSrcDir.asFile.absolutePath, avroOutDir.get().asFile.absolutePath)
+    inputs.dir(avroSrcDir.asFile)
+    outputs.dir(avroOutDir)
+}
+
+// Task to generate a specialized encoder/decoder per record, plus their ServiceLoader registration
+tasks.register<JavaExec>("generateAvroCodecs") {
+    group = "build"
+    description = "Generate SpecificCodec classes for the records in src/main/avro"
+    classpath = sourceSets["codegen"].runtimeClasspath
+    mainClass.set("org.example.avro.codegen.AvroCodecGenerator")
+    args(
+        avroSrcDir.asFile.absolutePath,
+        codecOutDir.get().asFile.absolutePath,
+        codecResourcesOutDir.get().asFile.absolutePath
+    )
+    inputs.dir(avroSrcDir.asFile)
+    inputs.files(sourceSets["codegen"].runtimeClasspath)
+    outputs.dir(codecOutDir)
+    outputs.dir(codecResourcesOutDir)
+}
+
+// Add generated sources to main source set
+sourceSets {
+    named("main") {
+        java.srcDir(avroOutDir)
+        java.srcDir(codecOutDir)
+        resources.srcDir(codecResourcesOutDir)
+    }
+}
+
+// Ensure code generation happens before Java compilation
+tasks.named("compileJava") {
+    dependsOn("generateAvroJava", "generateAvroCodecs")
+}
+
+tasks.named("processResources") {
+    dependsOn("generateAvroCodecs")
+}
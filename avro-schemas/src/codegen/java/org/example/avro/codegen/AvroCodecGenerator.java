@@ -0,0 +1,480 @@
+package org.example.avro.codegen;
+
+import org.apache.avro.Schema;
+import org.apache.avro.compiler.specific.SpecificCompiler;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.specific.SpecificData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates a {@code <Record>Codec} next to each SpecificRecord class that avro-tools generates from the same .avsc
+ * files: straight-line encode/decode methods that walk the fields in schema order through the record's getters and
+ * setters, plus the {@code META-INF/services} entry that lets the avro-serde serdes find them.
+ * <p>
+ * Records using logical types or custom Java classes ({@code java-class}) are skipped; they keep the generic path.
+ * <p>
+ * Usage: {@code AvroCodecGenerator <schema dir> <java output dir> <resources output dir>}
+ */
+public final class AvroCodecGenerator {
+
+    static final String CODEC_INTERFACE = "org.example.serde.codec.SpecificCodec";
+
+    private AvroCodecGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: AvroCodecGenerator <schema dir> <java output dir> "
+                    + "<resources output dir>");
+        }
+        Path javaOut = Path.of(args[1]);
+        Path resourcesOut = Path.of(args[2]);
+        List<String> codecs = new ArrayList<>();
+        for (Schema record : records(Path.of(args[0]))) {
+            String unsupported = unsupported(record, new LinkedHashSet<>());
+            if (unsupported != null) {
+                System.out.println("No codec for " + record.getFullName() + ": " + unsupported);
+                continue;
+            }
+            CodecSource source = new CodecSource(record);
+            Path file = javaOut.resolve(source.className().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.generate());
+            codecs.add(source.className());
+        }
+        Path services = resourcesOut.resolve("META-INF/services/" + CODEC_INTERFACE);
+        Files.createDirectories(services.getParent());
+        Files.write(services, codecs.stream().sorted().toList());
+    }
+
+    /**
+     * Record types of the .avsc files, including nested ones; files are parsed in name order with one parser, like
+     * avro-tools does, so later files may refer to types of earlier ones.
+     */
+    static List<Schema> records(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(f -> f.getFileName().toString().endsWith(".avsc")).sorted().toList();
+        }
+        Schema.Parser parser = new Schema.Parser();
+        Map<String, Schema> records = new LinkedHashMap<>();
+        for (Path file : files) {
+            collect(parser.parse(file.toFile()), records);
+        }
+        return List.copyOf(records.values());
+    }
+
+    private static void collect(Schema schema, Map<String, Schema> records) {
+        switch (schema.getType()) {
+            case RECORD -> {
+                if (records.putIfAbsent(schema.getFullName(), schema) == null) {
+                    schema.getFields().forEach(f -> collect(f.schema(), records));
+                }
+            }
+            case ARRAY -> collect(schema.getElementType(), records);
+            case MAP -> collect(schema.getValueType(), records);
+            case UNION -> schema.getTypes().forEach(t -> collect(t, records));
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * @return why no codec can be generated for the schema, or null
+     */
+    static String unsupported(Schema schema, Set<String> seen) {
+        if (schema.getLogicalType() != null) {
+            return "logical type " + schema.getLogicalType().getName();
+        }
+        if (schema.getProp(SpecificData.CLASS_PROP) != null || schema.getProp(SpecificData.KEY_CLASS_PROP) != null) {
+            return "custom Java class";
+        }
+        return switch (schema.getType()) {
+            case RECORD -> {
+                if (!seen.add(schema.getFullName())) {
+                    yield null;
+                }
+                for (Schema.Field field : schema.getFields()) {
+                    if (field.getProp(SpecificData.CLASS_PROP) != null) {
+                        yield "custom Java class on " + schema.getName() + "." + field.name();
+                    }
+                    String nested = unsupported(field.schema(), seen);
+                    if (nested != null) {
+                        yield nested;
+                    }
+                }
+                yield null;
+            }
+            case ARRAY -> unsupported(schema.getElementType(), seen);
+            case MAP -> unsupported(schema.getValueType(), seen);
+            case UNION -> schema.getTypes().stream()
+                    .map(t -> unsupported(t, seen))
+                    .filter(r -> r != null)
+                    .findFirst()
+                    .orElse(null);
+            default -> null;
+        };
+    }
+
+    /**
+     * Source of one codec class. Encoding and decoding are emitted as static methods so codecs of nested records call
+     * each other directly.
+     */
+    static final class CodecSource {
+
+        private final Schema record;
+        private final String recordClass;
+        private final StringBuilder body = new StringBuilder();
+        private final Map<String, String> enumValues = new LinkedHashMap<>();
+        private int indent;
+        private int vars;
+
+        CodecSource(Schema record) {
+            this.record = record;
+            this.recordClass = SpecificData.get().getClassName(record);
+        }
+
+        String className() {
+            return codecClass(record);
+        }
+
+        String generate() {
+            line("public static void write(" + recordClass + " record, Encoder out) throws IOException {");
+            indent++;
+            for (Schema.Field field : record.getFields()) {
+                encode(field.schema(), "record." + SpecificCompiler.generateGetMethod(record, field) + "()");
+            }
+            indent--;
+            line("}");
+            line("");
+            line("public static " + recordClass + " read(Decoder in, " + recordClass + " reuse) throws IOException {");
+            indent++;
+            line(recordClass + " record = reuse != null ? reuse : new " + recordClass + "();");
+            for (Schema.Field field : record.getFields()) {
+                String getter = "record." + SpecificCompiler.generateGetMethod(record, field) + "()";
+                String value = decode(field.schema(), reusable(field.schema()) ? getter : null);
+                line("record." + SpecificCompiler.generateSetMethod(record, field) + "(" + value + ");");
+            }
+            line("return record;");
+            indent--;
+            line("}");
+
+            String simpleName = className().substring(className().lastIndexOf('.') + 1);
+            StringBuilder source = new StringBuilder();
+            if (record.getNamespace() != null && !record.getNamespace().isEmpty()) {
+                source.append("package ").append(record.getNamespace()).append(";\n\n");
+            }
+            source.append("import org.apache.avro.Schema;\n")
+                    .append("import org.apache.avro.io.Decoder;\n")
+                    .append("import org.apache.avro.io.Encoder;\n\n")
+                    .append("import java.io.IOException;\n\n")
+                    .append("/**\n")
+                    .append(" * Encoder and decoder for {@link ").append(recordClass).append("} in its own schema.\n")
+                    .append(" * Generated by AvroCodecGenerator; do not edit.\n")
+                    .append(" */\n")
+                    .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                    .append("public final class ").append(simpleName).append(" implements ")
+                    .append(CODEC_INTERFACE).append("<").append(recordClass).append("> {\n\n");
+            enumValues.forEach((type, field) -> source.append("    private static final ").append(type)
+                    .append("[] ").append(field).append(" = ").append(type).append(".values();\n"));
+            if (!enumValues.isEmpty()) {
+                source.append("\n");
+            }
+            source.append("    @Override\n")
+                    .append("    public Class<").append(recordClass).append("> type() {\n")
+                    .append("        return ").append(recordClass).append(".class;\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public Schema schema() {\n")
+                    .append("        return ").append(recordClass).append(".getClassSchema();\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public void encode(").append(recordClass).append(" record, Encoder out) throws IOException {\n")
+                    .append("        write(record, out);\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public ").append(recordClass).append(" decode(Decoder in, ").append(recordClass)
+                    .append(" reuse) throws IOException {\n")
+                    .append("        return read(in, reuse);\n")
+                    .append("    }\n\n")
+                    .append(body)
+                    .append("}\n");
+            return source.toString();
+        }
+
+        private void encode(Schema schema, String value) {
+            switch (schema.getType()) {
+                case NULL -> line("out.writeNull();");
+                case BOOLEAN -> line("out.writeBoolean(" + value + ");");
+                case INT -> line("out.writeInt(" + value + ");");
+                case LONG -> line("out.writeLong(" + value + ");");
+                case FLOAT -> line("out.writeFloat(" + value + ");");
+                case DOUBLE -> line("out.writeDouble(" + value + ");");
+                case STRING -> line("out.writeString(" + value + ");");
+                case BYTES -> line("out.writeBytes(" + value + ");");
+                case ENUM -> line("out.writeEnum(" + value + ".ordinal());");
+                case FIXED -> line("out.writeFixed(" + value + ".bytes());");
+                case RECORD -> line(codecClass(schema) + ".write(" + value + ", out);");
+                case ARRAY -> {
+                    String items = var();
+                    String item = var();
+                    line(javaType(schema, false) + " " + items + " = " + value + ";");
+                    line("out.writeArrayStart();");
+                    line("out.setItemCount(" + items + ".size());");
+                    line("for (" + javaType(schema.getElementType(), true) + " " + item + " : " + items + ") {");
+                    indent++;
+                    line("out.startItem();");
+                    encode(schema.getElementType(), item);
+                    indent--;
+                    line("}");
+                    line("out.writeArrayEnd();");
+                }
+                case MAP -> {
+                    String entries = var();
+                    String entry = var();
+                    line(javaType(schema, false) + " " + entries + " = " + value + ";");
+                    line("out.writeMapStart();");
+                    line("out.setItemCount(" + entries + ".size());");
+                    line("for (java.util.Map.Entry<" + stringType(schema) + ", "
+                            + javaType(schema.getValueType(), true) + "> " + entry + " : " + entries + ".entrySet()) {");
+                    indent++;
+                    line("out.startItem();");
+                    line("out.writeString(" + entry + ".getKey());");
+                    encode(schema.getValueType(), entry + ".getValue()");
+                    indent--;
+                    line("}");
+                    line("out.writeMapEnd();");
+                }
+                case UNION -> {
+                    String v = var();
+                    String type = javaType(schema, false);
+                    line(type + " " + v + " = " + value + ";");
+                    List<Schema> branches = schema.getTypes();
+                    if (!type.equals("java.lang.Object")) {
+                        // Nullable type: null or the value itself
+                        int nullIndex = branches.get(0).getType() == Schema.Type.NULL ? 0 : 1;
+                        line("if (" + v + " == null) {");
+                        indent++;
+                        line("out.writeIndex(" + nullIndex + ");");
+                        line("out.writeNull();");
+                        indent--;
+                        line("} else {");
+                        indent++;
+                        line("out.writeIndex(" + (1 - nullIndex) + ");");
+                        encode(branches.get(1 - nullIndex), v);
+                        indent--;
+                        line("}");
+                        return;
+                    }
+                    for (int i = 0; i < branches.size(); i++) {
+                        Schema branch = branches.get(i);
+                        String test = branch.getType() == Schema.Type.NULL
+                                ? v + " == null"
+                                : v + " instanceof " + instanceType(branch);
+                        line((i == 0 ? "if (" : "} else if (") + test + ") {");
+                        indent++;
+                        line("out.writeIndex(" + i + ");");
+                        encode(branch, branch.getType() == Schema.Type.NULL
+                                ? v
+                                : "((" + javaType(branch, true) + ") " + v + ")");
+                        indent--;
+                    }
+                    line("} else {");
+                    indent++;
+                    line("throw new org.apache.avro.AvroTypeException(\"Not in union of " + recordClass + ": \" + "
+                            + v + ");");
+                    indent--;
+                    line("}");
+                }
+            }
+        }
+
+        /**
+         * Emits the statements that read a value and returns the expression holding it; the expression is used right
+         * away, before anything else is read.
+         */
+        private String decode(Schema schema, String reuse) {
+            switch (schema.getType()) {
+                case NULL -> {
+                    line("in.readNull();");
+                    return "null";
+                }
+                case BOOLEAN -> {
+                    return "in.readBoolean()";
+                }
+                case INT -> {
+                    return "in.readInt()";
+                }
+                case LONG -> {
+                    return "in.readLong()";
+                }
+                case FLOAT -> {
+                    return "in.readFloat()";
+                }
+                case DOUBLE -> {
+                    return "in.readDouble()";
+                }
+                case STRING -> {
+                    return readString(schema, reuse);
+                }
+                case BYTES -> {
+                    return "in.readBytes(" + (reuse != null ? reuse : "null") + ")";
+                }
+                case ENUM -> {
+                    String type = SpecificData.get().getClassName(schema);
+                    String values = enumValues.computeIfAbsent(type, t -> "VALUES_" + enumValues.size());
+                    return values + "[in.readEnum()]";
+                }
+                case FIXED -> {
+                    String type = SpecificData.get().getClassName(schema);
+                    String v = var();
+                    line(type + " " + v + " = new " + type + "();");
+                    line("in.readFixed(" + v + ".bytes());");
+                    return v;
+                }
+                case RECORD -> {
+                    return codecClass(schema) + ".read(in, " + (reuse != null ? reuse : "null") + ")";
+                }
+                case ARRAY -> {
+                    String items = var();
+                    String n = var();
+                    String i = var();
+                    line("long " + n + " = in.readArrayStart();");
+                    line(javaType(schema, false) + " " + items + " = new java.util.ArrayList<>((int) " + n + ");");
+                    line("for (; " + n + " != 0; " + n + " = in.arrayNext()) {");
+                    indent++;
+                    line("for (long " + i + " = 0; " + i + " < " + n + "; " + i + "++) {");
+                    indent++;
+                    line(items + ".add(" + decode(schema.getElementType(), null) + ");");
+                    indent--;
+                    line("}");
+                    indent--;
+                    line("}");
+                    return items;
+                }
+                case MAP -> {
+                    String entries = var();
+                    String n = var();
+                    String i = var();
+                    String key = var();
+                    line("long " + n + " = in.readMapStart();");
+                    line(javaType(schema, false) + " " + entries + " = new java.util.HashMap<>();");
+                    line("for (; " + n + " != 0; " + n + " = in.mapNext()) {");
+                    indent++;
+                    line("for (long " + i + " = 0; " + i + " < " + n + "; " + i + "++) {");
+                    indent++;
+                    line(stringType(schema) + " " + key + " = " + readString(schema, null) + ";");
+                    line(entries + ".put(" + key + ", " + decode(schema.getValueType(), null) + ");");
+                    indent--;
+                    line("}");
+                    indent--;
+                    line("}");
+                    return entries;
+                }
+                case UNION -> {
+                    String v = var();
+                    List<Schema> branches = schema.getTypes();
+                    line(javaType(schema, false) + " " + v + ";");
+                    line("switch (in.readIndex()) {");
+                    indent++;
+                    for (int b = 0; b < branches.size(); b++) {
+                        line("case " + b + " -> {");
+                        indent++;
+                        line(v + " = " + decode(branches.get(b), null) + ";");
+                        indent--;
+                        line("}");
+                    }
+                    line("default -> throw new org.apache.avro.AvroTypeException(\"Unexpected union branch in "
+                            + recordClass + "\");");
+                    indent--;
+                    line("}");
+                    return v;
+                }
+                default -> throw new IllegalArgumentException("Unsupported type " + schema.getType());
+            }
+        }
+
+        // Like the stock reader: Utf8 by default, reusing the previous Utf8; String for avro.java.string=String
+        private String readString(Schema schema, String reuse) {
+            if (stringType(schema).equals("java.lang.String")) {
+                return "in.readString()";
+            }
+            if (reuse == null) {
+                return "in.readString(null)";
+            }
+            String utf8 = var();
+            return "in.readString(" + reuse + " instanceof org.apache.avro.util.Utf8 " + utf8 + " ? " + utf8 + " : null)";
+        }
+
+        private static boolean reusable(Schema schema) {
+            return switch (schema.getType()) {
+                case STRING, BYTES, RECORD -> true;
+                default -> false;
+            };
+        }
+
+        private void line(String text) {
+            if (!text.isEmpty()) {
+                body.append("    ".repeat(indent + 1)).append(text);
+            }
+            body.append('\n');
+        }
+
+        private String var() {
+            return "v" + vars++;
+        }
+    }
+
+    static String codecClass(Schema record) {
+        return SpecificData.get().getClassName(record) + "Codec";
+    }
+
+    /**
+     * The Java type avro-tools gives a value of this schema (CharSequence strings, boxed union members).
+     */
+    static String javaType(Schema schema, boolean boxed) {
+        return switch (schema.getType()) {
+            case NULL -> "java.lang.Void";
+            case BOOLEAN -> boxed ? "java.lang.Boolean" : "boolean";
+            case INT -> boxed ? "java.lang.Integer" : "int";
+            case LONG -> boxed ? "java.lang.Long" : "long";
+            case FLOAT -> boxed ? "java.lang.Float" : "float";
+            case DOUBLE -> boxed ? "java.lang.Double" : "double";
+            case STRING -> stringType(schema);
+            case BYTES -> "java.nio.ByteBuffer";
+            case ENUM, FIXED, RECORD -> SpecificData.get().getClassName(schema);
+            case ARRAY -> "java.util.List<" + javaType(schema.getElementType(), true) + ">";
+            case MAP -> "java.util.Map<" + stringType(schema) + "," + javaType(schema.getValueType(), true) + ">";
+            case UNION -> {
+                List<Schema> types = schema.getTypes();
+                if (types.size() == 2 && types.contains(Schema.create(Schema.Type.NULL))) {
+                    yield javaType(types.get(types.get(0).getType() == Schema.Type.NULL ? 1 : 0), true);
+                }
+                yield "java.lang.Object";
+            }
+        };
+    }
+
+    private static String instanceType(Schema schema) {
+        return switch (schema.getType()) {
+            case STRING -> "java.lang.CharSequence";
+            case ARRAY -> "java.util.List";
+            case MAP -> "java.util.Map";
+            default -> javaType(schema, true);
+        };
+    }
+
+    private static String stringType(Schema schema) {
+        return "String".equals(schema.getProp(GenericData.STRING_PROP)) ? "java.lang.String" : "java.lang.CharSequence";
+    }
+}
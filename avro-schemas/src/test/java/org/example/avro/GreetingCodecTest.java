@@ -0,0 +1,81 @@
+package org.example.avro;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.example.serde.PooledSpecificAvroDeserializer;
+import org.example.serde.PreEncodedSpecificAvroSerializer;
+import org.example.serde.codec.SpecificCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GreetingCodecTest {
+
+    @Test
+    void encodesLikeTheSpecificDatumWriter() throws IOException {
+        Greeting full = Greeting.newBuilder().setMessage("hello").setMessage2("world").setTimestamp(42L).build();
+        Greeting noMessage2 = Greeting.newBuilder().setMessage("hello").setMessage2(null).setTimestamp(-1L).build();
+
+        for (Greeting greeting : new Greeting[]{full, noMessage2}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            GreetingCodec.write(greeting, encoder);
+            assertArrayEquals(specific(greeting), out.toByteArray());
+        }
+    }
+
+    @Test
+    void decodesIntoTheReusedInstance() throws IOException {
+        Greeting greeting = Greeting.newBuilder().setMessage("hello").setMessage2("world").setTimestamp(42L).build();
+        byte[] bytes = specific(greeting);
+
+        Greeting decoded = GreetingCodec.read(DecoderFactory.get().binaryDecoder(bytes, null), null);
+        assertEquals(greeting, decoded);
+        Greeting reused = GreetingCodec.read(DecoderFactory.get().binaryDecoder(bytes, null), decoded);
+        assertSame(decoded, reused);
+        assertEquals(greeting, reused);
+    }
+
+    @Test
+    void isFoundForItsTypeAndOnlyMatchesItsOwnWriterSchema() {
+        var codec = SpecificCodecs.forType(Greeting.class);
+        Schema v1 = SchemaBuilder.record("Greeting").namespace("org.example.avro").fields()
+                .requiredString("message")
+                .requiredLong("timestamp")
+                .endRecord();
+
+        assertInstanceOf(GreetingCodec.class, codec);
+        assertTrue(SpecificCodecs.matches(codec, Greeting.getClassSchema()));
+        assertFalse(SpecificCodecs.matches(codec, v1));
+    }
+
+    @Test
+    void roundTripsThroughTheSerdes() {
+        MockSchemaRegistryClient client = new MockSchemaRegistryClient();
+        Greeting greeting = Greeting.newBuilder().setMessage("hello").setMessage2("world").setTimestamp(42L).build();
+        try (var serializer = new PreEncodedSpecificAvroSerializer<>(client, Greeting.class);
+             var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class)) {
+            assertEquals(greeting, deserializer.deserialize("demo-topic", serializer.serialize("demo-topic", greeting)));
+        }
+    }
+
+    private static byte[] specific(Greeting greeting) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new SpecificDatumWriter<>(Greeting.class).write(greeting, encoder);
+        return out.toByteArray();
+    }
+}
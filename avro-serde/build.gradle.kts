@@ -0,0 +1,54 @@
+plugins {
+    // Shared Java conventions plus api/implementation separation for a library consumed by the apps
+    id("buildlogic.java-library-conventions")
+}
+
+repositories {
+    maven("https://packages.confluent.io/maven/")
+    mavenCentral()
+}
+
+// Use official Apache Avro tools (no plugin) to generate SpecificRecord classes for tests
+configurations {
+    create("avroTools")
+}
+
+dependencies {
+    // Schema lookups by id (and the Kafka Serializer/Deserializer API, transitively)
+    api("io.confluent:kafka-schema-registry-client:8.0.0")
+    api("org.apache.avro:avro:1.12.0")
+    // Serde and registry client meters (org.example.serde.metrics)
+    api("io.micrometer:micrometer-core:1.15.2")
+    // Auto-configuration of the shared registry client (org.example.serde.registry); the apps bring Spring Boot
+    compileOnly("org.springframework.boot:spring-boot-autoconfigure:3.5.4")
+
+    "avroTools"("org.apache.avro:avro-tools:1.12.0")
+
+    // Stock Confluent serde as the reference implementation in tests
+    testImplementation("io.confluent:kafka-avro-serializer:8.0.0")
+    testImplementation("org.mockito:mockito-core:5.17.0")
+}
+
+// Directories for test Avro schemas and generated code
+val avroTestSrcDir = layout.projectDirectory.dir("src/test/avro")
+val avroTestOutDir = layout.buildDirectory.dir("generated-test-src/avro")
+
+tasks.register<JavaExec>("generateTestAvroJava") {
+    group = "build"
+    description = "Generate Avro SpecificRecord classes from src/test/avro"
+    classpath = configurations.getByName("avroTools")
+    mainClass.set("org.apache.avro.tool.Main")
+    args("compile", "schema", avroTestSrcDir.asFile.absolutePath, avroTestOutDir.get().asFile.absolutePath)
+    inputs.dir(avroTestSrcDir.asFile)
+    outputs.dir(avroTestOutDir)
+}
+
+sourceSets {
+    named("test") {
+        java.srcDir(avroTestOutDir)
+    }
+}
+
+tasks.named("compileTestJava") {
+    dependsOn("generateTestAvroJava")
+}
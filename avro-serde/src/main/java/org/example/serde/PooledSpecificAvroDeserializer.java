@@ -0,0 +1,357 @@
+package org.example.serde;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.serde.codec.CodecDatumReader;
+import org.example.serde.codec.SpecificCodec;
+import org.example.serde.codec.SpecificCodecs;
+import org.example.serde.registry.SharedSchemaRegistryClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Deserializer for one SpecificRecord type that keeps per-record work to the decode itself.
+ * <ul>
+ *   <li>one {@link SpecificDatumReader} per (writer schema id, reader schema), built on first sight of the id and kept
+ *       in a bounded {@link ResolutionPlanCache}, so records written with an older or newer schema version resolve
+ *       through a cached plan;</li>
+ *   <li>a thread-local {@link BinaryDecoder} re-pointed at each record's byte array instead of a new decoder;</li>
+ *   <li>optionally ({@value #REUSE_RECORDS_CONFIG}) a thread-local ring of record instances decoded into in place;</li>
+ *   <li>the type's generated {@link SpecificCodec}, when there is one, for writer ids whose schema is the class
+ *       schema: those records are decoded by straight-line code instead of a resolving reader;</li>
+ *   <li>optionally a per-topic field projection: the reader schema is reduced to the listed fields of the writer
+ *       schema, so schema resolution skips everything else; readers are cached per (writer id, projection).</li>
+ * </ul>
+ * Record reuse is only safe when the listener does not keep references to records after its batch has been
+ * processed: the ring holds {@code max.poll.records} instances, so slot {@code i} is overwritten by the next poll.
+ * <p>
+ * Projected records are instances of the full class with the fields outside the projection left unset (null, 0).
+ * <p>
+ * Construct it with a registry client and the record type, or let Kafka instantiate it and configure
+ * {@value #VALUE_TYPE_CONFIG} plus the usual schema.registry.* settings (or a shared client under
+ * {@link SharedSchemaRegistryClient#CLIENT_CONFIG}); projections are then read from
+ * {@value #PROJECTION_CONFIG_PREFIX}{@code <topic>} entries (comma-separated field names).
+ */
+public class PooledSpecificAvroDeserializer<T extends SpecificRecord> implements Deserializer<T> {
+
+    public static final String VALUE_TYPE_CONFIG = "pooled.avro.value.type";
+    public static final String REUSE_RECORDS_CONFIG = "pooled.avro.reuse.records";
+    public static final String PROJECTION_CONFIG_PREFIX = "pooled.avro.projection.";
+    public static final String PLAN_CACHE_SIZE_CONFIG = "pooled.avro.plan.cache.size";
+
+    // topic -> readers of its projection; topics with the same projection share one Readers
+    private final Map<String, Readers<T>> readersByTopic = new ConcurrentHashMap<>();
+    private final Map<Set<String>, Readers<T>> readersByProjection = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private final ResolutionPlanCache.EvictionListener forgetEvicted = this::forget;
+
+    private SchemaRegistryClient client;
+    private boolean ownsClient;
+    private Schema readerSchema;
+    private SpecificCodec<T> codec;
+    private boolean reuseRecords;
+    private Function<String, ? extends Collection<String>> projections = topic -> Set.of();
+    private ResolutionPlanCache plans;
+    private int ringSize = 500;
+
+    public PooledSpecificAvroDeserializer() {
+    }
+
+    public PooledSpecificAvroDeserializer(SchemaRegistryClient client, Class<T> type) {
+        this(client, type, false);
+    }
+
+    public PooledSpecificAvroDeserializer(SchemaRegistryClient client, Class<T> type, boolean reuseRecords) {
+        this(client, type, reuseRecords, topic -> Set.of());
+    }
+
+    /**
+     * @param projections fields to decode per topic; an empty collection decodes the full record. Called once per
+     *                    topic, on its first record.
+     */
+    public PooledSpecificAvroDeserializer(SchemaRegistryClient client, Class<T> type, boolean reuseRecords,
+                                          Function<String, ? extends Collection<String>> projections) {
+        this(client, type, reuseRecords, projections, new ResolutionPlanCache());
+    }
+
+    /**
+     * @param plans resolution-plan cache, possibly shared with other deserializers
+     */
+    public PooledSpecificAvroDeserializer(SchemaRegistryClient client, Class<T> type, boolean reuseRecords,
+                                          Function<String, ? extends Collection<String>> projections,
+                                          ResolutionPlanCache plans) {
+        this.client = client;
+        useType(type);
+        this.reuseRecords = reuseRecords;
+        this.projections = projections;
+        this.plans = plans;
+        plans.onEviction(forgetEvicted);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (readerSchema == null) {
+            Object type = configs.get(VALUE_TYPE_CONFIG);
+            if (type == null) {
+                throw new ConfigException(VALUE_TYPE_CONFIG + " must name the SpecificRecord class to read");
+            }
+            try {
+                useType(type instanceof Class<?> c ? c : Class.forName(type.toString(), true,
+                        Thread.currentThread().getContextClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new ConfigException(VALUE_TYPE_CONFIG, type, "class not found");
+            }
+        }
+        if (client == null) {
+            client = SharedSchemaRegistryClient.fromConfigs(configs);
+        }
+        if (client == null) {
+            client = RegistryClients.fromConfigs(configs);
+            ownsClient = true;
+        }
+        if (plans == null) {
+            Object size = configs.get(PLAN_CACHE_SIZE_CONFIG);
+            plans = new ResolutionPlanCache(size != null ? Integer.parseInt(size.toString()) : ResolutionPlanCache.DEFAULT_MAX_SIZE);
+            plans.onEviction(forgetEvicted);
+        }
+        Object reuse = configs.get(REUSE_RECORDS_CONFIG);
+        if (reuse != null) {
+            reuseRecords = Boolean.parseBoolean(reuse.toString());
+        }
+        Object maxPoll = configs.get("max.poll.records");
+        if (maxPoll != null) {
+            ringSize = Integer.parseInt(maxPoll.toString());
+        }
+        Map<String, Set<String>> configured = new HashMap<>();
+        configs.forEach((key, value) -> {
+            if (key.startsWith(PROJECTION_CONFIG_PREFIX) && value != null) {
+                configured.put(key.substring(PROJECTION_CONFIG_PREFIX.length()), fieldSet(value.toString().split(",")));
+            }
+        });
+        if (!configured.isEmpty()) {
+            projections = topic -> configured.getOrDefault(topic, Set.of());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        int schemaId = WireFormat.schemaId(data);
+        String topicKey = topic != null ? topic : "";
+        Readers<T> readers = readersByTopic.get(topicKey);
+        if (readers == null) {
+            readers = readersByTopic.computeIfAbsent(topicKey, this::readersFor);
+        }
+        SpecificDatumReader<T> reader = readers.recent(schemaId);
+        if (reader != null) {
+            plans.recordMemoHit();
+        } else {
+            Set<String> projection = readers.projection;
+            reader = (SpecificDatumReader<T>) plans.<T>get(schemaId, readers.fingerprint,
+                    () -> createReader(schemaId, projection));
+            readers.remember(schemaId, reader);
+            // Evicted between the lookup and remember: the listener already ran, so drop it here
+            if (!plans.contains(schemaId, readers.fingerprint)) {
+                readers.forget(schemaId);
+            }
+        }
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(
+                data, WireFormat.HEADER_SIZE, data.length - WireFormat.HEADER_SIZE, decoders.get());
+        decoders.set(decoder);
+        try {
+            if (!reuseRecords) {
+                return reader.read(null, decoder);
+            }
+            RecordRing<T> ring = readers.ring(ringSize);
+            T record = reader.read(ring.next(), decoder);
+            ring.store(record);
+            return record;
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing Avro message for id " + schemaId, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (plans != null) {
+            plans.removeEvictionListener(forgetEvicted);
+        }
+        if (ownsClient) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                throw new SerializationException("Error closing schema registry client", e);
+            }
+        }
+    }
+
+    /**
+     * Plan cache counters, e.g. for metrics.
+     */
+    public ResolutionPlanCache planCache() {
+        return plans;
+    }
+
+    // The cache may be shared, so the plan can belong to another deserializer's projection or to none of ours
+    private void forget(int writerId, long readerFingerprint) {
+        for (Readers<T> readers : readersByProjection.values()) {
+            if (readers.fingerprint == readerFingerprint) {
+                readers.forget(writerId);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void useType(Class<?> type) {
+        readerSchema = SpecificData.get().getSchema(type);
+        codec = SpecificCodecs.forType((Class<T>) type);
+    }
+
+    private Readers<T> readersFor(String topic) {
+        Set<String> projection = fieldSet(projections.apply(topic).toArray(String[]::new));
+        for (String field : projection) {
+            if (readerSchema.getField(field) == null) {
+                throw new SerializationException("Projected field '" + field + "' for topic " + topic
+                        + " is not a field of " + readerSchema.getFullName());
+            }
+        }
+        // The effective reader schema is the class schema reduced to the projection
+        return readersByProjection.computeIfAbsent(projection,
+                p -> new Readers<>(p, ResolutionPlanCache.fingerprint(readerSchema, p)));
+    }
+
+    private SpecificDatumReader<T> createReader(int schemaId, Set<String> projection) {
+        Schema writer;
+        try {
+            ParsedSchema parsed = client.getSchemaById(schemaId);
+            writer = (Schema) parsed.rawSchema();
+        } catch (Exception e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + schemaId, e);
+        }
+        if (projection.isEmpty()) {
+            // Written with the class schema: no resolution needed
+            return codec != null && SpecificCodecs.matches(codec, writer)
+                    ? new CodecDatumReader<>(codec)
+                    : new SpecificDatumReader<>(writer, readerSchema);
+        }
+        try {
+            return new ProjectingDatumReader<>(writer, ProjectingDatumReader.project(writer, readerSchema, projection));
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot project schema id " + schemaId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Set<String> fieldSet(String[] fields) {
+        Set<String> set = new HashSet<>();
+        for (String field : fields) {
+            if (!field.isBlank()) {
+                set.add(field.trim());
+            }
+        }
+        return Set.copyOf(set);
+    }
+
+    /**
+     * State for one projection: the reader fingerprint used in plan-cache keys, the plans of the last few writer ids
+     * seen (checked before the cache, so steady-state decoding takes no lock; dropped when the cache evicts them), and
+     * the reused instances, kept per projection so a record decoded with one projection never carries fields left
+     * over from another.
+     */
+    private static final class Readers<T> {
+        private static final int RECENT = 4;
+
+        private final Set<String> projection;
+        private final long fingerprint;
+        private final ThreadLocal<RecordRing<T>> rings = new ThreadLocal<>();
+        private volatile Plan<T>[] recent;
+        private int nextSlot;
+
+        @SuppressWarnings("unchecked")
+        Readers(Set<String> projection, long fingerprint) {
+            this.projection = projection;
+            this.fingerprint = fingerprint;
+            this.recent = new Plan[0];
+        }
+
+        SpecificDatumReader<T> recent(int writerId) {
+            for (Plan<T> plan : recent) {
+                if (plan.writerId() == writerId) {
+                    return plan.reader();
+                }
+            }
+            return null;
+        }
+
+        synchronized void remember(int writerId, SpecificDatumReader<T> reader) {
+            Plan<T>[] current = recent;
+            Plan<T>[] next = Arrays.copyOf(current, Math.min(RECENT, current.length + 1));
+            int slot = current.length < RECENT ? current.length : nextSlot++ % RECENT;
+            next[slot] = new Plan<>(writerId, reader);
+            recent = next;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void forget(int writerId) {
+            Plan<T>[] current = recent;
+            Plan<T>[] kept = Arrays.stream(current).filter(plan -> plan.writerId() != writerId).toArray(Plan[]::new);
+            if (kept.length != current.length) {
+                recent = kept;
+                nextSlot = 0;
+            }
+        }
+
+        RecordRing<T> ring(int size) {
+            RecordRing<T> ring = rings.get();
+            if (ring == null) {
+                ring = new RecordRing<>(size);
+                rings.set(ring);
+            }
+            return ring;
+        }
+    }
+
+    private record Plan<T>(int writerId, SpecificDatumReader<T> reader) {
+    }
+
+    /**
+     * Fixed set of instances handed out round-robin; a null slot lets the reader allocate the first time.
+     */
+    private static final class RecordRing<T> {
+        private final Object[] slots;
+        private int index;
+
+        RecordRing(int size) {
+            slots = new Object[Math.max(1, size)];
+        }
+
+        @SuppressWarnings("unchecked")
+        T next() {
+            return (T) slots[index];
+        }
+
+        void store(T record) {
+            slots[index] = record;
+            index = (index + 1) % slots.length;
+        }
+    }
+}
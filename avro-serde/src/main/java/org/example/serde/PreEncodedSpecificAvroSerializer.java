@@ -0,0 +1,189 @@
+package org.example.serde;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.serde.codec.CodecDatumWriter;
+import org.example.serde.codec.SpecificCodec;
+import org.example.serde.codec.SpecificCodecs;
+import org.example.serde.registry.SharedSchemaRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializer for one SpecificRecord type that resolves the schema id once per topic and then only encodes.
+ * <ul>
+ *   <li>the 5-byte magic-plus-id header is computed when the id is pinned, for each topic in
+ *       {@value #TOPICS_CONFIG} at configure time, otherwise on the first record sent to a topic;</li>
+ *   <li>one {@link SpecificDatumWriter} for the type, shared by all threads; the type's generated
+ *       {@link SpecificCodec} when there is one;</li>
+ *   <li>a thread-local growable buffer and {@link BinaryEncoder}, reset for each record.</li>
+ * </ul>
+ * The output is byte-identical to {@code KafkaAvroSerializer} for the same subject name strategy, as long as the
+ * subject's id is looked up by the record's own schema ({@code use.latest.version=false}). The id stays pinned for
+ * the lifetime of the serializer, so a new schema version takes effect on the next producer restart.
+ * <p>
+ * Construct it with a registry client and the record type, or let Kafka instantiate it and configure
+ * {@value #VALUE_TYPE_CONFIG} plus the usual schema.registry.* settings (or a shared client under
+ * {@link SharedSchemaRegistryClient#CLIENT_CONFIG}).
+ */
+public class PreEncodedSpecificAvroSerializer<T extends SpecificRecord> implements Serializer<T> {
+
+    public static final String VALUE_TYPE_CONFIG = "pre.encoded.avro.value.type";
+    public static final String TOPICS_CONFIG = "pre.encoded.avro.topics";
+
+    private static final Logger log = LoggerFactory.getLogger(PreEncodedSpecificAvroSerializer.class);
+
+    // Buffers that grew past this for an oversized record are dropped instead of being kept per thread
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private final Map<String, byte[]> headers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+
+    private SchemaRegistryClient client;
+    private boolean ownsClient;
+    private Class<?> type;
+    private Schema schema;
+    private SpecificDatumWriter<T> writer;
+    private SubjectNames subjectNames = SubjectNames.TOPIC;
+    private boolean isKey;
+    private boolean autoRegister;
+
+    public PreEncodedSpecificAvroSerializer() {
+    }
+
+    public PreEncodedSpecificAvroSerializer(SchemaRegistryClient client, Class<T> type) {
+        this.client = client;
+        useType(type);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.isKey = isKey;
+        if (schema == null) {
+            Object type = configs.get(VALUE_TYPE_CONFIG);
+            if (type == null) {
+                throw new ConfigException(VALUE_TYPE_CONFIG + " must name the SpecificRecord class to write");
+            }
+            try {
+                useType(type instanceof Class<?> c ? c : Class.forName(type.toString(), true,
+                        Thread.currentThread().getContextClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new ConfigException(VALUE_TYPE_CONFIG, type, "class not found");
+            }
+        }
+        if (Boolean.parseBoolean(String.valueOf(configs.get("use.latest.version")))) {
+            throw new ConfigException("use.latest.version", true,
+                    "not supported: records are always written with their own schema");
+        }
+        Object autoRegister = configs.get("auto.register.schemas");
+        this.autoRegister = autoRegister == null || Boolean.parseBoolean(autoRegister.toString());
+        subjectNames = SubjectNames.fromConfig(configs.get(isKey ? "key.subject.name.strategy" : "value.subject.name.strategy"));
+        if (client == null) {
+            client = SharedSchemaRegistryClient.fromConfigs(configs);
+        }
+        if (client == null) {
+            client = RegistryClients.fromConfigs(configs);
+            ownsClient = true;
+        }
+        Object topics = configs.get(TOPICS_CONFIG);
+        if (topics != null) {
+            for (String topic : topics.toString().split(",")) {
+                if (!topic.isBlank()) {
+                    headers.computeIfAbsent(topic.trim(), this::pin);
+                }
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        if (!type.isInstance(data)) {
+            throw new SerializationException("Expected " + type.getName() + " but got " + data.getClass().getName());
+        }
+        byte[] header = headers.get(topic);
+        if (header == null) {
+            header = headers.computeIfAbsent(topic, this::pin);
+        }
+        Scratch s = scratch.get();
+        if (s == null) {
+            s = new Scratch();
+            scratch.set(s);
+        }
+        s.out.reset();
+        s.out.writeBytes(header);
+        try {
+            writer.write(data, s.encoder);
+            s.encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            scratch.remove();
+            throw new SerializationException("Error serializing Avro message for topic " + topic, e);
+        }
+        byte[] bytes = s.out.toByteArray();
+        if (bytes.length > MAX_RETAINED_BUFFER) {
+            scratch.remove();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        if (ownsClient) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                throw new SerializationException("Error closing schema registry client", e);
+            }
+        }
+    }
+
+    /**
+     * Schema id pinned for a topic, or -1 if nothing has been sent to it yet.
+     */
+    public int pinnedId(String topic) {
+        byte[] header = headers.get(topic);
+        return header == null ? -1 : WireFormat.schemaId(header);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void useType(Class<?> type) {
+        this.type = type;
+        this.schema = SpecificData.get().getSchema(type);
+        SpecificCodec<T> codec = SpecificCodecs.forType((Class<T>) type);
+        // The codec was generated from the class schema, which is also the schema the id is pinned for
+        this.writer = codec != null ? new CodecDatumWriter<>(codec) : new SpecificDatumWriter<>(schema);
+    }
+
+    private byte[] pin(String topic) {
+        String subject = subjectNames.subject(topic, isKey, schema);
+        try {
+            AvroSchema parsed = new AvroSchema(schema);
+            int id = autoRegister ? client.register(subject, parsed) : client.getId(subject, parsed);
+            log.info("Pinned schema id {} for subject {} ({})", id, subject, schema.getFullName());
+            return WireFormat.header(id);
+        } catch (Exception e) {
+            throw new SerializationException("Error retrieving Avro schema id for subject " + subject, e);
+        }
+    }
+
+    private static final class Scratch {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        private final BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+    }
+}
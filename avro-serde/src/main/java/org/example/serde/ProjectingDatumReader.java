@@ -0,0 +1,75 @@
+package org.example.serde;
+
+import org.apache.avro.Conversion;
+import org.apache.avro.Schema;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecordBase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads into generated SpecificRecord classes through a reduced reader schema: fields missing from the reader
+ * schema are skipped by Avro's schema resolution and never materialized, and each read field is stored into the
+ * class by name, since positions in the reduced schema do not match the class. Fields outside the projection keep
+ * their Java default (null, 0, false).
+ */
+final class ProjectingDatumReader<T> extends SpecificDatumReader<T> {
+
+    ProjectingDatumReader(Schema writer, Schema projected) {
+        super(writer, projected);
+    }
+
+    /**
+     * Reader schema with only {@code fields}, taken from the writer schema so resolution is a plain skip; a field the
+     * writer does not have is taken from the class schema and must have a default.
+     */
+    static Schema project(Schema writer, Schema classSchema, Set<String> fields) {
+        List<Schema.Field> projected = new ArrayList<>();
+        for (Schema.Field field : writer.getFields()) {
+            if (fields.contains(field.name())) {
+                projected.add(new Schema.Field(field, field.schema()));
+            }
+        }
+        for (String name : fields) {
+            Schema.Field field = classSchema.getField(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Projected field '" + name + "' is not a field of " + classSchema.getFullName());
+            }
+            if (writer.getField(name) == null) {
+                if (!field.hasDefaultValue()) {
+                    throw new IllegalArgumentException("Projected field '" + name + "' is missing from the writer schema and has no default");
+                }
+                projected.add(new Schema.Field(field, field.schema()));
+            }
+        }
+        return Schema.createRecord(writer.getName(), writer.getDoc(), writer.getNamespace(), writer.isError(), projected);
+    }
+
+    @Override
+    protected Object readRecord(Object old, Schema expected, ResolvingDecoder in) throws IOException {
+        Object r = getData().newRecord(old, expected);
+        if (!(r instanceof SpecificRecordBase record)) {
+            return super.readRecord(old, expected, in);
+        }
+        Schema target = record.getSchema();
+        for (Schema.Field field : in.readFieldOrder()) {
+            Schema.Field targetField = target.getField(field.name());
+            if (targetField == null) {
+                // Nested writer record with a field the class no longer has
+                readWithoutConversion(null, field.schema(), in);
+                continue;
+            }
+            int pos = targetField.pos();
+            Object oldDatum = old != null ? record.get(pos) : null;
+            Conversion<?> conversion = record.getConversion(pos);
+            record.put(pos, conversion != null
+                    ? readWithConversion(oldDatum, field.schema(), field.schema().getLogicalType(), conversion, in)
+                    : readWithoutConversion(oldDatum, field.schema(), in));
+        }
+        return record;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.serde;
+
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.config.ConfigException;
+import org.example.serde.metrics.InstrumentedSchemaRegistryClient;
+import org.example.serde.metrics.SerdeMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+final class RegistryClients {
+
+    static final String URL_CONFIG = "schema.registry.url";
+    private static final String REQUEST_HEADER_PREFIX = "request.header.";
+
+    private RegistryClients() {
+    }
+
+    /**
+     * Builds a client from serde configs the way the Confluent serdes do: bearer.* and friends are passed through,
+     * request.header.* entries become HTTP headers (e.g. X-Registry-GroupId). With a MeterRegistry under
+     * {@value SerdeMetrics#METER_REGISTRY_CONFIG} the client is instrumented.
+     */
+    static SchemaRegistryClient fromConfigs(Map<String, ?> configs) {
+        String url = Objects.toString(configs.get(URL_CONFIG), null);
+        if (url == null || url.isBlank()) {
+            throw new ConfigException(URL_CONFIG + " must be configured");
+        }
+        Map<String, String> headers = new HashMap<>();
+        configs.forEach((key, value) -> {
+            if (key.startsWith(REQUEST_HEADER_PREFIX) && value != null) {
+                headers.put(key.substring(REQUEST_HEADER_PREFIX.length()), value.toString());
+            }
+        });
+        SchemaRegistryClient client = new CachedSchemaRegistryClient(url, 1000, configs, headers);
+        return configs.get(SerdeMetrics.METER_REGISTRY_CONFIG) instanceof MeterRegistry registry
+                ? InstrumentedSchemaRegistryClient.wrap(client, registry)
+                : client;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.DatumReader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of resolution plans: datum readers built for a (writer schema id, reader schema) pair. A reader holds
+ * the resolved writer-to-reader grammar once it has decoded a record, so a hit turns a mixed-version decode into a
+ * plain one. One cache can be shared by several deserializers so its hit/miss counts cover the whole consumer.
+ * Callers that memoize plans count their memo hits with {@link #recordMemoHit} and drop evicted plans when
+ * {@linkplain #onEviction notified}, so an evicted plan is not kept alive by a memo.
+ */
+public final class ResolutionPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final Map<Key, DatumReader<?>> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder memoHits = new LongAdder();
+    private final List<EvictionListener> listeners = new CopyOnWriteArrayList<>();
+    // Set by removeEldestEntry under the cache lock, handed to the listeners after it is released
+    private Key evicted;
+
+    /**
+     * Called with the pair of each evicted plan, on the thread whose miss evicted it.
+     */
+    @FunctionalInterface
+    public interface EvictionListener {
+        void evicted(int writerId, long readerFingerprint);
+    }
+
+    public ResolutionPlanCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ResolutionPlanCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DatumReader<?>> eldest) {
+                if (size() > ResolutionPlanCache.this.maxSize) {
+                    evictions.increment();
+                    evicted = eldest.getKey();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Fingerprint of the full schema JSON. Unlike the parsing canonical form it covers defaults and aliases, which
+     * change the outcome of resolution.
+     */
+    public static long fingerprint(Schema reader) {
+        return SchemaNormalization.fingerprint64(reader.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fingerprint of a reader schema reduced to {@code fields}; the plain schema fingerprint when there are none.
+     */
+    public static long fingerprint(Schema reader, Collection<String> fields) {
+        if (fields.isEmpty()) {
+            return fingerprint(reader);
+        }
+        String projected = reader + "|" + String.join(",", new TreeSet<>(fields));
+        return SchemaNormalization.fingerprint64(projected.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Plan for the pair, building it with {@code loader} on a miss. The loader runs outside the cache lock (it may
+     * call the registry); concurrent misses for the same pair keep the first plan stored.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DatumReader<T> get(int writerId, long readerFingerprint, Supplier<? extends DatumReader<T>> loader) {
+        Key key = new Key(writerId, readerFingerprint);
+        synchronized (plans) {
+            DatumReader<?> plan = plans.get(key);
+            if (plan != null) {
+                hits.increment();
+                return (DatumReader<T>) plan;
+            }
+        }
+        misses.increment();
+        DatumReader<T> created = loader.get();
+        DatumReader<?> stored;
+        Key dropped;
+        synchronized (plans) {
+            DatumReader<?> existing = plans.putIfAbsent(key, created);
+            stored = existing != null ? existing : created;
+            dropped = evicted;
+            evicted = null;
+        }
+        if (dropped != null) {
+            for (EvictionListener listener : listeners) {
+                listener.evicted(dropped.writerId(), dropped.readerFingerprint());
+            }
+        }
+        return (DatumReader<T>) stored;
+    }
+
+    /**
+     * Whether the plan for the pair is cached, without touching its LRU position or the counters.
+     */
+    public boolean contains(int writerId, long readerFingerprint) {
+        synchronized (plans) {
+            return plans.containsKey(new Key(writerId, readerFingerprint));
+        }
+    }
+
+    /**
+     * Counts a plan served from a caller's memo, without a lookup here.
+     */
+    public void recordMemoHit() {
+        memoHits.increment();
+    }
+
+    public void onEviction(EvictionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeEvictionListener(EvictionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (plans) {
+            size = plans.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), memoHits.sum(), evictions.sum(), size, maxSize);
+    }
+
+    /**
+     * @param hits     lookups answered by the cache
+     * @param memoHits plans served from callers' memos, which never reach the cache
+     */
+    public record Stats(long hits, long misses, long memoHits, long evictions, int size, int maxSize) {
+        /**
+         * Share of cache lookups that hit; memo hits are not lookups and are not included.
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private record Key(int writerId, long readerFingerprint) {
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.serde;
+
+import org.apache.avro.Schema;
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.Locale;
+
+/**
+ * The three stock Confluent subject name strategies, selected by the usual
+ * {@code key.subject.name.strategy} / {@code value.subject.name.strategy} setting (class or class name).
+ * Kept local so the serdes only need the registry client, not the Confluent serializer jars.
+ */
+enum SubjectNames {
+
+    TOPIC {
+        @Override
+        String subject(String topic, boolean isKey, Schema schema) {
+            return topic + (isKey ? "-key" : "-value");
+        }
+    },
+    RECORD {
+        @Override
+        String subject(String topic, boolean isKey, Schema schema) {
+            return schema.getFullName();
+        }
+    },
+    TOPIC_RECORD {
+        @Override
+        String subject(String topic, boolean isKey, Schema schema) {
+            return topic + "-" + schema.getFullName();
+        }
+    };
+
+    abstract String subject(String topic, boolean isKey, Schema schema);
+
+    static SubjectNames fromConfig(Object strategy) {
+        if (strategy == null) {
+            return TOPIC;
+        }
+        String name = strategy instanceof Class<?> c ? c.getName() : strategy.toString().trim();
+        String simpleName = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (simpleName) {
+            case "topicnamestrategy" -> TOPIC;
+            case "recordnamestrategy" -> RECORD;
+            case "topicrecordnamestrategy" -> TOPIC_RECORD;
+            default -> throw new ConfigException("subject.name.strategy", name,
+                    "only TopicNameStrategy, RecordNameStrategy and TopicRecordNameStrategy are supported");
+        };
+    }
+}
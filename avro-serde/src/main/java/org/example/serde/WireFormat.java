@@ -0,0 +1,26 @@
+package org.example.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Confluent wire format: magic byte 0, 4-byte big-endian schema id, then the Avro binary body.
+ */
+public final class WireFormat {
+
+    public static final byte MAGIC_BYTE = 0x0;
+    public static final int HEADER_SIZE = 5;
+
+    private WireFormat() {
+    }
+
+    public static int schemaId(byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != MAGIC_BYTE) {
+            throw new SerializationException("Unknown magic byte!");
+        }
+        return (data[1] & 0xff) << 24 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 8 | (data[4] & 0xff);
+    }
+
+    public static byte[] header(int schemaId) {
+        return new byte[]{MAGIC_BYTE, (byte) (schemaId >>> 24), (byte) (schemaId >>> 16), (byte) (schemaId >>> 8), (byte) schemaId};
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.serde.codec;
+
+import org.apache.avro.io.Decoder;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.IOException;
+
+/**
+ * {@link SpecificDatumReader} that decodes with a generated codec, so it fits wherever readers are cached. Only for
+ * writer schemas the codec {@link SpecificCodecs#matches matches}.
+ */
+public class CodecDatumReader<T extends SpecificRecord> extends SpecificDatumReader<T> {
+
+    private final SpecificCodec<T> codec;
+
+    public CodecDatumReader(SpecificCodec<T> codec) {
+        super(codec.schema(), codec.schema());
+        this.codec = codec;
+    }
+
+    @Override
+    public T read(T reuse, Decoder in) throws IOException {
+        return codec.decode(in, reuse);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.serde.codec;
+
+import org.apache.avro.io.Encoder;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.IOException;
+
+/**
+ * {@link SpecificDatumWriter} that encodes with a generated codec; the bytes are the same as the stock writer's.
+ */
+public class CodecDatumWriter<T extends SpecificRecord> extends SpecificDatumWriter<T> {
+
+    private final SpecificCodec<T> codec;
+
+    public CodecDatumWriter(SpecificCodec<T> codec) {
+        super(codec.schema());
+        this.codec = codec;
+    }
+
+    @Override
+    public void write(T datum, Encoder out) throws IOException {
+        codec.encode(datum, out);
+    }
+}
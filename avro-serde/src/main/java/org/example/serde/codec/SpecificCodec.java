@@ -0,0 +1,34 @@
+package org.example.serde.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.IOException;
+
+/**
+ * Binary encoder and decoder for one SpecificRecord class, generated at build time from the class schema: fields are
+ * written and read in schema order by straight-line code, without a schema walk, per-field dispatch or a
+ * {@code ResolvingDecoder}. Only valid for data written with exactly that schema; {@link SpecificCodecs} finds the
+ * codec of a class and decides when it applies.
+ * <p>
+ * Implementations are registered as {@code META-INF/services/org.example.serde.codec.SpecificCodec} and need a public
+ * no-argument constructor.
+ */
+public interface SpecificCodec<T extends SpecificRecord> {
+
+    Class<T> type();
+
+    /**
+     * The schema the codec was generated from, i.e. the class schema.
+     */
+    Schema schema();
+
+    void encode(T record, Encoder out) throws IOException;
+
+    /**
+     * @param reuse instance to decode into, or null for a new one
+     */
+    T decode(Decoder in, T reuse) throws IOException;
+}
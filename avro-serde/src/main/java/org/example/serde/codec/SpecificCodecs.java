@@ -0,0 +1,63 @@
+package org.example.serde.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up the generated {@link SpecificCodec} of a SpecificRecord class. Codecs are found with {@link ServiceLoader}
+ * through the class's own class loader, once per class; one generated from a different schema than the class (a stale
+ * build) is ignored.
+ */
+public final class SpecificCodecs {
+
+    private static final Logger log = LoggerFactory.getLogger(SpecificCodecs.class);
+
+    private static final ClassValue<Optional<SpecificCodec<?>>> CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<SpecificCodec<?>> computeValue(Class<?> type) {
+            return find(type);
+        }
+    };
+
+    private SpecificCodecs() {
+    }
+
+    /**
+     * @return the codec generated for {@code type}, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends SpecificRecord> SpecificCodec<T> forType(Class<T> type) {
+        return (SpecificCodec<T>) CODECS.get(type).orElse(null);
+    }
+
+    /**
+     * Whether data written with {@code writer} can be decoded by {@code codec}: both schemas have the same parsing
+     * canonical form, so the binary layout is the same (docs, defaults and aliases do not matter).
+     */
+    public static boolean matches(SpecificCodec<?> codec, Schema writer) {
+        return SchemaNormalization.parsingFingerprint64(writer)
+                == SchemaNormalization.parsingFingerprint64(codec.schema());
+    }
+
+    private static Optional<SpecificCodec<?>> find(Class<?> type) {
+        for (SpecificCodec<?> codec : ServiceLoader.load(SpecificCodec.class, type.getClassLoader())) {
+            if (codec.type() != type) {
+                continue;
+            }
+            if (!matches(codec, SpecificData.get().getSchema(type))) {
+                log.warn("Ignoring {}: generated from a different schema than {}", codec.getClass().getName(),
+                        type.getName());
+                return Optional.empty();
+            }
+            return Optional.of(codec);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.serde.metrics;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics around a {@link SchemaRegistryClient}, as a dynamic proxy so every client method passes through unchanged.
+ * <ul>
+ *   <li>{@value SerdeMetrics#REGISTRY_CACHE}: estimated hit/miss counts of the lookups
+ *       {@code CachedSchemaRegistryClient} caches, tagged by method and subject. The delegate's caches are not
+ *       visible from here, so a lookup counts as a hit when this wrapper already saw the same method succeed with
+ *       the same arguments. Lookups the delegate has since evicted are still counted as hits, and once a method and
+ *       subject has seen 10,000 distinct lookups the record is cleared, so lookups the delegate still
+ *       caches count as misses until seen again.</li>
+ *   <li>{@value SerdeMetrics#REGISTRY_REQUESTS}: latency histogram of calls that reach the registry (misses and
+ *       uncached methods), tagged by method, subject and outcome. Hits are not timed.</li>
+ * </ul>
+ * The per-record lookups of the stock serdes ({@code getSchemaById}, {@code getSchemaBySubjectAndId},
+ * {@code getId}) call the delegate directly rather than reflectively, and are remembered by their id or schema
+ * argument rather than an argument list. A hit still allocates: the proxy passes the arguments as a new array and
+ * boxes ids outside the {@link Integer} cache.
+ * Methods without a subject argument (e.g. {@code getSchemaById}) are tagged {@code subject=none}.
+ */
+public final class InstrumentedSchemaRegistryClient implements InvocationHandler {
+
+    // Lookups CachedSchemaRegistryClient answers from its caches after the first successful call
+    private static final Set<String> CACHED_METHODS = Set.of(
+            "register", "getId", "getVersion", "getSchemaById", "getSchemaBySubjectAndId", "getSchemaMetadata",
+            "getByVersion");
+    // Bound on remembered lookups per method and subject; past it the set is cleared and lookups count as misses
+    // until seen again
+    private static final int MAX_SEEN = 10_000;
+
+    @FunctionalInterface
+    private interface Call {
+        Object call(Object[] args) throws Throwable;
+    }
+
+    private final SchemaRegistryClient delegate;
+    private final MeterRegistry registry;
+    private final Map<Method, Map<String, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+    private InstrumentedSchemaRegistryClient(SchemaRegistryClient delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    public static SchemaRegistryClient wrap(SchemaRegistryClient client, MeterRegistry registry) {
+        if (Proxy.isProxyClass(client.getClass())
+                && Proxy.getInvocationHandler(client) instanceof InstrumentedSchemaRegistryClient) {
+            return client;
+        }
+        return (SchemaRegistryClient) Proxy.newProxyInstance(SchemaRegistryClient.class.getClassLoader(),
+                new Class<?>[]{SchemaRegistryClient.class}, new InstrumentedSchemaRegistryClient(client, registry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Instrumented(" + delegate + ")";
+            };
+        }
+        MethodMeters m = meters(method, args);
+        Object key = null;
+        if (m.hits != null) {
+            key = lookupKey(args);
+            if (m.seen.contains(key)) {
+                m.hits.increment();
+                return m.call.call(args);
+            }
+            m.misses.increment();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = m.call.call(args);
+            m.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (key != null) {
+                if (m.seen.size() >= MAX_SEEN) {
+                    m.seen.clear();
+                }
+                m.seen.add(key);
+            }
+            return result;
+        } catch (Throwable e) {
+            m.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Meters are per method and subject, so the arguments after the subject identify the lookup
+    private static Object lookupKey(Object[] args) {
+        int length = args != null ? args.length : 0;
+        int from = length > 0 && args[0] instanceof String ? 1 : 0;
+        if (length - from == 1 && args[from] != null) {
+            return args[from];
+        }
+        return Arrays.asList(Arrays.copyOfRange(args != null ? args : new Object[0], from, length));
+    }
+
+    private Call call(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        if (method.getName().equals("getSchemaById") && Arrays.equals(types, new Class<?>[]{int.class})) {
+            return args -> delegate.getSchemaById((Integer) args[0]);
+        }
+        if (method.getName().equals("getSchemaBySubjectAndId")
+                && Arrays.equals(types, new Class<?>[]{String.class, int.class})) {
+            return args -> delegate.getSchemaBySubjectAndId((String) args[0], (Integer) args[1]);
+        }
+        if (method.getName().equals("getId") && Arrays.equals(types, new Class<?>[]{String.class, ParsedSchema.class})) {
+            return args -> delegate.getId((String) args[0], (ParsedSchema) args[1]);
+        }
+        return args -> call(method, args);
+    }
+
+    private MethodMeters meters(Method method, Object[] args) {
+        String subject = args != null && args.length > 0 && args[0] instanceof String s ? s : "none";
+        Map<String, MethodMeters> bySubject = meters.get(method);
+        if (bySubject == null) {
+            bySubject = meters.computeIfAbsent(method, k -> new ConcurrentHashMap<>());
+        }
+        MethodMeters m = bySubject.get(subject);
+        return m != null ? m : bySubject.computeIfAbsent(subject, s -> new MethodMeters(registry, method.getName(), s,
+                CACHED_METHODS.contains(method.getName()), call(method)));
+    }
+
+    private static final class MethodMeters {
+        private final Counter hits;
+        private final Counter misses;
+        private final Timer success;
+        private final Timer error;
+        private final Set<Object> seen = ConcurrentHashMap.newKeySet();
+        private final Call call;
+
+        // hits and misses are null for methods the client does not cache
+        MethodMeters(MeterRegistry registry, String method, String subject, boolean cached, Call call) {
+            this.call = call;
+            hits = cached ? Counter.builder(SerdeMetrics.REGISTRY_CACHE)
+                    .tags("method", method, "subject", subject, "result", "hit").register(registry) : null;
+            misses = cached ? Counter.builder(SerdeMetrics.REGISTRY_CACHE)
+                    .tags("method", method, "subject", subject, "result", "miss").register(registry) : null;
+            success = timer(registry, method, subject, "success");
+            error = timer(registry, method, subject, "error");
+        }
+
+        private static Timer timer(MeterRegistry registry, String method, String subject, String outcome) {
+            return Timer.builder(SerdeMetrics.REGISTRY_REQUESTS)
+                    .tags("method", method, "subject", subject, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
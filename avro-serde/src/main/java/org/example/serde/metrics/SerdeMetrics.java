@@ -0,0 +1,62 @@
+package org.example.serde.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meter names and the per-topic meters shared by {@link TimedSerializer} and {@link TimedDeserializer}.
+ * Meters are looked up once per topic; recording is a clock read and two meter updates.
+ */
+public final class SerdeMetrics {
+
+    public static final String SERIALIZE = "kafka.serde.serialize";
+    public static final String DESERIALIZE = "kafka.serde.deserialize";
+    public static final String PAYLOAD_SIZE = "kafka.serde.payload.size";
+    public static final String REGISTRY_REQUESTS = "schema.registry.client.requests";
+    public static final String REGISTRY_CACHE = "schema.registry.client.cache";
+    public static final String TOKEN_FETCH = "schema.registry.client.token.fetch";
+
+    /**
+     * Serde config entry holding a {@link MeterRegistry} instance. Registry clients created by the avro-serde serdes
+     * from their configs are instrumented when it is present.
+     */
+    public static final String METER_REGISTRY_CONFIG = "avro.serde.meter.registry";
+
+    private final MeterRegistry registry;
+    private final String timerName;
+    private final String direction;
+    private final Map<String, TopicMeters> byTopic = new ConcurrentHashMap<>();
+
+    SerdeMetrics(MeterRegistry registry, String timerName, String direction) {
+        this.registry = registry;
+        this.timerName = timerName;
+        this.direction = direction;
+    }
+
+    TopicMeters topic(String topic) {
+        String key = topic != null ? topic : "";
+        TopicMeters meters = byTopic.get(key);
+        return meters != null ? meters : byTopic.computeIfAbsent(key, this::create);
+    }
+
+    private TopicMeters create(String topic) {
+        Timer timer = Timer.builder(timerName)
+                .tag("topic", topic)
+                .publishPercentileHistogram()
+                .register(registry);
+        DistributionSummary size = DistributionSummary.builder(PAYLOAD_SIZE)
+                .tag("topic", topic)
+                .tag("direction", direction)
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        return new TopicMeters(timer, size);
+    }
+
+    record TopicMeters(Timer timer, DistributionSummary size) {
+    }
+}
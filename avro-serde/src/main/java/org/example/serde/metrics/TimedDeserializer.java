@@ -0,0 +1,67 @@
+package org.example.serde.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records deserialize time ({@value SerdeMetrics#DESERIALIZE}) and payload size ({@value SerdeMetrics#PAYLOAD_SIZE})
+ * per topic around any value deserializer.
+ */
+public class TimedDeserializer<T> implements Deserializer<T> {
+
+    private final Deserializer<T> delegate;
+    private final SerdeMetrics metrics;
+
+    public TimedDeserializer(Deserializer<T> delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.metrics = new SerdeMetrics(registry, SerdeMetrics.DESERIALIZE, "deserialize");
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        long start = System.nanoTime();
+        T value = delegate.deserialize(topic, data);
+        record(topic, start, data != null ? data.length : -1);
+        return value;
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        long start = System.nanoTime();
+        T value = delegate.deserialize(topic, headers, data);
+        record(topic, start, data != null ? data.length : -1);
+        return value;
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        long start = System.nanoTime();
+        int size = data != null ? data.remaining() : -1;
+        T value = delegate.deserialize(topic, headers, data);
+        record(topic, start, size);
+        return value;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void record(String topic, long start, int size) {
+        SerdeMetrics.TopicMeters meters = metrics.topic(topic);
+        meters.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (size >= 0) {
+            meters.size().record(size);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.serde.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records serialize time ({@value SerdeMetrics#SERIALIZE}) and serialized size ({@value SerdeMetrics#PAYLOAD_SIZE})
+ * per topic around any value serializer.
+ */
+public class TimedSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> delegate;
+    private final SerdeMetrics metrics;
+
+    public TimedSerializer(Serializer<T> delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.metrics = new SerdeMetrics(registry, SerdeMetrics.SERIALIZE, "serialize");
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, data);
+        record(topic, start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, headers, data);
+        record(topic, start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void record(String topic, long start, byte[] bytes) {
+        SerdeMetrics.TopicMeters meters = metrics.topic(topic);
+        meters.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (bytes != null) {
+            meters.size().record(bytes.length);
+        }
+    }
+}
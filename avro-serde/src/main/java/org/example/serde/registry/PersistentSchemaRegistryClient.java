@@ -0,0 +1,326 @@
+package org.example.serde.registry;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Read-through cache of registry lookups persisted in a {@link SchemaCacheFile}, so a restarted application resolves
+ * the schemas it saw before without a registry round trip, and keeps serving them while the registry is slow or down.
+ * <ul>
+ *   <li>{@code getSchemaById}, {@code getSchemaBySubjectAndId}, {@code getSchemaMetadata(subject, version)} and
+ *       {@code getId(subject, schema)}: answered from the file when present. Ids and versions never change, so these
+ *       are not refreshed.</li>
+ *   <li>{@code getLatestSchemaMetadata}: answered from the highest cached version of the subject, then refreshed
+ *       from the registry on a background thread at most once per {@code refreshAfter}. A refresh that fails leaves
+ *       the cached version in place.</li>
+ * </ul>
+ * A refresh that finds a cached id or version holding another schema means the registry was reset; the cached schemas
+ * are then dropped, here and in the delegate ({@link SchemaRegistryClient#reset}), and lookups answered before the
+ * reset are no longer written. Misses go to the delegate and are written to the file. Only Avro schemas without
+ * references are persisted; other lookups and all other methods pass through unchanged.
+ */
+final class PersistentSchemaRegistryClient implements InvocationHandler, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentSchemaRegistryClient.class);
+
+    private record SubjectSchema(String subject, String schema) {
+    }
+
+    private final SchemaRegistryClient delegate;
+    private final SchemaCacheFile file;
+    private final long refreshAfterNanos;
+    private final ExecutorService refresher;
+    private final SchemaRegistryClient proxy;
+
+    private final Map<Integer, String> texts = new ConcurrentHashMap<>();
+    private final Map<Integer, ParsedSchema> parsed = new ConcurrentHashMap<>();
+    private final Map<SubjectSchema, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<Integer, SchemaCacheFile.Entry>> versions = new ConcurrentHashMap<>();
+    private final Map<String, Long> refreshedAt = new ConcurrentHashMap<>();
+    // Incremented by discard(); lookups started in an earlier generation are not persisted. Guarded by this.
+    private long generation;
+
+    /**
+     * @param registry identity of the registry behind {@code delegate}; a file written for another one is started over
+     * @throws IOException when the file cannot be opened, e.g. because another process uses it
+     */
+    PersistentSchemaRegistryClient(SchemaRegistryClient delegate, Path path, String registry, Duration refreshAfter)
+            throws IOException {
+        this.delegate = delegate;
+        this.file = SchemaCacheFile.open(path, registry);
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.refresher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "registry-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        synchronized (this) {
+            file.entries().forEach(this::index);
+        }
+        log.info("Loaded {} schema(s) of {} subject(s) from {}", texts.size(), versions.size(), path);
+        this.proxy = (SchemaRegistryClient) Proxy.newProxyInstance(SchemaRegistryClient.class.getClassLoader(),
+                new Class<?>[]{SchemaRegistryClient.class}, this);
+    }
+
+    SchemaRegistryClient client() {
+        return proxy;
+    }
+
+    /**
+     * Whether every topic has at least one cached subject version ({@code <topic>-...}).
+     */
+    boolean covers(Collection<String> topics) {
+        return topics.stream().allMatch(topic -> versions.keySet().stream()
+                .anyMatch(subject -> subject.startsWith(topic + "-")));
+    }
+
+    /**
+     * Cached versions of the subjects of {@code topics}.
+     */
+    int cachedVersions(Collection<String> topics) {
+        return versions.entrySet().stream()
+                .filter(e -> topics.stream().anyMatch(topic -> e.getKey().startsWith(topic + "-")))
+                .mapToInt(e -> e.getValue().size())
+                .sum();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Persistent(" + delegate + ")";
+            };
+        }
+        int arity = args != null ? args.length : 0;
+        return switch (method.getName()) {
+            case "getSchemaById" -> arity == 1
+                    ? schemaById(null, (Integer) args[0], method, args)
+                    : call(method, args);
+            case "getSchemaBySubjectAndId" -> arity == 2 && args[1] instanceof Integer id
+                    ? schemaById((String) args[0], id, method, args)
+                    : call(method, args);
+            case "getSchemaMetadata" -> arity >= 2 && args[0] instanceof String subject && args[1] instanceof Integer v
+                    ? schemaMetadata(subject, v, method, args)
+                    : call(method, args);
+            case "getLatestSchemaMetadata" -> arity == 1 && args[0] instanceof String subject
+                    ? latestSchemaMetadata(subject, method, args)
+                    : call(method, args);
+            case "getId" -> arity >= 2 && args[0] instanceof String subject && args[1] instanceof ParsedSchema schema
+                    ? id(subject, schema, method, args)
+                    : call(method, args);
+            default -> call(method, args);
+        };
+    }
+
+    private ParsedSchema schemaById(String subject, int id, Method method, Object[] args) throws Throwable {
+        ParsedSchema cached = parsed(id);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation();
+        ParsedSchema schema = (ParsedSchema) call(method, args);
+        if (persistable(schema.schemaType(), schema.references())) {
+            persist(new SchemaCacheFile.Entry(id, subject != null ? subject : "", 0, schema.canonicalString()), started);
+        }
+        return schema;
+    }
+
+    private SchemaMetadata schemaMetadata(String subject, int version, Method method, Object[] args) throws Throwable {
+        NavigableMap<Integer, SchemaCacheFile.Entry> cached = versions.get(subject);
+        SchemaCacheFile.Entry entry = cached != null ? cached.get(version) : null;
+        if (entry != null) {
+            return metadata(entry);
+        }
+        long started = generation();
+        SchemaMetadata metadata = (SchemaMetadata) call(method, args);
+        persist(subject, metadata, started);
+        return metadata;
+    }
+
+    private SchemaMetadata latestSchemaMetadata(String subject, Method method, Object[] args) throws Throwable {
+        NavigableMap<Integer, SchemaCacheFile.Entry> cached = versions.get(subject);
+        Map.Entry<Integer, SchemaCacheFile.Entry> latest = cached != null ? cached.lastEntry() : null;
+        if (latest == null) {
+            long started = generation();
+            SchemaMetadata metadata = (SchemaMetadata) call(method, args);
+            refreshedAt.put(subject, System.nanoTime());
+            persist(subject, metadata, started);
+            return metadata;
+        }
+        refreshInBackground(subject, method, args, latest.getKey());
+        return metadata(latest.getValue());
+    }
+
+    private int id(String subject, ParsedSchema schema, Method method, Object[] args) throws Throwable {
+        String text = schema.canonicalString();
+        Integer cached = text != null ? ids.get(new SubjectSchema(subject, text)) : null;
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation();
+        int id = (Integer) call(method, args);
+        if (text != null && persistable(schema.schemaType(), schema.references())) {
+            persist(new SchemaCacheFile.Entry(id, subject, 0, text), started);
+        }
+        return id;
+    }
+
+    private void refreshInBackground(String subject, Method method, Object[] args, int cachedVersion) {
+        long now = System.nanoTime();
+        long due = refreshedAt.compute(subject, (s, last) -> last == null || now - last >= refreshAfterNanos ? now : last);
+        if (due != now) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    long started = generation();
+                    SchemaMetadata metadata = (SchemaMetadata) call(method, args);
+                    if (contradicts(subject, metadata)) {
+                        log.warn("Registry returned id {} as version {} of {}, which the cache file holds otherwise; "
+                                + "the registry was reset, dropping the cached schemas", metadata.getId(),
+                                metadata.getVersion(), subject);
+                        // This answer already comes from the reset registry
+                        started = discard();
+                    }
+                    persist(subject, metadata, started);
+                } catch (Throwable e) {
+                    log.warn("Refreshing the latest schema of {} failed, serving cached version {}: {}",
+                            subject, cachedVersion, e.toString());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // closed
+        }
+    }
+
+    // Ids and versions never change within one registry, so a different schema behind either means it was reset
+    private boolean contradicts(String subject, SchemaMetadata metadata) {
+        if (metadata == null || !persistable(metadata.getSchemaType(), metadata.getReferences())) {
+            return false;
+        }
+        String text = new AvroSchema(metadata.getSchema()).canonicalString();
+        String cachedText = texts.get(metadata.getId());
+        NavigableMap<Integer, SchemaCacheFile.Entry> cached = versions.get(subject);
+        SchemaCacheFile.Entry cachedVersion = cached != null ? cached.get(metadata.getVersion()) : null;
+        return cachedText != null && !cachedText.equals(text)
+                || cachedVersion != null && cachedVersion.id() != metadata.getId();
+    }
+
+    /**
+     * @return the new generation
+     */
+    private synchronized long discard() {
+        generation++;
+        texts.clear();
+        parsed.clear();
+        ids.clear();
+        versions.clear();
+        file.clear();
+        // The delegate's own id and version caches hold the same stale schemas
+        delegate.reset();
+        return generation;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private ParsedSchema parsed(int id) {
+        ParsedSchema schema = parsed.get(id);
+        if (schema != null) {
+            return schema;
+        }
+        String text = texts.get(id);
+        return text != null ? parsed.computeIfAbsent(id, k -> new AvroSchema(text)) : null;
+    }
+
+    private void persist(String subject, SchemaMetadata metadata, long started) {
+        if (metadata != null && persistable(metadata.getSchemaType(), metadata.getReferences())) {
+            // Stored canonical, the form getSchemaById and getId compare against
+            String text = new AvroSchema(metadata.getSchema()).canonicalString();
+            persist(new SchemaCacheFile.Entry(metadata.getId(), subject, metadata.getVersion(), text), started);
+        }
+    }
+
+    // Under the same lock as discard(), so an answer from before a reset is never indexed after it
+    private synchronized void persist(SchemaCacheFile.Entry entry, long started) {
+        if (started != generation || known(entry)) {
+            return;
+        }
+        index(entry);
+        try {
+            file.append(entry);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write schema {} to the cache file, keeping it in memory: {}", entry.id(), e.toString());
+        }
+    }
+
+    private boolean known(SchemaCacheFile.Entry entry) {
+        if (!texts.containsKey(entry.id())) {
+            return false;
+        }
+        if (!entry.subject().isEmpty() && !ids.containsKey(new SubjectSchema(entry.subject(), entry.schema()))) {
+            return false;
+        }
+        NavigableMap<Integer, SchemaCacheFile.Entry> cached = versions.get(entry.subject());
+        return entry.version() <= 0 || cached != null && cached.containsKey(entry.version());
+    }
+
+    private void index(SchemaCacheFile.Entry entry) {
+        texts.putIfAbsent(entry.id(), entry.schema());
+        if (!entry.subject().isEmpty()) {
+            ids.put(new SubjectSchema(entry.subject(), entry.schema()), entry.id());
+            if (entry.version() > 0) {
+                versions.computeIfAbsent(entry.subject(), s -> new ConcurrentSkipListMap<>())
+                        .put(entry.version(), entry);
+            }
+        }
+    }
+
+    private static SchemaMetadata metadata(SchemaCacheFile.Entry entry) {
+        return new SchemaMetadata(entry.id(), entry.version(), entry.schema());
+    }
+
+    private static boolean persistable(String schemaType, Collection<?> references) {
+        return (schemaType == null || AvroSchema.TYPE.equals(schemaType))
+                && (references == null || references.isEmpty());
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        refresher.shutdownNow();
+        file.close();
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.serde.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.client.security.bearerauth.BearerAuthCredentialProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.serde.metrics.SerdeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth client-credentials tokens for the registry client, refreshed in the background before they expire.
+ * <p>
+ * The first token is requested as soon as the provider is created. Each token is replaced {@code refreshBefore}
+ * ahead of its expiry, or at 80% of its lifetime when that comes first, by a single scheduler thread; registry
+ * requests only read the current token. A failed refresh is retried with backoff while the current token stays in
+ * use. Only when there is no valid token (the token endpoint has been down for a whole token lifetime) does a
+ * request fetch one itself.
+ */
+public final class RefreshingOAuthTokenProvider implements BearerAuthCredentialProvider, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingOAuthTokenProvider.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Used when the token endpoint does not say how long a token lives
+    private static final long DEFAULT_LIFETIME_SECONDS = 300;
+    // A token is not handed out this close to its expiry, so it cannot expire in transit
+    private static final long EXPIRY_SLACK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long MIN_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI tokenEndpoint;
+    private final String form;
+    private final long refreshBeforeNanos;
+    private final HttpClient http;
+    private final ScheduledExecutorService scheduler;
+    private final Timer fetchSuccess;
+    private final Timer fetchError;
+
+    private volatile Token token;
+    // Scheduler thread only
+    private long retryNanos = MIN_RETRY_NANOS;
+
+    /**
+     * @param scope         optional; omitted from the token request when blank
+     * @param refreshBefore how long before expiry a token is replaced
+     * @param meters        registry for the {@value SerdeMetrics#TOKEN_FETCH} timer, or null
+     */
+    public RefreshingOAuthTokenProvider(String tokenEndpointUrl, String clientId, String clientSecret, String scope,
+                                        Duration refreshBefore, MeterRegistry meters) {
+        this.tokenEndpoint = URI.create(tokenEndpointUrl);
+        String form = "grant_type=client_credentials&client_id=" + encode(clientId)
+                + "&client_secret=" + encode(clientSecret);
+        this.form = scope == null || scope.isBlank() ? form : form + "&scope=" + encode(scope);
+        this.refreshBeforeNanos = refreshBefore.toNanos();
+        this.http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "registry-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fetchSuccess = meters != null ? timer(meters, "success") : null;
+        this.fetchError = meters != null ? timer(meters, "error") : null;
+        scheduler.execute(this::refresh);
+    }
+
+    @Override
+    public String alias() {
+        return "REFRESHING_OAUTHBEARER";
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        // Configured through the constructor
+    }
+
+    @Override
+    public String getBearerToken(URL url) {
+        Token current = token;
+        if (current != null && current.validAt(System.nanoTime())) {
+            return current.value();
+        }
+        return fetchNow().value();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized Token fetchNow() {
+        Token current = token;
+        if (current != null && current.validAt(System.nanoTime())) {
+            // Fetched by the scheduler or another request meanwhile
+            return current;
+        }
+        try {
+            current = fetch();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not obtain a registry access token from " + tokenEndpoint, e);
+        }
+        token = current;
+        return current;
+    }
+
+    private void refresh() {
+        long delay;
+        try {
+            Token fetched = fetch();
+            token = fetched;
+            retryNanos = MIN_RETRY_NANOS;
+            delay = fetched.refreshAt() - System.nanoTime();
+        } catch (IOException | RuntimeException e) {
+            delay = retryNanos;
+            retryNanos = Math.min(retryNanos * 2, MAX_RETRY_NANOS);
+            log.warn("Registry token refresh failed, retrying in {} ms: {}", delay / 1_000_000, e.toString());
+        }
+        try {
+            scheduler.schedule(this::refresh, Math.max(delay, MIN_RETRY_NANOS), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed
+        }
+    }
+
+    private Token fetch() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(tokenEndpoint)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Token endpoint returned HTTP " + response.statusCode());
+            }
+            JsonNode body = MAPPER.readTree(response.body());
+            String accessToken = body.path("access_token").asText(null);
+            if (accessToken == null) {
+                throw new IOException("Token endpoint response has no access_token");
+            }
+            long lifetime = TimeUnit.SECONDS.toNanos(body.path("expires_in").asLong(DEFAULT_LIFETIME_SECONDS));
+            record(fetchSuccess, start);
+            // Never before half the lifetime, so a refreshBefore longer than the token lifetime cannot spin
+            long margin = Math.min(Math.max(refreshBeforeNanos, lifetime / 5), lifetime / 2);
+            long slack = Math.min(EXPIRY_SLACK_NANOS, lifetime / 4);
+            return new Token(accessToken, start + lifetime - slack, start + lifetime - margin);
+        } catch (IOException e) {
+            record(fetchError, start);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching a registry access token");
+        }
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meters, String outcome) {
+        return Timer.builder(SerdeMetrics.TOKEN_FETCH)
+                .tags("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Token(String value, long expiresAt, long refreshAt) {
+        boolean validAt(long now) {
+            return now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.serde.registry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of registry schemas in a memory-mapped file.
+ * <p>
+ * Layout: a 24-byte header (magic, format version, end of the committed entries, hash of the registry the entries
+ * came from) followed by entries of {@code id, version, subject, schema}, strings as length-prefixed UTF-8. An entry
+ * counts once the header's end offset covers it, so a crash mid-append loses at most that entry. Ids are only unique
+ * within one registry (and group), so a file written for another registry, or before a registry reset that changed
+ * its identity, is started over. The file is locked while open; a second process pointing at the same path fails to
+ * open it.
+ */
+final class SchemaCacheFile implements Closeable {
+
+    /**
+     * One cached schema. {@code subject} is empty and {@code version} 0 when the registry was asked by id only.
+     */
+    record Entry(int id, String subject, int version, String schema) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaCacheFile.class);
+
+    private static final int MAGIC = 0x53524331; // "SRC1"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 24;
+    private static final int END_OFFSET = 8;
+    private static final int REGISTRY_OFFSET = 16;
+    private static final int MIN_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private MappedByteBuffer buffer;
+    private int end;
+
+    private SchemaCacheFile(FileChannel channel, FileLock lock) {
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Opens or creates the file. An unreadable or foreign file, or one written for another registry, is started over.
+     *
+     * @param registry identity of the registry the entries come from: its URL and the headers selecting the group
+     * @throws IOException when the file cannot be mapped or another process holds it
+     */
+    static SchemaCacheFile open(Path path, String registry) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Schema cache file is in use: " + path);
+            }
+            SchemaCacheFile file = new SchemaCacheFile(channel, lock);
+            file.map(Math.max(MIN_SIZE, channel.size()));
+            long registryHash = hash(registry);
+            boolean ours = file.buffer.getInt(0) == MAGIC && file.buffer.getInt(4) == FORMAT_VERSION;
+            if (ours && file.buffer.getLong(REGISTRY_OFFSET) != registryHash) {
+                log.info("Schema cache file {} was written for another registry or group; starting it over", path);
+                ours = false;
+            }
+            if (!ours) {
+                file.buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putLong(END_OFFSET, HEADER_SIZE)
+                        .putLong(REGISTRY_OFFSET, registryHash);
+            }
+            long end = file.buffer.getLong(END_OFFSET);
+            file.end = end >= HEADER_SIZE && end <= file.buffer.capacity() ? (int) end : HEADER_SIZE;
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Committed entries in append order. Reading stops at the first malformed entry.
+     */
+    synchronized List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer view = buffer.duplicate().position(HEADER_SIZE).limit(end);
+        int start = HEADER_SIZE;
+        try {
+            while (view.hasRemaining()) {
+                start = view.position();
+                int id = view.getInt();
+                int version = view.getInt();
+                String subject = readString(view);
+                String schema = readString(view);
+                entries.add(new Entry(id, subject, version, schema));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Torn or foreign bytes: keep what was read, later appends overwrite the rest
+            end = start;
+            buffer.putLong(END_OFFSET, end);
+        }
+        return entries;
+    }
+
+    synchronized void append(Entry entry) throws IOException {
+        byte[] subject = entry.subject().getBytes(StandardCharsets.UTF_8);
+        byte[] schema = entry.schema().getBytes(StandardCharsets.UTF_8);
+        int size = 4 + 4 + 4 + subject.length + 4 + schema.length;
+        if ((long) end + size > buffer.capacity()) {
+            map(Math.max((long) buffer.capacity() * 2, (long) end + size));
+        }
+        buffer.position(end);
+        buffer.putInt(entry.id()).putInt(entry.version());
+        buffer.putInt(subject.length).put(subject);
+        buffer.putInt(schema.length).put(schema);
+        end += size;
+        buffer.putLong(END_OFFSET, end);
+    }
+
+    /**
+     * Drops every entry.
+     */
+    synchronized void clear() {
+        end = HEADER_SIZE;
+        buffer.putLong(END_OFFSET, end);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            buffer.force();
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void map(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Schema cache file exceeds 2 GiB");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    // Headers may carry credentials, so only a hash of the identity is stored
+    private static long hash(String registry) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(registry.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readString(ByteBuffer view) {
+        int length = view.getInt();
+        if (length < 0 || length > view.remaining()) {
+            throw new IllegalArgumentException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
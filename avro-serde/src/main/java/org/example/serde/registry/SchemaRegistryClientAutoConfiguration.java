@@ -0,0 +1,52 @@
+package org.example.serde.registry;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * One {@link SchemaRegistryClient} bean per application when app.schema-registry.url is set: OAuth tokens refreshed
+ * in the background, caches prewarmed for the configured topics before the bean is handed out (so before listener
+ * containers start and producers send), an optional on-disk schema cache (app.schema-registry.cache.path), and
+ * cache/request meters unless app.metrics.serde.enabled is false.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "app.schema-registry", name = "url")
+@EnableConfigurationProperties(SchemaRegistryClientProperties.class)
+public class SchemaRegistryClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public SharedSchemaRegistryClient sharedSchemaRegistryClient(SchemaRegistryClientProperties props,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 @Value("${app.metrics.serde.enabled:true}") boolean metrics) {
+        MeterRegistry meters = metrics ? meterRegistry.getIfAvailable() : null;
+        SchemaRegistryClientProperties.OAuth oauth = props.oauth();
+        RefreshingOAuthTokenProvider tokens = oauth != null && StringUtils.hasText(oauth.tokenEndpointUrl())
+                ? new RefreshingOAuthTokenProvider(oauth.tokenEndpointUrl(), oauth.clientId(), oauth.clientSecret(),
+                        oauth.scope(), oauth.refreshBefore(), meters)
+                : null;
+        SharedSchemaRegistryClient shared = new SharedSchemaRegistryClient(props.url(),
+                props.properties() != null ? props.properties() : Map.of(),
+                props.headers() != null ? props.headers() : Map.of(),
+                props.cacheCapacity(), tokens, meters, props.cache().path(), props.cache().refreshAfter());
+        shared.prewarm(props.prewarm().topics(), props.prewarm().maxVersions());
+        return shared;
+    }
+
+    // Closed by the SharedSchemaRegistryClient bean, not on its own
+    @Bean(destroyMethod = "")
+    @ConditionalOnMissingBean
+    public SchemaRegistryClient schemaRegistryClient(SharedSchemaRegistryClient shared) {
+        return shared.client();
+    }
+}
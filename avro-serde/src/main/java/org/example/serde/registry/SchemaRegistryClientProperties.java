@@ -0,0 +1,61 @@
+package org.example.serde.registry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the shared registry client (app.schema-registry.*).
+ *
+ * @param url           registry base URL(s), comma-separated
+ * @param cacheCapacity entries per client cache (ids, schemas, versions)
+ * @param headers       HTTP headers sent with every request, e.g. X-Registry-GroupId
+ * @param properties    further Confluent client configs (TLS, timeouts, ...)
+ * @param oauth         client-credentials settings; without a token endpoint requests are unauthenticated
+ * @param prewarm       what to load into the client's caches at startup
+ * @param cache         on-disk copy of looked-up schemas for warm restarts and registry outages
+ */
+@ConfigurationProperties(prefix = "app.schema-registry")
+public record SchemaRegistryClientProperties(
+        String url,
+        @DefaultValue("1000") int cacheCapacity,
+        Map<String, String> headers,
+        Map<String, String> properties,
+        OAuth oauth,
+        @DefaultValue Prewarm prewarm,
+        @DefaultValue Cache cache
+) {
+
+    /**
+     * @param refreshBefore how long before expiry a token is replaced in the background
+     */
+    public record OAuth(
+            String tokenEndpointUrl,
+            String clientId,
+            String clientSecret,
+            String scope,
+            @DefaultValue("60s") Duration refreshBefore
+    ) { }
+
+    /**
+     * @param topics      topics whose subjects ({@code <topic>-...}) are loaded
+     * @param maxVersions latest versions per subject to load
+     */
+    public record Prewarm(
+            @DefaultValue List<String> topics,
+            @DefaultValue("10") int maxVersions
+    ) { }
+
+    /**
+     * @param path         cache file; unset keeps schemas in memory only
+     * @param refreshAfter how often a cached latest version of a subject is checked against the registry
+     */
+    public record Cache(
+            Path path,
+            @DefaultValue("1m") Duration refreshAfter
+    ) { }
+}
@@ -0,0 +1,212 @@
+package org.example.serde.registry;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.RestService;
+import io.confluent.kafka.schemaregistry.client.security.bearerauth.BearerAuthCredentialProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.serde.metrics.InstrumentedSchemaRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one registry client of an application: a {@code CachedSchemaRegistryClient} whose OAuth tokens come from a
+ * {@link RefreshingOAuthTokenProvider}, instrumented when a MeterRegistry is given, and backed by a
+ * {@link PersistentSchemaRegistryClient} cache file when one is configured.
+ * <p>
+ * {@link #client()} hands out a view whose {@code close()} does nothing, because the stock Confluent serdes close
+ * their client when they are closed; the underlying client is closed with this object. Serdes created by Kafka from
+ * class names pick the client up from their configs under {@value #CLIENT_CONFIG}.
+ */
+public final class SharedSchemaRegistryClient implements Closeable {
+
+    /**
+     * Serde config entry holding the shared {@link SchemaRegistryClient}. The avro-serde serdes use it instead of
+     * creating a client from their configs.
+     */
+    public static final String CLIENT_CONFIG = "avro.serde.registry.client";
+
+    private static final Logger log = LoggerFactory.getLogger(SharedSchemaRegistryClient.class);
+
+    private final CachedSchemaRegistryClient delegate;
+    private final BearerAuthCredentialProvider tokens;
+    private final PersistentSchemaRegistryClient persistent;
+    private final SchemaRegistryClient client;
+
+    /**
+     * @param configs      extra client configs (TLS, timeouts, ...); bearer.* entries are ignored in favour of
+     *                     {@code tokens}
+     * @param tokens       bearer token source, or null for an unauthenticated registry
+     * @param meters       registry for the client's cache and request meters, or null
+     * @param cacheFile    file persisting looked-up schemas across restarts, or null; the client works without it
+     *                     when the file cannot be opened
+     * @param refreshAfter how often a cached latest version is checked against the registry
+     */
+    public SharedSchemaRegistryClient(String url, Map<String, ?> configs, Map<String, String> headers,
+                                      int cacheCapacity, BearerAuthCredentialProvider tokens, MeterRegistry meters,
+                                      Path cacheFile, Duration refreshAfter) {
+        RestService rest = new RestService(url);
+        Map<String, Object> clientConfigs = new HashMap<>(configs);
+        clientConfigs.keySet().removeIf(key -> key.startsWith("bearer.auth."));
+        this.delegate = new CachedSchemaRegistryClient(rest, cacheCapacity, List.of(new AvroSchemaProvider()),
+                clientConfigs, headers);
+        if (tokens != null) {
+            rest.setBearerAuthCredentialProvider(tokens);
+        }
+        this.tokens = tokens;
+        SchemaRegistryClient instrumented = meters != null
+                ? InstrumentedSchemaRegistryClient.wrap(delegate, meters)
+                : delegate;
+        this.persistent = cacheFile != null
+                ? openCacheFile(instrumented, cacheFile, registryIdentity(url, headers), refreshAfter)
+                : null;
+        this.client = unclosable(persistent != null ? persistent.client() : instrumented);
+    }
+
+    private static PersistentSchemaRegistryClient openCacheFile(SchemaRegistryClient client, Path path,
+                                                                String registry, Duration refreshAfter) {
+        try {
+            return new PersistentSchemaRegistryClient(client, path, registry, refreshAfter);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Schema cache file {} not used: {}", path, e.toString());
+            return null;
+        }
+    }
+
+    // Schema ids are scoped by the registry and, through headers such as X-Registry-GroupId, by the group
+    static String registryIdentity(String url, Map<String, String> headers) {
+        return url + " " + new TreeMap<>(headers != null ? headers : Map.of());
+    }
+
+    public SchemaRegistryClient client() {
+        return client;
+    }
+
+    /**
+     * The shared client passed in serde configs, or null.
+     */
+    public static SchemaRegistryClient fromConfigs(Map<String, ?> configs) {
+        return configs.get(CLIENT_CONFIG) instanceof SchemaRegistryClient client ? client : null;
+    }
+
+    /**
+     * Loads ids and schemas of the subjects of {@code topics} (subjects named {@code <topic>-...}, as the topic and
+     * topic-record name strategies produce) into the client's caches, so the first records after startup do not wait
+     * on the registry. Failures are logged and leave the caches to fill on demand.
+     * <p>
+     * When the cache file already holds versions of every topic, the registry is not waited on: the load runs in the
+     * background and only adds what changed since the file was written.
+     *
+     * @param maxVersions latest versions per subject to load
+     * @return number of schema versions loaded, or found in the cache file
+     */
+    public int prewarm(Collection<String> topics, int maxVersions) {
+        if (persistent != null && !topics.isEmpty() && persistent.covers(topics)) {
+            Thread.ofVirtual().name("registry-prewarm").start(() -> prewarm(client, topics, maxVersions));
+            return persistent.cachedVersions(topics);
+        }
+        return prewarm(client, topics, maxVersions);
+    }
+
+    static int prewarm(SchemaRegistryClient client, Collection<String> topics, int maxVersions) {
+        if (topics.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<String> subjects = new ArrayList<>();
+        try {
+            for (String subject : client.getAllSubjects()) {
+                if (topics.stream().anyMatch(topic -> subject.startsWith(topic + "-"))) {
+                    subjects.add(subject);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Registry prewarm skipped, could not list subjects: {}", e.toString());
+            return 0;
+        }
+        AtomicInteger loaded = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String subject : subjects) {
+                executor.submit(() -> {
+                    try {
+                        loaded.addAndGet(prewarmSubject(client, subject, maxVersions));
+                    } catch (Exception e) {
+                        log.warn("Registry prewarm failed for subject {}: {}", subject, e.toString());
+                    }
+                });
+            }
+        }
+        log.info("Prewarmed {} schema version(s) of {} subject(s) for topics {} in {} ms",
+                loaded.get(), subjects.size(), topics, (System.nanoTime() - start) / 1_000_000);
+        return loaded.get();
+    }
+
+    private static int prewarmSubject(SchemaRegistryClient client, String subject, int maxVersions) throws Exception {
+        List<Integer> versions = client.getAllVersions(subject);
+        List<Integer> latest = versions.subList(Math.max(0, versions.size() - maxVersions), versions.size());
+        for (int version : latest) {
+            SchemaMetadata metadata = client.getSchemaMetadata(subject, version);
+            // Deserializers: writer schema by id, looked up without a subject (record name strategies and the
+            // pooled deserializer) and with one (topic name strategy)
+            ParsedSchema schema = client.getSchemaById(metadata.getId());
+            client.getSchemaBySubjectAndId(subject, metadata.getId());
+            // Serializers: id by (subject, schema); hits when the record's schema equals the registered copy
+            client.getId(subject, schema);
+        }
+        return latest.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (tokens instanceof Closeable closeable) {
+                closeable.close();
+            }
+            if (persistent != null) {
+                persistent.close();
+            }
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private static SchemaRegistryClient unclosable(SchemaRegistryClient client) {
+        return (SchemaRegistryClient) Proxy.newProxyInstance(SchemaRegistryClient.class.getClassLoader(),
+                new Class<?>[]{SchemaRegistryClient.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "Shared(" + client + ")";
+                        };
+                    }
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(client, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.serde;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.avro.Greeting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledSpecificAvroDeserializerTest {
+
+    private static final String TOPIC = "demo-topic";
+
+    private SchemaRegistryClient client;
+    private Greeting greeting;
+    private byte[] bytes;
+
+    @BeforeEach
+    void setUp() {
+        client = new MockSchemaRegistryClient();
+        greeting = Greeting.newBuilder().setMessage("hello").setMessage2("world").setTimestamp(42L).build();
+        try (KafkaAvroSerializer serializer = new KafkaAvroSerializer(client,
+                Map.of("schema.registry.url", "mock://serde", "auto.register.schemas", true))) {
+            bytes = serializer.serialize(TOPIC, greeting);
+        }
+    }
+
+    @Test
+    void decodesWhatTheStockSerializerWrote() {
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class)) {
+            assertEquals(greeting, deserializer.deserialize(TOPIC, bytes));
+            assertEquals(null, deserializer.deserialize(TOPIC, null));
+        }
+    }
+
+    @Test
+    void reusesRecordInstancesFromTheRing() {
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class, true)) {
+            deserializer.configure(Map.of("max.poll.records", 1), false);
+            Greeting first = deserializer.deserialize(TOPIC, bytes);
+            Greeting second = deserializer.deserialize(TOPIC, bytes);
+            assertSame(first, second);
+            assertEquals(greeting, second);
+        }
+    }
+
+    @Test
+    void decodesOnlyTheProjectedFields() {
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class, false,
+                topic -> List.of("message", "timestamp"))) {
+            Greeting projected = deserializer.deserialize(TOPIC, bytes);
+            assertEquals("hello", projected.getMessage().toString());
+            assertEquals(42L, projected.getTimestamp());
+            assertNull(projected.getMessage2());
+        }
+    }
+
+    @Test
+    void fillsProjectedFieldsTheWriterLacksWithDefaults() {
+        byte[] v1Bytes = v1Bytes();
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class, true,
+                topic -> List.of("message2"))) {
+            Greeting projected = deserializer.deserialize("old-topic", v1Bytes);
+            assertEquals("hello world", projected.getMessage2().toString());
+            assertNull(projected.getMessage());
+        }
+    }
+
+    @Test
+    void resolvesMixedWriterVersionsThroughCachedPlans() {
+        byte[] v1Bytes = v1Bytes();
+        ResolutionPlanCache plans = new ResolutionPlanCache(8);
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class, false,
+                topic -> List.of(), plans)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(greeting, deserializer.deserialize(TOPIC, bytes));
+                assertEquals("hello world", deserializer.deserialize("old-topic", v1Bytes).getMessage2().toString());
+            }
+        }
+        assertEquals(2, plans.stats().misses());
+        assertEquals(0, plans.stats().hits());
+        assertEquals(18, plans.stats().memoHits());
+    }
+
+    @Test
+    void looksEvictedPlansUpAgainInsteadOfServingThemFromTheMemo() {
+        byte[] v1Bytes = v1Bytes();
+        ResolutionPlanCache plans = new ResolutionPlanCache(1);
+        try (var deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class, false,
+                topic -> List.of(), plans)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(greeting, deserializer.deserialize(TOPIC, bytes));
+                assertEquals("hello world", deserializer.deserialize(TOPIC, v1Bytes).getMessage2().toString());
+            }
+        }
+        // Each version evicts the other's plan, so every record is a miss
+        assertEquals(6, plans.stats().misses());
+        assertEquals(0, plans.stats().memoHits());
+        assertEquals(5, plans.stats().evictions());
+    }
+
+    /**
+     * Allocation-rate comparison: bytes allocated per deserialized record, measured with the thread allocation
+     * counter after warm-up.
+     */
+    @Test
+    void allocatesLessPerRecordThanTheStockDeserializer() {
+        try (KafkaAvroDeserializer stock = new KafkaAvroDeserializer(client,
+                Map.of("schema.registry.url", "mock://serde", "specific.avro.reader", true));
+             var pooled = new PooledSpecificAvroDeserializer<>(client, Greeting.class);
+             var pooledReuse = new PooledSpecificAvroDeserializer<>(client, Greeting.class, true)) {
+            double stockBytes = bytesPerRecord(stock);
+            double pooledBytes = bytesPerRecord(pooled);
+            double reuseBytes = bytesPerRecord(pooledReuse);
+            assertTrue(pooledBytes < stockBytes, "pooled " + pooledBytes + " B vs stock " + stockBytes + " B");
+            assertTrue(reuseBytes <= pooledBytes, "reuse " + reuseBytes + " B vs pooled " + pooledBytes + " B");
+        }
+    }
+
+    /**
+     * Greeting written with the v1 schema (no message2), registered under old-topic-value.
+     */
+    private byte[] v1Bytes() {
+        Schema v1 = SchemaBuilder.record("Greeting").namespace("org.example.avro").fields()
+                .requiredString("message").requiredLong("timestamp").endRecord();
+        GenericRecord old = new GenericRecordBuilder(v1).set("message", "old").set("timestamp", 7L).build();
+        try (KafkaAvroSerializer serializer = new KafkaAvroSerializer(client,
+                Map.of("schema.registry.url", "mock://serde", "auto.register.schemas", true))) {
+            return serializer.serialize("old-topic", old);
+        }
+    }
+
+    private double bytesPerRecord(Deserializer<?> deserializer) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            deserializer.deserialize(TOPIC, bytes);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            deserializer.deserialize(TOPIC, bytes);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / (double) iterations;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.serde;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.subject.TopicRecordNameStrategy;
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.avro.Greeting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PreEncodedSpecificAvroSerializerTest {
+
+    private static final String TOPIC = "demo-topic";
+
+    private SchemaRegistryClient client;
+    private Map<String, Object> configs;
+    private int id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new MockSchemaRegistryClient();
+        // Registered up front, as the migrator does; neither serializer may register
+        client.register("other-subject", new AvroSchema("{\"type\":\"string\"}"));
+        id = client.register(TOPIC + "-" + Greeting.getClassSchema().getFullName(), new AvroSchema(Greeting.getClassSchema()));
+        configs = Map.of(
+                "schema.registry.url", "mock://serde",
+                "auto.register.schemas", false,
+                "value.subject.name.strategy", TopicRecordNameStrategy.class.getName(),
+                PreEncodedSpecificAvroSerializer.TOPICS_CONFIG, TOPIC);
+    }
+
+    @Test
+    void writesTheSameBytesAsTheStockSerializer() {
+        try (KafkaAvroSerializer stock = new KafkaAvroSerializer(client, configs);
+             var preEncoded = new PreEncodedSpecificAvroSerializer<>(client, Greeting.class)) {
+            preEncoded.configure(configs, false);
+            assertEquals(id, preEncoded.pinnedId(TOPIC));
+            for (String message : new String[]{"hello", "", "x".repeat(10_000), "hello again"}) {
+                Greeting greeting = Greeting.newBuilder().setMessage(message).setMessage2("m2").setTimestamp(42L).build();
+                assertArrayEquals(stock.serialize(TOPIC, greeting), preEncoded.serialize(TOPIC, greeting));
+            }
+            assertNull(preEncoded.serialize(TOPIC, null));
+        }
+    }
+
+    @Test
+    void failsWhenTheSchemaIsNotRegistered() {
+        try (var preEncoded = new PreEncodedSpecificAvroSerializer<>(client, Greeting.class)) {
+            assertThrows(SerializationException.class,
+                    () -> preEncoded.configure(Map.of("auto.register.schemas", false,
+                            PreEncodedSpecificAvroSerializer.TOPICS_CONFIG, "unknown-topic"), false));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.DatumReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResolutionPlanCacheTest {
+
+    private static final Schema READER = SchemaBuilder.record("Greeting").namespace("org.example.avro").fields()
+            .requiredString("message").requiredLong("timestamp").endRecord();
+
+    @Test
+    void buildsEachPlanOnceAndCountsHitsAndMisses() {
+        ResolutionPlanCache cache = new ResolutionPlanCache(4);
+        AtomicInteger built = new AtomicInteger();
+        long fingerprint = ResolutionPlanCache.fingerprint(READER);
+
+        DatumReader<Object> first = cache.get(1, fingerprint, () -> reader(built));
+        DatumReader<Object> again = cache.get(1, fingerprint, () -> reader(built));
+        cache.get(2, fingerprint, () -> reader(built));
+
+        assertSame(first, again);
+        assertEquals(2, built.get());
+        ResolutionPlanCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPlan() {
+        ResolutionPlanCache cache = new ResolutionPlanCache(2);
+        AtomicInteger built = new AtomicInteger();
+        cache.get(1, 0L, () -> reader(built));
+        cache.get(2, 0L, () -> reader(built));
+        cache.get(1, 0L, () -> reader(built));
+        cache.get(3, 0L, () -> reader(built));
+
+        cache.get(1, 0L, () -> reader(built));
+        assertEquals(3, built.get());
+        cache.get(2, 0L, () -> reader(built));
+        assertEquals(4, built.get());
+        assertEquals(2, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void notifiesEvictionsAndCountsMemoHitsApart() {
+        ResolutionPlanCache cache = new ResolutionPlanCache(1);
+        List<Integer> evicted = new ArrayList<>();
+        ResolutionPlanCache.EvictionListener listener = (writerId, fingerprint) -> evicted.add(writerId);
+        cache.onEviction(listener);
+        AtomicInteger built = new AtomicInteger();
+        cache.get(1, 0L, () -> reader(built));
+        cache.get(2, 0L, () -> reader(built));
+        cache.recordMemoHit();
+
+        assertEquals(List.of(1), evicted);
+        assertFalse(cache.contains(1, 0L));
+        assertTrue(cache.contains(2, 0L));
+        ResolutionPlanCache.Stats stats = cache.stats();
+        assertEquals(0, stats.hits());
+        assertEquals(1, stats.memoHits());
+        assertEquals(0, stats.hitRatio());
+
+        cache.removeEvictionListener(listener);
+        cache.get(3, 0L, () -> reader(built));
+        assertEquals(List.of(1), evicted);
+    }
+
+    @Test
+    void fingerprintCoversDefaultsAndProjections() {
+        Schema withDefault = SchemaBuilder.record("Greeting").namespace("org.example.avro").fields()
+                .name("message").type().stringType().stringDefault("hello").requiredLong("timestamp").endRecord();
+
+        assertNotEquals(ResolutionPlanCache.fingerprint(READER), ResolutionPlanCache.fingerprint(withDefault));
+        assertEquals(ResolutionPlanCache.fingerprint(READER), ResolutionPlanCache.fingerprint(READER, List.of()));
+        assertEquals(ResolutionPlanCache.fingerprint(READER, List.of("message", "timestamp")),
+                ResolutionPlanCache.fingerprint(READER, List.of("timestamp", "message")));
+        assertNotEquals(ResolutionPlanCache.fingerprint(READER, List.of("message")),
+                ResolutionPlanCache.fingerprint(READER, List.of("timestamp")));
+    }
+
+    private static DatumReader<Object> reader(AtomicInteger built) {
+        built.incrementAndGet();
+        return new GenericDatumReader<>(READER);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.serde.metrics;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SerdeMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void countsRepeatedLookupsAsHitsAndTimesOnlyRemoteCalls() throws Exception {
+        SchemaRegistryClient delegate = mock(SchemaRegistryClient.class);
+        ParsedSchema schema = mock(ParsedSchema.class);
+        when(delegate.getId("demo-topic-value", schema)).thenReturn(7);
+        when(delegate.getAllSubjects()).thenReturn(List.of("demo-topic-value"));
+        SchemaRegistryClient client = InstrumentedSchemaRegistryClient.wrap(delegate, registry);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(7, client.getId("demo-topic-value", schema));
+        }
+        client.getAllSubjects();
+
+        verify(delegate, times(3)).getId("demo-topic-value", schema);
+        assertEquals(2, cache("getId", "hit"));
+        assertEquals(1, cache("getId", "miss"));
+        assertEquals(1, registry.get(SerdeMetrics.REGISTRY_REQUESTS)
+                .tags("method", "getId", "subject", "demo-topic-value", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(SerdeMetrics.REGISTRY_REQUESTS)
+                .tags("method", "getAllSubjects", "subject", "none").timer().count());
+        assertSame(client, InstrumentedSchemaRegistryClient.wrap(client, registry));
+    }
+
+    @Test
+    void distinguishesLookupsBySubjectAndId() throws Exception {
+        SchemaRegistryClient delegate = mock(SchemaRegistryClient.class);
+        ParsedSchema schema = mock(ParsedSchema.class);
+        when(delegate.getSchemaBySubjectAndId("a", 1)).thenReturn(schema);
+        SchemaRegistryClient client = InstrumentedSchemaRegistryClient.wrap(delegate, registry);
+
+        assertSame(schema, client.getSchemaBySubjectAndId("a", 1));
+        client.getSchemaBySubjectAndId("b", 1);
+        client.getSchemaBySubjectAndId("a", 2);
+        assertSame(schema, client.getSchemaBySubjectAndId("a", 1));
+        client.getSchemaById(1);
+        client.getSchemaById(1);
+
+        assertEquals(1, cache("getSchemaBySubjectAndId", "hit"));
+        assertEquals(3, cache("getSchemaBySubjectAndId", "miss"));
+        assertEquals(1, cache("getSchemaById", "hit"));
+        assertEquals(1, cache("getSchemaById", "miss"));
+        verify(delegate, times(2)).getSchemaBySubjectAndId("a", 1);
+    }
+
+    @Test
+    void failedLookupsStayMissesAndAreTimedAsErrors() throws Exception {
+        SchemaRegistryClient delegate = mock(SchemaRegistryClient.class);
+        when(delegate.getSchemaById(42)).thenThrow(new RestClientException("not found", 404, 40403));
+        SchemaRegistryClient client = InstrumentedSchemaRegistryClient.wrap(delegate, registry);
+
+        assertThrows(RestClientException.class, () -> client.getSchemaById(42));
+        assertThrows(RestClientException.class, () -> client.getSchemaById(42));
+
+        assertEquals(2, registry.get(SerdeMetrics.REGISTRY_CACHE).tags("method", "getSchemaById", "result", "miss")
+                .counter().count());
+        assertEquals(2, registry.get(SerdeMetrics.REGISTRY_REQUESTS).tags("outcome", "error").timer().count());
+    }
+
+    @Test
+    void timedDeserializerRecordsTimeAndPayloadSizePerTopic() {
+        Deserializer<String> delegate = (topic, data) -> data != null ? new String(data) : null;
+        try (TimedDeserializer<String> deserializer = new TimedDeserializer<>(delegate, registry)) {
+            assertEquals("abc", deserializer.deserialize("t1", "abc".getBytes()));
+            deserializer.deserialize("t2", "abcdef".getBytes());
+            deserializer.deserialize("t2", null);
+        }
+        assertEquals(1, registry.get(SerdeMetrics.DESERIALIZE).tag("topic", "t1").timer().count());
+        assertEquals(2, registry.get(SerdeMetrics.DESERIALIZE).tag("topic", "t2").timer().count());
+        assertEquals(6, registry.get(SerdeMetrics.PAYLOAD_SIZE).tag("topic", "t2").summary().totalAmount());
+    }
+
+    private double cache(String method, String result) {
+        return registry.get(SerdeMetrics.REGISTRY_CACHE).tags("method", method, "result", result).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.serde.registry;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PersistentSchemaRegistryClientTest {
+
+    private static final String REGISTRY = "http://localhost:8081/apis/ccompat/v7 {X-Registry-GroupId=my-group}";
+    private static final String SUBJECT = "demo-topic-value";
+    private static final String V1 = "{\"type\":\"record\",\"name\":\"Greeting\",\"namespace\":\"org.example.avro\","
+            + "\"fields\":[{\"name\":\"message\",\"type\":\"string\"}]}";
+    private static final String V2 = "{\"type\":\"record\",\"name\":\"Greeting\",\"namespace\":\"org.example.avro\","
+            + "\"fields\":[{\"name\":\"message\",\"type\":\"string\"},{\"name\":\"timestamp\",\"type\":\"long\"}]}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void warmRestartServesCachedLookupsWhileTheRegistryIsDown() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        SchemaRegistryClient registry = mock(SchemaRegistryClient.class);
+        when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V1));
+        when(registry.getSchemaById(7)).thenReturn(new AvroSchema(V1));
+        when(registry.getId(eq(SUBJECT), any())).thenReturn(7);
+        try (var cache = new PersistentSchemaRegistryClient(registry, file, REGISTRY, Duration.ofMinutes(1))) {
+            cache.client().getLatestSchemaMetadata(SUBJECT);
+            cache.client().getSchemaById(7);
+            assertEquals(7, cache.client().getId(SUBJECT, new AvroSchema(V1)));
+        }
+
+        SchemaRegistryClient down = mock(SchemaRegistryClient.class);
+        RestClientException unavailable = new RestClientException("Unavailable", 503, 503);
+        when(down.getLatestSchemaMetadata(anyString())).thenThrow(unavailable);
+        when(down.getSchemaById(anyInt())).thenThrow(unavailable);
+        when(down.getId(anyString(), any())).thenThrow(unavailable);
+        try (var cache = new PersistentSchemaRegistryClient(down, file, REGISTRY, Duration.ofMinutes(1))) {
+            assertTrue(cache.covers(List.of("demo-topic")));
+            SchemaMetadata latest = cache.client().getLatestSchemaMetadata(SUBJECT);
+            assertEquals(7, latest.getId());
+            assertEquals(1, latest.getVersion());
+            assertEquals(V1, latest.getSchema());
+            assertEquals(V1, cache.client().getSchemaBySubjectAndId(SUBJECT, 7).canonicalString());
+            assertEquals(7, cache.client().getId(SUBJECT, new AvroSchema(V1)));
+            verify(down, never()).getSchemaById(anyInt());
+            verify(down, never()).getId(anyString(), any());
+
+            // Unseen ids still need the registry
+            assertThrows(RestClientException.class, () -> cache.client().getSchemaById(8));
+        }
+    }
+
+    @Test
+    void refreshesTheLatestVersionInTheBackground() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        SchemaRegistryClient registry = mock(SchemaRegistryClient.class);
+        when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V1));
+        try (var cache = new PersistentSchemaRegistryClient(registry, file, REGISTRY, Duration.ZERO)) {
+            assertEquals(1, cache.client().getLatestSchemaMetadata(SUBJECT).getVersion());
+
+            when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(9, 2, V2));
+            // Still the cached version; the registry is asked behind it
+            assertEquals(1, cache.client().getLatestSchemaMetadata(SUBJECT).getVersion());
+            verify(registry, timeout(2_000).times(2)).getLatestSchemaMetadata(SUBJECT);
+            long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+            while (cache.client().getLatestSchemaMetadata(SUBJECT).getVersion() != 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(9, cache.client().getLatestSchemaMetadata(SUBJECT).getId());
+        }
+        try (var cache = new PersistentSchemaRegistryClient(mock(SchemaRegistryClient.class), file, REGISTRY,
+                Duration.ZERO)) {
+            assertEquals(V1, cache.client().getSchemaMetadata(SUBJECT, 1).getSchema());
+            assertEquals(V2, cache.client().getSchemaMetadata(SUBJECT, 2).getSchema());
+        }
+    }
+
+    @Test
+    void dropsTheCachedSchemasWhenARefreshShowsTheRegistryWasReset() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        SchemaRegistryClient registry = mock(SchemaRegistryClient.class);
+        when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V1));
+        when(registry.getSchemaById(3)).thenReturn(new AvroSchema(V1));
+        try (var cache = new PersistentSchemaRegistryClient(registry, file, REGISTRY, Duration.ZERO)) {
+            cache.client().getLatestSchemaMetadata(SUBJECT);
+            cache.client().getSchemaById(3);
+
+            // Same URL and group, but id 7 now stands for another schema
+            when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V2));
+            cache.client().getLatestSchemaMetadata(SUBJECT);
+            long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+            while (!V2.equals(cache.client().getSchemaMetadata(SUBJECT, 1).getSchema()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(V2, cache.client().getSchemaById(7).canonicalString());
+        }
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            assertEquals(List.of(new SchemaCacheFile.Entry(7, SUBJECT, 1, V2)), cache.entries());
+        }
+    }
+
+    @Test
+    void resetsTheDelegateSoIdsAreLookedUpAgainAfterARegistryReset() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        SchemaRegistryClient registry = mock(SchemaRegistryClient.class);
+        // Like CachedSchemaRegistryClient, keeps answering id 3 from its own cache until reset
+        AtomicBoolean reset = new AtomicBoolean();
+        doAnswer(invocation -> {
+            reset.set(true);
+            return null;
+        }).when(registry).reset();
+        when(registry.getSchemaById(3)).thenAnswer(invocation -> new AvroSchema(reset.get() ? V2 : V1));
+        when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V1));
+        try (var cache = new PersistentSchemaRegistryClient(registry, file, REGISTRY, Duration.ZERO)) {
+            cache.client().getLatestSchemaMetadata(SUBJECT);
+            assertEquals(V1, cache.client().getSchemaById(3).canonicalString());
+
+            when(registry.getLatestSchemaMetadata(SUBJECT)).thenReturn(new SchemaMetadata(7, 1, V2));
+            cache.client().getLatestSchemaMetadata(SUBJECT);
+            verify(registry, timeout(2_000)).reset();
+            long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+            while (!V2.equals(cache.client().getSchemaMetadata(SUBJECT, 1).getSchema()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(V2, cache.client().getSchemaById(3).canonicalString());
+        }
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            assertTrue(cache.entries().stream().noneMatch(entry -> entry.schema().equals(V1)), "stale schema written back");
+            assertTrue(cache.entries().contains(new SchemaCacheFile.Entry(3, "", 0, V2)));
+        }
+    }
+
+    @Test
+    void fileGrowsPastItsInitialMapping() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        String padding = "x".repeat(1_000);
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            for (int id = 1; id <= 200; id++) {
+                cache.append(new SchemaCacheFile.Entry(id, "topic-" + id + "-value", 1, padding));
+            }
+        }
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            List<SchemaCacheFile.Entry> entries = cache.entries();
+            assertEquals(200, entries.size());
+            assertEquals(new SchemaCacheFile.Entry(200, "topic-200-value", 1, padding), entries.get(199));
+            assertThrows(IOException.class, () -> SchemaCacheFile.open(file, REGISTRY));
+        }
+    }
+
+    @Test
+    void fileOfAnotherRegistryOrGroupIsStartedOver() throws Exception {
+        Path file = dir.resolve("schemas.bin");
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            cache.append(new SchemaCacheFile.Entry(7, SUBJECT, 1, V1));
+        }
+        String otherGroup = REGISTRY.replace("my-group", "other-group");
+        try (var cache = SchemaCacheFile.open(file, otherGroup)) {
+            // Id 7 may be a different schema there
+            assertEquals(List.of(), cache.entries());
+            cache.append(new SchemaCacheFile.Entry(7, SUBJECT, 1, V2));
+        }
+        try (var cache = SchemaCacheFile.open(file, otherGroup)) {
+            assertEquals(List.of(new SchemaCacheFile.Entry(7, SUBJECT, 1, V2)), cache.entries());
+        }
+        try (var cache = SchemaCacheFile.open(file, REGISTRY)) {
+            assertEquals(List.of(), cache.entries());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.serde.registry;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.serde.metrics.SerdeMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshingOAuthTokenProviderTest {
+
+    private HttpServer server;
+    private final AtomicInteger issued = new AtomicInteger();
+    private final AtomicReference<String> lastForm = new AtomicReference<>();
+    private volatile int status = 200;
+
+    @BeforeEach
+    void startTokenEndpoint() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange -> {
+            lastForm.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = status == 200
+                    ? ("{\"access_token\":\"token-" + issued.incrementAndGet() + "\",\"expires_in\":2}").getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopTokenEndpoint() {
+        server.stop(0);
+    }
+
+    @Test
+    void refreshesBeforeExpiry() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        try (var tokens = new RefreshingOAuthTokenProvider(url(), "sr-client", "s3cret&", "registry",
+                Duration.ofSeconds(1), meters)) {
+            String first = tokens.getBearerToken(null);
+            assertTrue(first.startsWith("token-"), first);
+            assertEquals("grant_type=client_credentials&client_id=sr-client&client_secret=s3cret%26&scope=registry",
+                    lastForm.get());
+
+            // 2s tokens refreshed 1s ahead: a new one is in place before the first expires
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (issued.get() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(issued.get() >= 3, "issued " + issued.get());
+            assertNotEquals(first, tokens.getBearerToken(null));
+            assertTrue(meters.get(SerdeMetrics.TOKEN_FETCH).tags("outcome", "success").timer().count() >= 3);
+        }
+    }
+
+    @Test
+    void failsRequestsOnlyWithoutAValidToken() {
+        status = 500;
+        try (var tokens = new RefreshingOAuthTokenProvider(url(), "sr-client", "secret", "", Duration.ofSeconds(1), null)) {
+            assertThrows(UncheckedIOException.class, () -> tokens.getBearerToken(null));
+            assertFalse(lastForm.get().contains("scope="), lastForm.get());
+
+            status = 200;
+            assertTrue(tokens.getBearerToken(null).startsWith("token-"));
+        }
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/token";
+    }
+}
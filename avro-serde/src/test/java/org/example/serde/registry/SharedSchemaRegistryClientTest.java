@@ -0,0 +1,59 @@
+package org.example.serde.registry;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SharedSchemaRegistryClientTest {
+
+    private static final String SUBJECT = "demo-topic-org.example.avro.Greeting";
+
+    @Test
+    void prewarmsTheLatestVersionsOfTheTopicsSubjects() throws Exception {
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of(SUBJECT, "demo-topic2-value", "other-topic-value"));
+        when(client.getAllVersions(SUBJECT)).thenReturn(List.of(1, 2, 3));
+        for (int version = 1; version <= 3; version++) {
+            SchemaMetadata metadata = mock(SchemaMetadata.class);
+            when(metadata.getId()).thenReturn(100 + version);
+            when(client.getSchemaMetadata(SUBJECT, version)).thenReturn(metadata);
+        }
+        ParsedSchema v3 = mock(ParsedSchema.class);
+        when(client.getSchemaById(103)).thenReturn(v3);
+
+        assertEquals(2, SharedSchemaRegistryClient.prewarm(client, List.of("demo-topic"), 2));
+
+        verify(client, never()).getSchemaMetadata(SUBJECT, 1);
+        verify(client).getSchemaById(102);
+        verify(client).getSchemaBySubjectAndId(SUBJECT, 103);
+        verify(client).getId(SUBJECT, v3);
+        // "demo-topic2-value" belongs to another topic
+        verify(client, never()).getAllVersions("demo-topic2-value");
+        verify(client, never()).getAllVersions("other-topic-value");
+    }
+
+    @Test
+    void registryErrorsLeaveTheCachesCold() throws Exception {
+        SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+        when(client.getAllSubjects()).thenReturn(List.of(SUBJECT));
+        when(client.getAllVersions(anyString())).thenThrow(new RestClientException("Unauthorized", 401, 401));
+
+        assertEquals(0, SharedSchemaRegistryClient.prewarm(client, List.of("demo-topic"), 10));
+        verify(client, never()).getSchemaById(anyInt());
+
+        when(client.getAllSubjects()).thenThrow(new RestClientException("Unavailable", 503, 503));
+        assertEquals(0, SharedSchemaRegistryClient.prewarm(client, List.of("demo-topic"), 10));
+    }
+}
@@ -0,0 +1,33 @@
+plugins {
+    // Shared Java conventions (toolchain, repositories)
+    id("buildlogic.java-common-conventions")
+}
+
+repositories {
+    maven("https://packages.confluent.io/maven/")
+    mavenCentral()
+}
+
+dependencies {
+    // Serdes under test: stock Confluent and the avro-serde ones
+    implementation(project(":avro-serde"))
+    // Greeting and its generated codec (shared schemas)
+    implementation(project(":avro-schemas"))
+    implementation("io.confluent:kafka-avro-serializer:8.0.0")
+    implementation("org.apache.avro:avro:1.12.0")
+    // HTTP registry with injected latency (RegistryLatencyBenchmark)
+    implementation(project(":embedded-registry"))
+
+    implementation("org.openjdk.jmh:jmh-core:1.37")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+// Runs all benchmarks with the GC profiler; pass extra JMH options with -PjmhArgs="..." (e.g. a name regex)
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Run the JMH serde benchmarks"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc", "-rf", "json", "-rff", layout.buildDirectory.file("jmh-result.json").get().asFile.absolutePath)
+    (findProperty("jmhArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
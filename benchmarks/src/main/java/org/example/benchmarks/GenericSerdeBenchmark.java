@@ -0,0 +1,68 @@
+package org.example.benchmarks;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GenericData.Record through the stock Confluent serde, as {@code ProducerService} sends it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericSerdeBenchmark {
+
+    @Param({"v1", "v2"})
+    public String schema;
+
+    @Param({"16", "256", "4096", "65536"})
+    public int payloadBytes;
+
+    private KafkaAvroSerializer serializer;
+    private KafkaAvroDeserializer deserializer;
+    private GenericRecord record;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient client = SerdeFixtures.registry();
+        serializer = new KafkaAvroSerializer(client, SerdeFixtures.configs(false));
+        deserializer = new KafkaAvroDeserializer(client, SerdeFixtures.configs(false));
+        record = SerdeFixtures.generic(SerdeFixtures.schema(schema), SerdeFixtures.payload(payloadBytes));
+        bytes = serializer.serialize(SerdeFixtures.TOPIC, record);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(SerdeFixtures.TOPIC, record);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, bytes);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.benchmarks;
+
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.avro.Greeting;
+import org.example.registry.EmbeddedSchemaRegistry;
+import org.example.serde.PooledSpecificAvroDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializers against an {@link EmbeddedSchemaRegistry} that answers after {@link #registryLatencyMs}, i.e. over
+ * HTTP instead of {@code MockSchemaRegistryClient}.
+ * {@link #firstRecord} measures a consumer's first record: a fresh registry client and deserializer per iteration, so
+ * the writer schema lookup goes to the registry. {@link #cachedRecord} measures records after that, which the client
+ * caches should keep independent of the registry latency.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class RegistryLatencyBenchmark {
+
+    @Param({"confluent", "avro-serde"})
+    public String serde;
+
+    @Param({"0", "20", "100"})
+    public int registryLatencyMs;
+
+    private EmbeddedSchemaRegistry registry;
+    private byte[] bytes;
+    private SchemaRegistryClient client;
+    private Deserializer<?> deserializer;
+
+    @Setup(Level.Trial)
+    public void startRegistry() throws IOException {
+        registry = EmbeddedSchemaRegistry.start(0);
+        String subject = SerdeFixtures.TOPIC + "-" + SerdeFixtures.V2.getFullName();
+        registry.register(EmbeddedSchemaRegistry.DEFAULT_GROUP, subject, SerdeFixtures.V1);
+        registry.register(EmbeddedSchemaRegistry.DEFAULT_GROUP, subject, SerdeFixtures.V2);
+        try (KafkaAvroSerializer writer = new KafkaAvroSerializer(new CachedSchemaRegistryClient(registry.url(), 10),
+                SerdeFixtures.configs(true))) {
+            bytes = writer.serialize(SerdeFixtures.TOPIC, SerdeFixtures.specific(SerdeFixtures.payload(256)));
+        }
+        registry.faults().latency(Duration.ofMillis(registryLatencyMs), Duration.ZERO);
+    }
+
+    // Cold caches for every firstRecord iteration, warm ones for cachedRecord after its first call
+    @Setup(Level.Iteration)
+    public void newClient() {
+        client = new CachedSchemaRegistryClient(registry.url(), 10);
+        deserializer = switch (serde) {
+            case "confluent" -> new KafkaAvroDeserializer(client, SerdeFixtures.configs(true));
+            case "avro-serde" -> new PooledSpecificAvroDeserializer<>(client, Greeting.class);
+            default -> throw new IllegalArgumentException("Unknown serde: " + serde);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeClient() {
+        deserializer.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopRegistry() {
+        registry.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object firstRecord() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, bytes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Object cachedRecord() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, bytes);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.benchmarks;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.subject.TopicRecordNameStrategy;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.example.avro.Greeting;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Offline registry, serde configs and records shared by the benchmarks. Mirrors the producer: subjects follow
+ * TopicRecordNameStrategy, both schema versions are registered up front and the serdes never register.
+ */
+final class SerdeFixtures {
+
+    static final String TOPIC = "demo-topic";
+    static final Schema V1 = load("/avro/greeting.avsc");
+    static final Schema V2 = load("/avro/greeting2.avsc");
+
+    private SerdeFixtures() {
+    }
+
+    static SchemaRegistryClient registry() {
+        SchemaRegistryClient client = new MockSchemaRegistryClient();
+        String subject = TOPIC + "-" + V2.getFullName();
+        try {
+            client.register(subject, new AvroSchema(V1));
+            client.register(subject, new AvroSchema(V2));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to register benchmark schemas", e);
+        }
+        return client;
+    }
+
+    static Map<String, Object> configs(boolean specificReader) {
+        return Map.of(
+                "schema.registry.url", "mock://benchmarks",
+                "auto.register.schemas", false,
+                "use.latest.version", false,
+                "value.subject.name.strategy", TopicRecordNameStrategy.class.getName(),
+                "specific.avro.reader", specificReader);
+    }
+
+    static Schema schema(String version) {
+        return switch (version) {
+            case "v1" -> V1;
+            case "v2" -> V2;
+            default -> throw new IllegalArgumentException("Unknown schema version: " + version);
+        };
+    }
+
+    static String payload(int bytes) {
+        return "x".repeat(bytes);
+    }
+
+    static GenericRecord generic(Schema schema, String payload) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("message", payload);
+        record.put("timestamp", 1_700_000_000_000L);
+        if (schema.getField("message2") != null) {
+            record.put("message2", "hello world");
+        }
+        return record;
+    }
+
+    static Greeting specific(String payload) {
+        return Greeting.newBuilder()
+                .setMessage(payload)
+                .setMessage2("hello world")
+                .setTimestamp(1_700_000_000_000L)
+                .build();
+    }
+
+    private static Schema load(String resource) {
+        try (InputStream in = SerdeFixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing schema resource " + resource);
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.benchmarks;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.avro.Greeting;
+import org.example.serde.PooledSpecificAvroDeserializer;
+import org.example.serde.PreEncodedSpecificAvroSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated {@link Greeting} (v2) as {@code ProducerServiceSpecific} sends it, through the stock Confluent serde or
+ * the avro-serde pair ({@code PreEncodedSpecificAvroSerializer} / {@code PooledSpecificAvroDeserializer}).
+ * {@link #deserializeV1Writer} reads bytes written with the v1 schema into the v2 class, i.e. with schema resolution;
+ * {@link #deserializeMixed} alternates v1 and v2 records as a consumer sees them during a rolling upgrade. With cached
+ * resolution plans both should match {@link #deserialize}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificSerdeBenchmark {
+
+    @Param({"confluent", "avro-serde"})
+    public String serde;
+
+    @Param({"16", "256", "4096", "65536"})
+    public int payloadBytes;
+
+    private Serializer<? super Greeting> serializer;
+    private Deserializer<?> deserializer;
+    private Greeting record;
+    private byte[] v2Bytes;
+    private byte[] v1Bytes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient client = SerdeFixtures.registry();
+        switch (serde) {
+            case "confluent" -> {
+                serializer = new KafkaAvroSerializer(client, SerdeFixtures.configs(true));
+                deserializer = new KafkaAvroDeserializer(client, SerdeFixtures.configs(true));
+            }
+            case "avro-serde" -> {
+                var preEncoded = new PreEncodedSpecificAvroSerializer<>(client, Greeting.class);
+                preEncoded.configure(SerdeFixtures.configs(true), false);
+                serializer = preEncoded;
+                deserializer = new PooledSpecificAvroDeserializer<>(client, Greeting.class);
+            }
+            default -> throw new IllegalArgumentException("Unknown serde: " + serde);
+        }
+        String payload = SerdeFixtures.payload(payloadBytes);
+        record = SerdeFixtures.specific(payload);
+        v2Bytes = serializer.serialize(SerdeFixtures.TOPIC, record);
+        try (KafkaAvroSerializer writer = new KafkaAvroSerializer(client, SerdeFixtures.configs(false))) {
+            v1Bytes = writer.serialize(SerdeFixtures.TOPIC, SerdeFixtures.generic(SerdeFixtures.V1, payload));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(SerdeFixtures.TOPIC, record);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, v2Bytes);
+    }
+
+    @Benchmark
+    public Object deserializeV1Writer() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, v1Bytes);
+    }
+
+    @Benchmark
+    public Object deserializeMixed() {
+        return deserializer.deserialize(SerdeFixtures.TOPIC, (next++ & 1) == 0 ? v1Bytes : v2Bytes);
+    }
+}
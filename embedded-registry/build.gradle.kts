@@ -0,0 +1,25 @@
+plugins {
+    // Shared Java conventions plus api/implementation separation for a library used by tests and benchmarks
+    id("buildlogic.java-library-conventions")
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // Schemas are stored in Avro canonical form, so equal schemas get equal ids as in a real registry
+    implementation("org.apache.avro:avro:1.12.0")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.19.2")
+    implementation("org.slf4j:slf4j-api:2.0.17")
+}
+
+// Serves the migrator's schema tree on localhost:8081 until stopped; options via -PregistryArgs="latency=50ms ..."
+tasks.register<JavaExec>("runRegistry") {
+    group = "application"
+    description = "Run the embedded ccompat registry stand-in"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.example.registry.EmbeddedSchemaRegistry")
+    args("seed=" + rootProject.file("avro-schema-registry/src/main/resources/avro/kafka-topic").absolutePath)
+    (findProperty("registryArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
@@ -0,0 +1,401 @@
+package org.example.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process stand-in for Apicurio's Confluent-compatible API ({@value #BASE_PATH}), for load tests and CI runs of
+ * the serdes and registry clients without the docker-compose stack.
+ * <p>
+ * Serves the subset the apps and the migrator use: subject listing, versions, register, lookup by schema,
+ * get-by-id and latest version. Subjects live in the group named by the {@value #GROUP_HEADER} header (or
+ * {@value #DEFAULT_GROUP}); ids are global. Requests are not authenticated; bearer tokens are accepted and ignored.
+ * <p>
+ * Every request first goes through {@link #faults()}, so tests can add latency and errors, and is counted per route
+ * in {@link #requests()}, so they can tell how many lookups the client caches absorbed. Requests run on virtual
+ * threads, so injected latency does not limit concurrency.
+ */
+public final class EmbeddedSchemaRegistry implements Closeable {
+
+    public static final String BASE_PATH = "/apis/ccompat/v7";
+    public static final String GROUP_HEADER = "X-Registry-GroupId";
+    public static final String DEFAULT_GROUP = "default";
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedSchemaRegistry.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+    private static final String AVRO = "AVRO";
+
+    private static final Pattern SUBJECTS = Pattern.compile("/subjects");
+    private static final Pattern VERSIONS = Pattern.compile("/subjects/([^/]+)/versions");
+    private static final Pattern VERSION = Pattern.compile("/subjects/([^/]+)/versions/([^/]+)");
+    private static final Pattern SUBJECT = Pattern.compile("/subjects/([^/]+)");
+    private static final Pattern SCHEMA_BY_ID = Pattern.compile("/schemas/ids/(\\d+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SchemaStore store = new SchemaStore();
+    private final RegistryFaults faults = new RegistryFaults();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    private EmbeddedSchemaRegistry(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a registry on localhost.
+     *
+     * @param port port to listen on, 0 for a free one
+     */
+    public static EmbeddedSchemaRegistry start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        EmbeddedSchemaRegistry registry = new EmbeddedSchemaRegistry(server, executor);
+        server.createContext(BASE_PATH, registry::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Embedded schema registry listening on {}", registry.url());
+        return registry;
+    }
+
+    /**
+     * Base URL for schema.registry.url / app.schema-registry.url.
+     */
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public RegistryFaults faults() {
+        return faults;
+    }
+
+    /**
+     * Requests served (or failed by injected errors) per route, e.g. {@code GET /schemas/ids/{id}}.
+     */
+    public Map<String, Long> requests() {
+        Map<String, Long> counts = new TreeMap<>();
+        requests.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    public void resetRequests() {
+        requests.clear();
+    }
+
+    /**
+     * Registers the .avsc files of a migrator-style tree ({@code <root>/<topic>/*.avsc}). Files of a topic are
+     * registered in file-name order, so later files become later versions of their subject. Files that do not parse
+     * on their own (e.g. because they reference types of other files) are skipped with a warning.
+     *
+     * @return number of schemas registered
+     */
+    public int seed(Path root, String group, SubjectNaming naming) throws IOException {
+        int registered = 0;
+        try (Stream<Path> topics = Files.list(root)) {
+            for (Path topicDir : topics.filter(Files::isDirectory).sorted().toList()) {
+                String topic = topicDir.getFileName().toString();
+                List<Path> files;
+                try (Stream<Path> listing = Files.list(topicDir)) {
+                    files = listing.filter(f -> f.getFileName().toString().endsWith(".avsc")).sorted().toList();
+                }
+                for (Path file : files) {
+                    Schema schema;
+                    try {
+                        schema = parseAvro(new Schema.Parser(), Files.readString(file));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Seed schema {} skipped: {}", file, e.getMessage());
+                        continue;
+                    }
+                    register(group, naming.subject(topic, schema), schema);
+                    registered++;
+                }
+            }
+        }
+        log.info("Seeded {} schema(s) from {} into group {}", registered, root, group);
+        return registered;
+    }
+
+    /**
+     * @return the schema's id
+     */
+    public int register(String group, String subject, Schema schema) {
+        return store.register(group, subject, new SchemaStore.Stored(AVRO, schema.toString(), List.of())).id();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath().substring(BASE_PATH.length());
+            String method = exchange.getRequestMethod();
+            String group = exchange.getRequestHeaders().getFirst(GROUP_HEADER);
+            requests.computeIfAbsent(method + " " + route(path), r -> new LongAdder()).increment();
+            Response response;
+            try {
+                int injected = faults.apply();
+                response = injected != 0
+                        ? error(injected, 50001, "Injected failure")
+                        : dispatch(method, path, group != null ? group : DEFAULT_GROUP, exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response = error(500, 50001, "Interrupted");
+            } catch (RuntimeException e) {
+                log.warn("Request {} {} failed", method, path, e);
+                response = error(500, 50001, e.toString());
+            }
+            byte[] body = MAPPER.writeValueAsBytes(response.body());
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private record Response(int status, Object body) {
+    }
+
+    private static String route(String path) {
+        if (SUBJECTS.matcher(path).matches()) {
+            return "/subjects";
+        } else if (VERSIONS.matcher(path).matches()) {
+            return "/subjects/{subject}/versions";
+        } else if (VERSION.matcher(path).matches()) {
+            return "/subjects/{subject}/versions/{version}";
+        } else if (SUBJECT.matcher(path).matches()) {
+            return "/subjects/{subject}";
+        } else if (SCHEMA_BY_ID.matcher(path).matches()) {
+            return "/schemas/ids/{id}";
+        }
+        return path;
+    }
+
+    private Response dispatch(String method, String path, String group, HttpExchange exchange) throws IOException {
+        Matcher m;
+        if (method.equals("GET") && SUBJECTS.matcher(path).matches()) {
+            return new Response(200, store.subjects(group));
+        }
+        if ((m = VERSIONS.matcher(path)).matches()) {
+            String subject = decode(m.group(1));
+            if (method.equals("POST")) {
+                return register(group, subject, exchange);
+            }
+            List<SchemaStore.Version> versions = store.versions(group, subject);
+            return versions.isEmpty()
+                    ? subjectNotFound(subject)
+                    : new Response(200, versions.stream().map(SchemaStore.Version::version).toList());
+        }
+        if (method.equals("GET") && (m = VERSION.matcher(path)).matches()) {
+            return version(group, decode(m.group(1)), decode(m.group(2)));
+        }
+        if (method.equals("POST") && (m = SUBJECT.matcher(path)).matches()) {
+            return lookup(group, decode(m.group(1)), exchange);
+        }
+        if (method.equals("GET") && (m = SCHEMA_BY_ID.matcher(path)).matches()) {
+            SchemaStore.Stored schema = store.schema(Integer.parseInt(m.group(1)));
+            if (schema == null) {
+                return error(404, 40403, "Schema " + m.group(1) + " not found");
+            }
+            ObjectNode body = MAPPER.createObjectNode();
+            writeSchema(body, schema);
+            return new Response(200, body);
+        }
+        return error(404, 404, "Not supported by the embedded registry: " + method + " " + path);
+    }
+
+    private Response register(String group, String subject, HttpExchange exchange) throws IOException {
+        SchemaStore.Stored schema;
+        try {
+            schema = parse(group, MAPPER.readTree(exchange.getRequestBody()));
+        } catch (IllegalArgumentException e) {
+            return error(422, 42201, "Invalid schema: " + e.getMessage());
+        }
+        return new Response(200, Map.of("id", store.register(group, subject, schema).id()));
+    }
+
+    private Response lookup(String group, String subject, HttpExchange exchange) throws IOException {
+        SchemaStore.Stored schema;
+        try {
+            schema = parse(group, MAPPER.readTree(exchange.getRequestBody()));
+        } catch (IllegalArgumentException e) {
+            return error(422, 42201, "Invalid schema: " + e.getMessage());
+        }
+        if (store.versions(group, subject).isEmpty()) {
+            return subjectNotFound(subject);
+        }
+        SchemaStore.Version version = store.lookup(group, subject, schema);
+        return version != null ? new Response(200, version(version)) : error(404, 40403, "Schema not found");
+    }
+
+    private Response version(String group, String subject, String version) {
+        List<SchemaStore.Version> versions = store.versions(group, subject);
+        if (versions.isEmpty()) {
+            return subjectNotFound(subject);
+        }
+        int number;
+        try {
+            number = version.equals("latest") || version.equals("-1") ? versions.size() : Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return error(422, 42202, "Invalid version " + version);
+        }
+        return number >= 1 && number <= versions.size()
+                ? new Response(200, version(versions.get(number - 1)))
+                : error(404, 40402, "Version " + version + " not found");
+    }
+
+    /**
+     * Avro schemas without references are stored in canonical form, so formatting does not create new versions.
+     * Schemas with references must parse together with the referenced versions and are kept as sent.
+     */
+    private SchemaStore.Stored parse(String group, JsonNode request) {
+        String text = request.path("schema").asText(null);
+        if (text == null) {
+            throw new IllegalArgumentException("missing 'schema'");
+        }
+        String type = request.path("schemaType").asText(AVRO).toUpperCase(Locale.ROOT);
+        List<SchemaStore.Reference> references = new ArrayList<>();
+        for (JsonNode ref : request.path("references")) {
+            references.add(new SchemaStore.Reference(ref.path("name").asText(), ref.path("subject").asText(),
+                    ref.path("version").asInt()));
+        }
+        if (!type.equals(AVRO)) {
+            return new SchemaStore.Stored(type, text, List.copyOf(references));
+        }
+        Schema.Parser parser = new Schema.Parser();
+        for (SchemaStore.Reference ref : references) {
+            List<SchemaStore.Version> versions = store.versions(group, ref.subject());
+            if (ref.version() < 1 || ref.version() > versions.size()) {
+                throw new IllegalArgumentException("unknown reference " + ref);
+            }
+            parseAvro(parser, versions.get(ref.version() - 1).schema().schema());
+        }
+        Schema schema = parseAvro(parser, text);
+        return references.isEmpty()
+                ? new SchemaStore.Stored(AVRO, schema.toString(), List.of())
+                : new SchemaStore.Stored(AVRO, text, List.copyOf(references));
+    }
+
+    private static Schema parseAvro(Schema.Parser parser, String text) {
+        try {
+            return parser.parse(text);
+        } catch (AvroRuntimeException | NullPointerException e) {
+            // Avro 1.12 reports some undefined type names as NullPointerException
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static ObjectNode version(SchemaStore.Version version) {
+        ObjectNode body = MAPPER.createObjectNode()
+                .put("subject", version.subject())
+                .put("version", version.version())
+                .put("id", version.id());
+        writeSchema(body, version.schema());
+        return body;
+    }
+
+    // AVRO is the default type and, as in Confluent's responses, left out
+    private static void writeSchema(ObjectNode body, SchemaStore.Stored schema) {
+        if (!schema.schemaType().equals(AVRO)) {
+            body.put("schemaType", schema.schemaType());
+        }
+        if (!schema.references().isEmpty()) {
+            ArrayNode refs = body.putArray("references");
+            schema.references().forEach(ref -> refs.addObject()
+                    .put("name", ref.name())
+                    .put("subject", ref.subject())
+                    .put("version", ref.version()));
+        }
+        body.put("schema", schema.schema());
+    }
+
+    private static Response subjectNotFound(String subject) {
+        return error(404, 40401, "Subject '" + subject + "' not found.");
+    }
+
+    private static Response error(int status, int code, String message) {
+        return new Response(status, Map.of("error_code", code, "message", message));
+    }
+
+    private static String decode(String segment) {
+        return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs a registry until the JVM stops. Arguments are {@code key=value}: port (8081), seed (schema tree, none),
+     * group (my-group), naming (TOPIC_RECORD_NAME), latency and jitter (e.g. 50ms, 1s; 0), error-rate (0) and
+     * error-status (503).
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        EmbeddedSchemaRegistry registry = start(Integer.parseInt(options.getOrDefault("port", "8081")));
+        Runtime.getRuntime().addShutdownHook(new Thread(registry::close, "registry-shutdown"));
+        String seed = options.get("seed");
+        if (seed != null) {
+            try {
+                registry.seed(Path.of(seed), options.getOrDefault("group", "my-group"),
+                        SubjectNaming.valueOf(options.getOrDefault("naming", SubjectNaming.TOPIC_RECORD_NAME.name())));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to seed from " + seed, e);
+            }
+        }
+        registry.faults()
+                .latency(duration(options.getOrDefault("latency", "0")), duration(options.getOrDefault("jitter", "0")))
+                .errors(Double.parseDouble(options.getOrDefault("error-rate", "0")),
+                        Integer.parseInt(options.getOrDefault("error-status", "503")));
+        log.info("Faults: {}", registry.faults());
+        new CountDownLatch(1).await();
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
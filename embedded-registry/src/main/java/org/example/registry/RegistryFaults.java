@@ -0,0 +1,69 @@
+package org.example.registry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and errors the {@link EmbeddedSchemaRegistry} adds to every request. Settings can change while the server
+ * runs, e.g. to slow the registry down halfway through a load test.
+ */
+public final class RegistryFaults {
+
+    private volatile long latencyNanos;
+    private volatile long jitterNanos;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+
+    /**
+     * Delays each response by {@code latency} plus a uniformly random share of {@code jitter}.
+     */
+    public RegistryFaults latency(Duration latency, Duration jitter) {
+        if (latency.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative");
+        }
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        return this;
+    }
+
+    /**
+     * Fails the given share of requests (0 to 1) with {@code status}, after the injected latency.
+     */
+    public RegistryFaults errors(double rate, int status) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1: " + rate);
+        }
+        this.errorRate = rate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    public RegistryFaults reset() {
+        return latency(Duration.ZERO, Duration.ZERO).errors(0, 503);
+    }
+
+    /**
+     * Sleeps for the injected latency.
+     *
+     * @return the status to fail the request with, or 0 to serve it
+     */
+    int apply() throws InterruptedException {
+        long delay = latencyNanos;
+        long jitter = jitterNanos;
+        if (jitter > 0) {
+            delay += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+        double rate = errorRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate ? errorStatus : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + Duration.ofNanos(latencyNanos) + " jitter=" + Duration.ofNanos(jitterNanos)
+                + " errors=" + errorRate + "@" + errorStatus;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.registry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Subjects and schemas of the {@link EmbeddedSchemaRegistry}, one namespace of subjects per group.
+ * <p>
+ * Ids are global and content-addressed like in Confluent and Apicurio: the same schema (type, text and references)
+ * gets the same id in every subject and group.
+ */
+final class SchemaStore {
+
+    record Reference(String name, String subject, int version) {
+    }
+
+    record Stored(String schemaType, String schema, List<Reference> references) {
+    }
+
+    record Version(String subject, int version, int id, Stored schema) {
+    }
+
+    private final Map<Stored, Integer> ids = new HashMap<>();
+    private final Map<Integer, Stored> schemas = new HashMap<>();
+    private final Map<String, Map<String, List<Version>>> groups = new HashMap<>();
+    private int nextId = 1;
+
+    /**
+     * Adds the schema as the next version of the subject, or returns the version that already holds it.
+     */
+    synchronized Version register(String group, String subject, Stored schema) {
+        Version existing = lookup(group, subject, schema);
+        if (existing != null) {
+            return existing;
+        }
+        int id = ids.computeIfAbsent(schema, s -> nextId++);
+        schemas.putIfAbsent(id, schema);
+        List<Version> versions = groups.computeIfAbsent(group, g -> new TreeMap<>())
+                .computeIfAbsent(subject, s -> new ArrayList<>());
+        Version version = new Version(subject, versions.size() + 1, id, schema);
+        versions.add(version);
+        return version;
+    }
+
+    synchronized Version lookup(String group, String subject, Stored schema) {
+        for (Version version : versions(group, subject)) {
+            if (version.schema().equals(schema)) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    synchronized List<String> subjects(String group) {
+        return List.copyOf(groups.getOrDefault(group, Map.of()).keySet());
+    }
+
+    /**
+     * @return versions in registration order, empty for an unknown subject
+     */
+    synchronized List<Version> versions(String group, String subject) {
+        return List.copyOf(groups.getOrDefault(group, Map.of()).getOrDefault(subject, List.of()));
+    }
+
+    synchronized Stored schema(int id) {
+        return schemas.get(id);
+    }
+}
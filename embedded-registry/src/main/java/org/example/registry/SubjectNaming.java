@@ -0,0 +1,31 @@
+package org.example.registry;
+
+import org.apache.avro.Schema;
+
+/**
+ * How seed schemas map to subjects, mirroring the Confluent subject name strategies for record values.
+ */
+public enum SubjectNaming {
+
+    /**
+     * {@code <topic>-value}, as TopicNameStrategy (the default of the stock serdes).
+     */
+    TOPIC_NAME {
+        @Override
+        public String subject(String topic, Schema schema) {
+            return topic + "-value";
+        }
+    },
+
+    /**
+     * {@code <topic>-<record full name>}, as TopicRecordNameStrategy (the migrator's default).
+     */
+    TOPIC_RECORD_NAME {
+        @Override
+        public String subject(String topic, Schema schema) {
+            return topic + "-" + schema.getFullName();
+        }
+    };
+
+    public abstract String subject(String topic, Schema schema);
+}
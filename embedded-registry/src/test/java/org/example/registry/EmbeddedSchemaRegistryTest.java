@@ -0,0 +1,123 @@
+package org.example.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedSchemaRegistryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String V1 = """
+            {"type": "record", "name": "Greeting", "namespace": "org.example.avro",
+             "fields": [{"name": "message", "type": "string"}]}""";
+    private static final String V2 = """
+            {"type": "record", "name": "Greeting", "namespace": "org.example.avro",
+             "fields": [{"name": "message", "type": "string"}, {"name": "timestamp", "type": "long"}]}""";
+    private static final String SUBJECT = "demo-topic-org.example.avro.Greeting";
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private EmbeddedSchemaRegistry registry;
+
+    @BeforeEach
+    void start() throws Exception {
+        registry = EmbeddedSchemaRegistry.start(0);
+    }
+
+    @AfterEach
+    void stop() {
+        registry.close();
+    }
+
+    @Test
+    void seedsTheTopicTreeIntoTheGroup(@TempDir Path root) throws Exception {
+        Path topic = Files.createDirectories(root.resolve("demo-topic"));
+        Files.writeString(topic.resolve("greeting.avsc"), V1);
+        Files.writeString(topic.resolve("greeting2.avsc"), V2);
+        Files.writeString(topic.resolve("broken.avsc"), "{\"type\": \"record\", \"name\": \"Broken\", \"fields\": [{\"name\": \"x\", \"type\": \"Missing\"}]}");
+        assertEquals(2, registry.seed(root, "my-group", SubjectNaming.TOPIC_RECORD_NAME));
+
+        assertEquals("[\"" + SUBJECT + "\"]", get("/subjects", "my-group").body().toString());
+        assertEquals("[]", get("/subjects", null).body().toString());
+        assertEquals("[1,2]", get("/subjects/" + SUBJECT + "/versions", "my-group").body().toString());
+
+        JsonNode latest = get("/subjects/" + SUBJECT + "/versions/latest", "my-group").body();
+        assertEquals(2, latest.get("version").asInt());
+        JsonNode byId = get("/schemas/ids/" + latest.get("id").asInt(), null).body();
+        assertEquals(latest.get("schema").asText(), byId.get("schema").asText());
+
+        Response missing = get("/subjects/" + SUBJECT + "/versions/latest", "other-group");
+        assertEquals(404, missing.status());
+        assertEquals(40401, missing.body().get("error_code").asInt());
+    }
+
+    @Test
+    void registersAndLooksUpByCanonicalForm() throws Exception {
+        int id = post("/subjects/" + SUBJECT + "/versions", V1).body().get("id").asInt();
+        // Same schema, different formatting: same id and version, in any subject
+        assertEquals(id, post("/subjects/" + SUBJECT + "/versions", V1.replace(" ", "")).body().get("id").asInt());
+        assertEquals(id, post("/subjects/other-value/versions", V1).body().get("id").asInt());
+        assertEquals("[1]", get("/subjects/" + SUBJECT + "/versions", null).body().toString());
+
+        JsonNode found = post("/subjects/" + SUBJECT, V1.replace("\n", "")).body();
+        assertEquals(id, found.get("id").asInt());
+        assertEquals(1, found.get("version").asInt());
+        assertEquals(40403, post("/subjects/" + SUBJECT, V2).body().get("error_code").asInt());
+        assertEquals(42201, post("/subjects/" + SUBJECT + "/versions", "{\"type\": \"nope\"}").body()
+                .get("error_code").asInt());
+    }
+
+    @Test
+    void injectsLatencyAndErrorsAndCountsRequests() throws Exception {
+        registry.register("default", SUBJECT, new Schema.Parser().parse(V1));
+        registry.faults().latency(Duration.ofMillis(100), Duration.ZERO);
+        long start = System.nanoTime();
+        assertEquals(200, get("/schemas/ids/1", null).status());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+
+        registry.faults().reset().errors(1, 503);
+        assertEquals(503, get("/schemas/ids/1", null).status());
+        registry.faults().reset();
+        assertEquals(200, get("/schemas/ids/1", null).status());
+
+        assertEquals(Map.of("GET /schemas/ids/{id}", 3L), registry.requests());
+    }
+
+    private record Response(int status, JsonNode body) {
+    }
+
+    private Response get(String path, String group) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(registry.url() + path)).GET();
+        if (group != null) {
+            request.header(EmbeddedSchemaRegistry.GROUP_HEADER, group);
+        }
+        return send(request.build());
+    }
+
+    private Response post(String path, String schema) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("schema", schema));
+        return send(HttpRequest.newBuilder(URI.create(registry.url() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private Response send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), MAPPER.readTree(response.body()));
+    }
+}
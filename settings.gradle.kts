@@ -17,4 +17,4 @@ plugins {
 }
 
 rootProject.name = "apicurio-kafka-avro-spring-boot-app"
-include("app-producer", "app-consumer", "avro-schema-registry")
+include("app-producer", "app-consumer", "avro-schema-registry", "avro-schemas", "avro-serde", "benchmarks", "embedded-registry")